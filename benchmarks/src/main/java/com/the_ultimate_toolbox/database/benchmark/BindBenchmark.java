@@ -0,0 +1,116 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import com.the_ultimate_toolbox.database.jdbc.ParameterBinder;
+import com.the_ultimate_toolbox.database.jdbc.RowBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU cost of binding the parameters of one row, without executing anything: the per-value type switch
+ * that {@code SQLinteractions} used before {@link ParameterBinder}, the compiled binder fed with strings, and
+ * the binder fed with a {@link RowBuffer}. Every invocation binds {@value #ROWS} rows of the {@link Dataset}
+ * into an INSERT, and the score is the mean time per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class BindBenchmark {
+
+    static final int ROWS = 1_000;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private String[][] values;
+    private ParameterBinder binder;
+    private RowBuffer[] buffers;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        connection = Dataset.connect(Dataset.url("bind_benchmark"));
+        Dataset.create(connection, 0);
+        statement = connection.prepareStatement("INSERT INTO " + Dataset.TABLE + " (id, nombre, email, ciudad, pais, saldo)"
+                + " VALUES (?, ?, ?, ?, ?, ?)");
+        binder = ParameterBinder.forTypes(Dataset.TYPES);
+        values = new String[ROWS][];
+        buffers = new RowBuffer[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            values[i] = Dataset.row(i + 1);
+            buffers[i] = binder.newRow()
+                    .setInt(0, i + 1)
+                    .setString(1, values[i][1])
+                    .setString(2, values[i][2])
+                    .setString(3, values[i][3])
+                    .setString(4, values[i][4])
+                    .setDouble(5, Double.parseDouble(values[i][5]));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        statement.close();
+        connection.close();
+    }
+
+    /**
+     * The switch on the type name for every value, as {@code insertIntoTableBatch} bound rows up to 2.1.0.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PreparedStatement switchPerValue() throws SQLException {
+        String[] types = Dataset.TYPES;
+        for (String[] row : values) {
+            for (int c = 0; c < row.length; c++) {
+                switch (types[c]) {
+                    case "INT" -> statement.setInt(c + 1, Integer.parseInt(row[c]));
+                    case "FLOAT" -> statement.setFloat(c + 1, Float.parseFloat(row[c]));
+                    case "DOUBLE" -> statement.setDouble(c + 1, Double.parseDouble(row[c]));
+                    default -> statement.setString(c + 1, row[c]);
+                }
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * {@link ParameterBinder#bindStrings}: the setters are resolved once, the values are still parsed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PreparedStatement binderStrings() throws SQLException {
+        for (String[] row : values) {
+            binder.bindStrings(statement, row, 1);
+        }
+        return statement;
+    }
+
+    /**
+     * {@link ParameterBinder#bind} from typed buffers: no parsing and no boxing.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public PreparedStatement binderRowBuffer() throws SQLException {
+        for (RowBuffer row : buffers) {
+            binder.bind(statement, row, 1);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,91 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import com.the_ultimate_toolbox.database.core.ConnectionPool;
+import com.the_ultimate_toolbox.database.core.GenericDBConnector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of getting a connection and giving it back: a new {@link GenericDBConnector}, which opens a
+ * physical connection every time, against a {@link ConnectionPool} created by
+ * {@link GenericDBConnector#createPool(int, int)}, with one thread and with more threads than connections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ConnectionBenchmark {
+
+    static final int POOL_SIZE = 4;
+
+    private String url;
+    private Connection keepAlive;
+    private ConnectionPool pool;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        url = Dataset.url("connection_benchmark");
+        // Mantiene viva la base de datos en memoria entre conexiones
+        keepAlive = Dataset.connect(url);
+        pool = new GenericDBConnector(url, Dataset.USER, Dataset.PASSWORD).createPool(POOL_SIZE, POOL_SIZE);
+        // GenericDBConnector escribe una línea por conexión; se silencia para no medir la consola
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        System.setOut(out);
+        pool.close();
+        keepAlive.close();
+    }
+
+    /**
+     * Opens and closes a physical connection through the connector.
+     */
+    @Benchmark
+    public boolean connector() {
+        GenericDBConnector connector = new GenericDBConnector(url, Dataset.USER, Dataset.PASSWORD);
+        boolean connected = connector.getConnection() != null;
+        connector.cerrarConexion();
+        return connected;
+    }
+
+    @Benchmark
+    public boolean pooled() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            return connection.isValid(0);
+        }
+    }
+
+    /**
+     * Twice as many threads as pooled connections, so borrowers wait for each other.
+     */
+    @Benchmark
+    @Threads(2 * POOL_SIZE)
+    public boolean pooledContended() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            return connection.isValid(0);
+        }
+    }
+}
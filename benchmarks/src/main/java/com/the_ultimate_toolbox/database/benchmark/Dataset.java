@@ -0,0 +1,129 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+
+/**
+ * The data every benchmark runs against: an in-memory H2 database with a {@code clientes} table, filled from a
+ * fixed seed so that two runs, or two releases, query exactly the same rows.
+ *
+ * <pre>
+ * clientes (id INT PRIMARY KEY, nombre VARCHAR(50), email VARCHAR(80), ciudad VARCHAR(30), pais VARCHAR(2), saldo DOUBLE)
+ * </pre>
+ *
+ * <p>{@code email} and {@code ciudad} are indexed, {@code nombre} and {@code pais} are not. Row {@code i}
+ * always has {@code id = i}, so benchmarks can pick their keys with {@link #ids(int, int)} instead of reading
+ * them back.</p>
+ */
+public final class Dataset {
+
+    public static final long SEED = 20_240_303L;
+    public static final String TABLE = "clientes";
+    public static final String[] COLUMNS = {"id", "nombre", "email", "ciudad", "pais", "saldo"};
+    public static final String[] TYPES = {"INT", "VARCHAR", "VARCHAR", "VARCHAR", "VARCHAR", "DOUBLE"};
+    public static final String USER = "sa";
+    public static final String PASSWORD = "sa";
+
+    static final String[] CIUDADES = {"Madrid", "Barcelona", "Sevilla", "Valencia", "Bilbao", "Lisboa", "Oporto",
+            "Paris", "Lyon", "Roma", "Milan", "Berlin", "Munich", "Londres", "Dublin", "Santiago"};
+    static final String[] PAISES = {"ES", "ES", "ES", "ES", "ES", "PT", "PT", "FR", "FR", "IT", "IT", "DE", "DE", "GB", "IE", "CL"};
+
+    private Dataset() {
+    }
+
+    /**
+     * @param name a name unique to the benchmark, so that forks never share a database
+     * @return the URL of an in-memory database that lives until the JVM exits
+     */
+    public static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * Opens a connection to the database at {@code url}.
+     */
+    public static Connection connect(String url) throws SQLException {
+        return DriverManager.getConnection(url, USER, PASSWORD);
+    }
+
+    /**
+     * (Re)creates the {@code clientes} table and fills it with the first {@code rows} rows of the dataset.
+     */
+    public static void create(Connection connection, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id INT PRIMARY KEY, nombre VARCHAR(50), email VARCHAR(80),"
+                    + " ciudad VARCHAR(30), pais VARCHAR(2), saldo DOUBLE)");
+            statement.execute("CREATE INDEX clientes_email ON " + TABLE + " (email)");
+            statement.execute("CREATE INDEX clientes_ciudad ON " + TABLE + " (ciudad)");
+        }
+        insert(connection, 1, rows);
+    }
+
+    /**
+     * Inserts the rows with IDs {@code from} to {@code to}, both included, in one transaction.
+     */
+    public static void insert(Connection connection, int from, int to) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (id, nombre, email, ciudad, pais, saldo) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = from; id <= to; id++) {
+                String[] row = row(id);
+                statement.setInt(1, id);
+                for (int c = 1; c < 5; c++) {
+                    statement.setString(c + 1, row[c]);
+                }
+                statement.setDouble(6, Double.parseDouble(row[5]));
+                statement.addBatch();
+                if ((id - from) % 1_000 == 999) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * @return row {@code id} of the dataset, as the {@code String[]} the toolbox works with; it depends only on
+     * the ID and the seed
+     */
+    public static String[] row(int id) {
+        SplittableRandom random = new SplittableRandom(SEED + id);
+        int place = random.nextInt(CIUDADES.length);
+        return new String[]{
+                Integer.toString(id),
+                "Cliente " + id,
+                email(id),
+                CIUDADES[place],
+                PAISES[place],
+                Double.toString(Math.round(random.nextDouble() * 1_000_000) / 100.0)
+        };
+    }
+
+    /**
+     * @return the email of row {@code id}; unique
+     */
+    public static String email(int id) {
+        return "cliente" + id + "@example.com";
+    }
+
+    /**
+     * @return {@code count} IDs between 1 and {@code rows}, drawn from the fixed seed
+     */
+    public static int[] ids(int count, int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = 1 + random.nextInt(rows);
+        }
+        return ids;
+    }
+}
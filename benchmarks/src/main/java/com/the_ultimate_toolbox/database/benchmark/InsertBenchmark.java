@@ -0,0 +1,125 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import com.the_ultimate_toolbox.database.jdbc.BatchResult;
+import com.the_ultimate_toolbox.database.jdbc.ParameterBinder;
+import com.the_ultimate_toolbox.database.jdbc.RowBuffer;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares one INSERT per row with {@link SQLinteractions#insertIntoTableBatch}. Every invocation inserts
+ * {@value #ROWS} rows of the {@link Dataset}, and the score is the mean time per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class InsertBenchmark {
+
+    static final int ROWS = 1_000;
+    private static final String TABLE = "altas";
+    private static final String[] COLUMNS = Arrays.copyOfRange(Dataset.COLUMNS, 1, Dataset.COLUMNS.length);
+    private static final String[] TYPES = Arrays.copyOfRange(Dataset.TYPES, 1, Dataset.TYPES.length);
+
+    @State(Scope.Thread)
+    public static class Batch {
+        @Param({"100", "1000"})
+        int batchSize;
+    }
+
+    private Connection connection;
+    private String[][] values;
+    private ParameterBinder binder;
+    private double[] saldos;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        connection = Dataset.connect(Dataset.url("insert_benchmark"));
+        SQLinteractions.createTable(connection, TABLE, COLUMNS, new String[]{"VARCHAR(50)", "VARCHAR(80)",
+                "VARCHAR(30)", "VARCHAR(2)", "DOUBLE"});
+        values = new String[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            String[] row = Dataset.row(i + 1);
+            values[i] = Arrays.copyOfRange(row, 1, row.length);
+        }
+        binder = ParameterBinder.forTypes(TYPES);
+        saldos = Arrays.stream(values).mapToDouble(row -> Double.parseDouble(row[4])).toArray();
+    }
+
+    // Vaciar la tabla en cada iteración para que su tamaño no crezca durante la medición
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE " + TABLE);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * One auto-committed INSERT per row.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int singleRow() {
+        int inserted = 0;
+        for (String[] row : values) {
+            if (SQLinteractions.insertIntoTableOneRecord(connection, TABLE, COLUMNS, row, TYPES)) {
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * The same rows sent with JDBC batching, committed every {@code batchSize} rows.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BatchResult batch(Batch batch) {
+        return SQLinteractions.insertIntoTableBatch(connection, TABLE, COLUMNS, values, TYPES, batch.batchSize);
+    }
+
+    /**
+     * The same batches bound from a reused {@link RowBuffer}, so no value is parsed on the way.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BatchResult batchRowBuffer(Batch batch) {
+        int[] next = {0};
+        return SQLinteractions.insertIntoTableBatch(connection, TABLE, COLUMNS, binder, row -> {
+            if (next[0] == ROWS) {
+                return false;
+            }
+            int i = next[0]++;
+            String[] value = values[i];
+            row.setString(0, value[0]).setString(1, value[1]).setString(2, value[2]).setString(3, value[3])
+                    .setDouble(4, saldos[i]);
+            return true;
+        }, batch.batchSize);
+    }
+}
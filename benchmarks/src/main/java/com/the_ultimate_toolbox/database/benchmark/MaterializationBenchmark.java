@@ -0,0 +1,110 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import com.the_ultimate_toolbox.database.jdbc.ResultCursor;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import com.the_ultimate_toolbox.database.orm.RowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of turning one large result, every {@code pais = 'ES'} row of the {@link Dataset}, into Java objects:
+ * a list of {@code String[]}, the same list parsed into records by hand, a {@link ResultCursor} read row by
+ * row, a list of records through {@link RowMapper}, and plain JDBC as the baseline. The query is the same in every case, so the differences
+ * are the materialization itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class MaterializationBenchmark {
+
+    public record Cliente(int id, String nombre, String email, String ciudad, String pais, double saldo) {
+    }
+
+    @Param({"10000", "100000"})
+    int rows;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        connection = Dataset.connect(Dataset.url("materialization_benchmark"));
+        Dataset.create(connection, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<String[]> stringArrays() {
+        return SQLinteractions.searchByField(connection, Dataset.TABLE, "pais", "ES");
+    }
+
+    /**
+     * The manual path to the same records as {@link #records()}: {@code searchByField} followed by parsing
+     * every {@code String[]} row into the model.
+     */
+    @Benchmark
+    public List<Cliente> parsedStringArrays() {
+        List<String[]> found = SQLinteractions.searchByField(connection, Dataset.TABLE, "pais", "ES");
+        List<Cliente> clientes = new ArrayList<>(found.size());
+        for (String[] row : found) {
+            clientes.add(new Cliente(Integer.parseInt(row[0]), row[1], row[2], row[3], row[4], Double.parseDouble(row[5])));
+        }
+        return clientes;
+    }
+
+    @Benchmark
+    public void cursor(Blackhole blackhole) {
+        try (ResultCursor cursor = SQLinteractions.cursorByField(connection, Dataset.TABLE, "pais", "ES",
+                ResultCursor.DEFAULT_FETCH_SIZE)) {
+            while (cursor.hasNext()) {
+                blackhole.consume(cursor.next());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Cliente> records() {
+        return RowMapper.query(connection, Cliente.class, "SELECT * FROM " + Dataset.TABLE + " WHERE pais = ?", "ES");
+    }
+
+    @Benchmark
+    public void plainJdbc(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM " + Dataset.TABLE + " WHERE pais = ?")) {
+            statement.setString(1, "ES");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columns = resultSet.getMetaData().getColumnCount();
+                while (resultSet.next()) {
+                    for (int c = 1; c <= columns; c++) {
+                        blackhole.consume(resultSet.getString(c));
+                    }
+                }
+            }
+        }
+    }
+}
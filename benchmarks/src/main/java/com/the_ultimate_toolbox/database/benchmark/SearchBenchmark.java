@@ -0,0 +1,145 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search throughput of the {@code SQLinteractions.search*} methods on the {@link Dataset}, with keys that
+ * cycle through a fixed sequence of IDs. Point lookups on an indexed column, a full scan, and the AND, OR and
+ * case-insensitive variants are measured separately, so a change to one query shape shows up on its own.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    private static final int KEYS = 1_024;
+
+    @Param({"10000", "100000"})
+    int rows;
+
+    private Connection connection;
+    private PreparedStatement plainOR;
+    private int[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        connection = Dataset.connect(Dataset.url("search_benchmark"));
+        Dataset.create(connection, rows);
+        SQLinteractions.createCaseInsensitiveIndex(connection, Dataset.TABLE, "ciudad");
+        ids = Dataset.ids(KEYS, rows);
+        // Preparada una vez, como la que StatementCache guarda para byMultipleFieldORColumns
+        plainOR = connection.prepareStatement("SELECT * FROM " + Dataset.TABLE + " WHERE email = ? OR id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        plainOR.close();
+        connection.close();
+    }
+
+    private int nextId() {
+        int id = ids[next];
+        next = (next + 1) & (KEYS - 1);
+        return id;
+    }
+
+    /**
+     * Equality on an indexed column that matches one row.
+     */
+    @Benchmark
+    public List<String[]> byIndexedField() {
+        return SQLinteractions.searchByField(connection, Dataset.TABLE, "email", Dataset.email(nextId()));
+    }
+
+    /**
+     * Equality on a column without an index: a full scan that matches one row.
+     */
+    @Benchmark
+    public List<String[]> byUnindexedField() {
+        return SQLinteractions.searchByField(connection, Dataset.TABLE, "nombre", "Cliente " + nextId());
+    }
+
+    @Benchmark
+    public List<String[]> byMultipleFieldAND() {
+        String[] row = Dataset.row(nextId());
+        return SQLinteractions.searchByMultipleFieldAND(connection, Dataset.TABLE, new String[]{"email", "pais"},
+                new String[]{row[2], row[4]}, new String[]{"VARCHAR", "VARCHAR"});
+    }
+
+    /**
+     * Two indexed columns joined by OR, each matching one row.
+     */
+    @Benchmark
+    public List<String[]> byMultipleFieldOR() {
+        return SQLinteractions.searchByMultipleFieldOR(connection, Dataset.TABLE, new String[]{"email", "email"},
+                new String[]{"VARCHAR", "VARCHAR"}, new String[]{Dataset.email(nextId()), Dataset.email(nextId())});
+    }
+
+    /**
+     * An OR across two different indexed columns, {@code email} and the primary key, each matching one row.
+     * {@code searchByMultipleFieldOR} rewrites it into one indexed lookup per column.
+     */
+    @Benchmark
+    public List<String[]> byMultipleFieldORColumns() {
+        return SQLinteractions.searchByMultipleFieldOR(connection, Dataset.TABLE, new String[]{"email", "id"},
+                new String[]{"VARCHAR", "INT"}, new String[]{Dataset.email(nextId()), Integer.toString(nextId())});
+    }
+
+    /**
+     * The baseline for {@link #byMultipleFieldORColumns()}: the literal {@code email = ? OR id = ?} query,
+     * prepared once like the cached one, and read into the same {@code String[]} rows. Only the query shape
+     * differs.
+     */
+    @Benchmark
+    public List<String[]> plainORColumns() throws SQLException {
+        plainOR.setString(1, Dataset.email(nextId()));
+        plainOR.setInt(2, nextId());
+        List<String[]> found = new ArrayList<>();
+        try (ResultSet resultSet = plainOR.executeQuery()) {
+            int columns = resultSet.getMetaData().getColumnCount();
+            while (resultSet.next()) {
+                String[] row = new String[columns];
+                for (int c = 0; c < columns; c++) {
+                    row[c] = resultSet.getString(c + 1);
+                }
+                found.add(row);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A case-insensitive equality with the dialect's index in place. Every city matches a sixteenth of the
+     * table, so this measures the lookup plus the materialization of many rows.
+     */
+    @Benchmark
+    public List<String[]> ignoreCase() {
+        return SQLinteractions.searchIgnoreCase(connection, Dataset.TABLE, "ciudad",
+                Dataset.CIUDADES[nextId() % Dataset.CIUDADES.length].toUpperCase());
+    }
+}
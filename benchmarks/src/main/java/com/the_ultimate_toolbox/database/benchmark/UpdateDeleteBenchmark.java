@@ -0,0 +1,162 @@
+package com.the_ultimate_toolbox.database.benchmark;
+
+import com.the_ultimate_toolbox.database.jdbc.ParameterBinder;
+import com.the_ultimate_toolbox.database.jdbc.RowBuffer;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The update and delete paths of {@link SQLinteractions} on {@value #ROWS} rows of the {@link Dataset}. Every
+ * invocation touches the same {@value #IDS} rows, and the score is the mean time per row.
+ *
+ * <p>The delete benchmarks put the deleted rows back before the next invocation, outside of the measured
+ * time.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class UpdateDeleteBenchmark {
+
+    static final int ROWS = 100_000;
+    static final int IDS = 500;
+    private static final String[] COLUMNS = {"saldo", "ciudad"};
+    private static final String[] TYPES = {"DOUBLE", "VARCHAR"};
+
+    private Connection connection;
+    private int[] ids;
+    private String[][] values;
+    private ParameterBinder binder;
+    private RowBuffer[] buffers;
+
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        connection = Dataset.connect(Dataset.url("update_delete_benchmark"));
+        Dataset.create(connection, ROWS);
+        // IDs repartidos por toda la tabla y sin repetidos, para que cada borrado encuentre su fila
+        ids = new int[IDS];
+        values = new String[IDS][];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = 1 + i * (ROWS / IDS);
+            values[i] = new String[]{Double.toString(i * 1.5), Dataset.CIUDADES[i % Dataset.CIUDADES.length]};
+        }
+        binder = ParameterBinder.forTypes(TYPES);
+        buffers = new RowBuffer[IDS];
+        for (int i = 0; i < IDS; i++) {
+            buffers[i] = binder.newRow().setDouble(0, i * 1.5).setString(1, values[i][1]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Deletes the benchmark's rows and inserts them again, so every delete invocation starts from the full table.
+     */
+    @State(Scope.Thread)
+    public static class Restore {
+
+        @TearDown(Level.Invocation)
+        public void restore(UpdateDeleteBenchmark benchmark) throws SQLException {
+            try (Statement statement = benchmark.connection.createStatement()) {
+                statement.execute("DELETE FROM " + Dataset.TABLE + " WHERE MOD(id - 1, " + (ROWS / IDS) + ") = 0");
+            }
+            for (int id : benchmark.ids) {
+                Dataset.insert(benchmark.connection, id, id);
+            }
+        }
+    }
+
+    /**
+     * One UPDATE by primary key per row, auto-committed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public int updateById() {
+        int updated = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (SQLinteractions.updateById(connection, Dataset.TABLE, "id", ids[i], COLUMNS, values[i], TYPES)) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * The same updates bound from typed {@link RowBuffer}s instead of strings.
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public int updateByIdRowBuffer() {
+        int updated = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (SQLinteractions.updateById(connection, Dataset.TABLE, "id", ids[i], COLUMNS, binder, buffers[i])) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * The same values applied to every row with {@code UPDATE ... WHERE id IN (...)} chunks.
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public int[] bulkUpdateByIds() {
+        return SQLinteractions.bulkUpdateByIds(connection, Dataset.TABLE, "id", ids, COLUMNS, values[0], TYPES, 100);
+    }
+
+    /**
+     * A different value per row, sent as one JDBC batch.
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public int[] bulkUpdateByIdBatch() {
+        return SQLinteractions.bulkUpdateByIdBatch(connection, Dataset.TABLE, "id", ids, COLUMNS, values, TYPES, 100);
+    }
+
+    /**
+     * One DELETE by primary key per row, auto-committed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public int deleteRowByID(Restore restore) {
+        int deleted = 0;
+        for (int id : ids) {
+            if (SQLinteractions.deleteRowByID(connection, Dataset.TABLE, id)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * The same rows deleted with {@code DELETE ... WHERE id IN (...)} chunks.
+     */
+    @Benchmark
+    @OperationsPerInvocation(IDS)
+    public int[] bulkDeleteByIds(Restore restore) {
+        return SQLinteractions.bulkDeleteByIds(connection, Dataset.TABLE, "id", ids, 100);
+    }
+}
@@ -0,0 +1,118 @@
+package com.the_ultimate_toolbox.files.benchmark;
+
+import com.bufigol.fileManagment.UniversalCSVReaderAndWriter;
+import com.the_ultimate_toolbox.files.readers.CSVStreamReader;
+import com.the_ultimate_toolbox.files.readers.MappedCSVReader;
+import com.the_ultimate_toolbox.files.readers.ParallelCSVReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time to parse one generated CSV file with {@code UniversalCSVReaderAndWriter.readCSV}, {@link CSVStreamReader},
+ * {@link MappedCSVReader} and {@link ParallelCSVReader}. Every reader sums the same numeric column; the mapped
+ * reader is also measured decoding every field, which is the fair comparison when a job needs the whole row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CSVParseBenchmark {
+
+    @Param({"100000", "1000000"})
+    int rows;
+
+    private Path file;
+    private String path;
+
+    @Setup(Level.Trial)
+    public void write() throws IOException {
+        file = Files.createTempFile("csv_parse_benchmark", ".csv");
+        path = file.toString();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                writer.append("cliente").append(Integer.toString(i)).append(";Madrid;")
+                        .append(Integer.toString(i % 1000)).append(";ES;").append(Double.toString(i * 0.25))
+                        .append(";comentario de la fila ").append(Integer.toString(i)).append('\n');
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long readCSV() {
+        long sum = 0;
+        for (String[] row : UniversalCSVReaderAndWriter.readCSV(path)) {
+            sum += Long.parseLong(row[2]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long readCSVParallel() {
+        long sum = 0;
+        for (String[] row : UniversalCSVReaderAndWriter.readCSVParallel(path)) {
+            sum += Long.parseLong(row[2]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long streamReader() {
+        long[] sum = new long[1];
+        new CSVStreamReader().forEach(path, row -> sum[0] += Long.parseLong(row.get(2)));
+        return sum[0];
+    }
+
+    @Benchmark
+    public long mappedReader() {
+        long[] sum = new long[1];
+        new MappedCSVReader().forEach(path, row -> sum[0] += row.getLong(2));
+        return sum[0];
+    }
+
+    /**
+     * {@link MappedCSVReader} decoding every field of every row, instead of the one column it sums.
+     */
+    @Benchmark
+    public long mappedReaderEveryField() {
+        long[] sum = new long[1];
+        new MappedCSVReader().forEach(path, row -> {
+            for (int i = 0; i < row.size(); i++) {
+                sum[0] += row.get(i).length();
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public long parallelReader() {
+        LongAdder sum = new LongAdder();
+        new ParallelCSVReader().forEach(path, row -> sum.add(row.getLong(2)));
+        return sum.sum();
+    }
+}
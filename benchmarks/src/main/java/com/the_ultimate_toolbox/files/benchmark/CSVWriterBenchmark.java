@@ -0,0 +1,159 @@
+package com.the_ultimate_toolbox.files.benchmark;
+
+import com.bufigol.fileManagment.UniversalCSVReaderAndWriter;
+import com.the_ultimate_toolbox.files.writers.GroupCommitCSVWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second appended to a CSV file: {@code UniversalCSVReaderAndWriter.appendRecordToCSV}, which opens
+ * and closes the file for every row, against one {@link GroupCommitCSVWriter} shared by one or eight threads.
+ * The durable cases compare an {@code fsync} per row with eight threads waiting on a writer in
+ * {@link GroupCommitCSVWriter.Durability#FSYNC} mode. Every iteration writes to a new temporary file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CSVWriterBenchmark {
+
+    private static final String[] ROW = {"2024-03-03T10:15:30", "click", "usuario 1234", "detalle; con separador", "42"};
+
+    @State(Scope.Benchmark)
+    public static class TargetFile {
+
+        Path file;
+
+        @Setup(Level.Iteration)
+        public void create() throws IOException {
+            file = newFile();
+        }
+
+        @TearDown(Level.Iteration)
+        public void delete() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedWriter {
+
+        Path file;
+        GroupCommitCSVWriter writer;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            file = newFile();
+            writer = GroupCommitCSVWriter.builder(file.toString()).build();
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            writer.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class DurableWriter {
+
+        Path file;
+        GroupCommitCSVWriter writer;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            file = newFile();
+            writer = GroupCommitCSVWriter.builder(file.toString())
+                    .durability(GroupCommitCSVWriter.Durability.FSYNC).maxDelayMillis(1).build();
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            writer.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DurableChannel {
+
+        final byte[] line = (String.join(";", ROW) + "\n").getBytes(StandardCharsets.UTF_8);
+        Path file;
+        FileChannel channel;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            file = newFile();
+            channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static Path newFile() throws IOException {
+        return Files.createTempFile("csv_writer_benchmark", ".csv");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void appendRecordToCSV(TargetFile target) {
+        UniversalCSVReaderAndWriter.appendRecordToCSV(target.file.toString(), ROW);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public CompletableFuture<Void> groupCommit(SharedWriter shared) {
+        return shared.writer.write(ROW);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public CompletableFuture<Void> groupCommitEightThreads(SharedWriter shared) {
+        return shared.writer.write(ROW);
+    }
+
+    /**
+     * The durable baseline: one {@code write} and one {@code fsync} per row on a channel kept open.
+     */
+    @Benchmark
+    @Threads(1)
+    public void fsyncPerRow(DurableChannel durable) throws IOException {
+        durable.channel.write(ByteBuffer.wrap(durable.line));
+        durable.channel.force(false);
+    }
+
+    /**
+     * Eight threads that each wait until their row is on disk, sharing the {@code fsync}s of one writer.
+     */
+    @Benchmark
+    @Threads(8)
+    public void groupCommitFsyncEightThreads(DurableWriter durable) {
+        durable.writer.write(ROW).join();
+    }
+}
@@ -0,0 +1,247 @@
+package com.the_ultimate_toolbox.api.cache;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import com.the_ultimate_toolbox.database.jdbc.TableWriteNotifier;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-memory cache of query results, invalidated by table.
+ *
+ * <p>Results are kept for at most the configured time to live and the least recently used ones are evicted
+ * once the cache holds {@code maxEntries} results. Every cached result belongs to a table; as long as the
+ * cache is open it listens to {@link TableWriteNotifier}, so any insert, update, delete or upsert issued
+ * through {@link SQLinteractions} on a table drops that table's results.</p>
+ *
+ * <pre>{@code
+ * try (QueryResultCache cache = new QueryResultCache(10_000, 5, TimeUnit.MINUTES)) {
+ *     List<String[]> usuarios = cache.searchByField(connection, "usuarios", "email", "juan@example.com");
+ * }
+ * }</pre>
+ *
+ * <p>A load that overlaps a write to its table is returned to the caller but not cached, so a result read
+ * before the write cannot be stored after the invalidation. Writes made inside a transaction are notified
+ * before the transaction commits; call {@link #invalidate(String)} after committing when other connections
+ * read the same tables. Writes that do not go through {@code SQLinteractions} (other processes, hand-written
+ * SQL) are only picked up when the time to live expires.</p>
+ *
+ * <p>A cache is meant to serve a single database. The returned lists are unmodifiable and shared between
+ * callers; their rows must not be modified.</p>
+ */
+public final class QueryResultCache implements TableWriteNotifier.Listener, AutoCloseable {
+
+    /**
+     * Counters accumulated since the cache was created.
+     */
+    public record Statistics(long hits, long misses, long evictions, long invalidations) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private record Key(String table, List<Object> query) {
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+    private final Map<String, Long> generations = new HashMap<>();
+    private long globalGeneration;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Creates a cache and registers it for table write notifications.
+     *
+     * @param maxEntries the maximum number of results kept
+     * @param ttl        how long a result may be served after it was loaded
+     * @param unit       the unit of {@code ttl}
+     */
+    public QueryResultCache(int maxEntries, long ttl, TimeUnit unit) {
+        if (maxEntries < 1 || ttl <= 0) {
+            throw new IllegalArgumentException("Invalid cache settings: maxEntries=" + maxEntries + ", ttl=" + ttl);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = unit.toNanos(ttl);
+        TableWriteNotifier.addListener(this);
+    }
+
+    /**
+     * Returns the cached result of a query, loading and caching it on a miss.
+     *
+     * @param table  the table the query reads; writes to it invalidate the result
+     * @param query  the values that identify the query (operation, columns, parameters)
+     * @param loader runs the query; a null result is not cached
+     * @return the cached or freshly loaded result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String table, List<?> query, Supplier<T> loader) {
+        Key key = new Key(normalize(table), new ArrayList<>(query));
+        long generation;
+        long global;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt - System.nanoTime() > 0) {
+                    hits.increment();
+                    return (T) entry.value;
+                }
+                remove(key);
+                evictions.increment();
+            }
+            generation = generations.getOrDefault(key.table, 0L);
+            global = globalGeneration;
+        }
+        misses.increment();
+        T value = loader.get();
+        if (value != null) {
+            synchronized (this) {
+                if (global == globalGeneration && generation == generations.getOrDefault(key.table, 0L)) {
+                    put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Cached {@link SQLinteractions#searchByField(Connection, String, String, String)}.
+     */
+    public List<String[]> searchByField(Connection connection, String table, String field, String value) {
+        return get(table, Arrays.asList("SEARCH", field, value),
+                () -> Collections.unmodifiableList(SQLinteractions.searchByField(connection, table, field, value)));
+    }
+
+    /**
+     * Cached {@link SQLinteractions#searchByMultipleFieldAND(Connection, String, String[], String[], String[])}.
+     */
+    public List<String[]> searchByMultipleFieldAND(Connection connection, String table, String[] fields, String[] values, String[] types) {
+        return get(table, Arrays.asList("SEARCH_AND", List.of(fields), List.of(types), Arrays.asList(values.clone())),
+                () -> Collections.unmodifiableList(SQLinteractions.searchByMultipleFieldAND(connection, table, fields, values, types)));
+    }
+
+    /**
+     * Cached {@link SQLinteractions#searchByMultipleFieldOR(Connection, String, String[], String[], String[])}.
+     */
+    public List<String[]> searchByMultipleFieldOR(Connection connection, String table, String[] fields, String[] types, String[] values) {
+        return get(table, Arrays.asList("SEARCH_OR", List.of(fields), List.of(types), Arrays.asList(values.clone())),
+                () -> Collections.unmodifiableList(SQLinteractions.searchByMultipleFieldOR(connection, table, fields, types, values)));
+    }
+
+    /**
+     * Cached {@link SQLinteractions#searchIgnoreCase(Connection, String, String, String)}.
+     */
+    public List<String[]> searchIgnoreCase(Connection connection, String table, String column, String value) {
+        return get(table, Arrays.asList("SEARCH_IGNORE_CASE", column, value),
+                () -> Collections.unmodifiableList(SQLinteractions.searchIgnoreCase(connection, table, column, value)));
+    }
+
+    /**
+     * Cached {@link SQLinteractions#countRows(Connection, String)}.
+     */
+    public int countRows(Connection connection, String table) {
+        return get(table, List.of("COUNT"), () -> SQLinteractions.countRows(connection, table));
+    }
+
+    /**
+     * Drops every result of a table.
+     *
+     * @param table the name of the table
+     */
+    public synchronized void invalidate(String table) {
+        String normalized = normalize(table);
+        generations.merge(normalized, 1L, Long::sum);
+        Set<Key> keys = keysByTable.remove(normalized);
+        if (keys != null) {
+            for (Key key : keys) {
+                entries.remove(key);
+            }
+            invalidations.add(keys.size());
+        }
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public synchronized void invalidateAll() {
+        globalGeneration++;
+        invalidations.add(entries.size());
+        entries.clear();
+        keysByTable.clear();
+    }
+
+    @Override
+    public void tableWritten(String table) {
+        invalidate(table);
+    }
+
+    /**
+     * @return the number of results currently cached, including expired ones not yet evicted
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    /**
+     * Stops listening to table writes and drops every cached result.
+     */
+    @Override
+    public void close() {
+        TableWriteNotifier.removeListener(this);
+        invalidateAll();
+    }
+
+    private void put(Key key, Object value) {
+        entries.put(key, new Entry(value, System.nanoTime() + ttlNanos));
+        keysByTable.computeIfAbsent(key.table, t -> new HashSet<>()).add(key);
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            Key evicted = eldest.next().getKey();
+            eldest.remove();
+            unindex(evicted);
+            evictions.increment();
+        }
+    }
+
+    private void remove(Key key) {
+        entries.remove(key);
+        unindex(key);
+    }
+
+    private void unindex(Key key) {
+        Set<Key> keys = keysByTable.get(key.table);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByTable.remove(key.table);
+        }
+    }
+
+    private static String normalize(String table) {
+        return table.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,312 @@
+package com.the_ultimate_toolbox.database.core;
+
+import com.the_ultimate_toolbox.database.jdbc.StatementTracker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking JDBC work on virtual threads and returns {@link CompletableFuture}s.
+ *
+ * <p>Every task borrows a connection from the pool, runs a {@link ConnectionCallback} with it and returns the
+ * connection. A fair semaphore that belongs to the pool, with one permit per connection, caps the number of
+ * tasks that hold (or wait for) a connection at the same time. It is shared by every executor on the same pool,
+ * so a fan-out of hundreds of lookups, or several executors at once, queue for a permit instead of timing out
+ * in the pool.</p>
+ *
+ * <pre>{@code
+ * try (AsyncQueryExecutor executor = new AsyncQueryExecutor(pool)) {
+ *     CompletableFuture<List<Integer>> counts = executor.submitAll(List.of(
+ *             connection -> SQLinteractions.countRows(connection, "usuarios"),
+ *             connection -> SQLinteractions.countRows(connection, "pedidos")),
+ *             2, TimeUnit.SECONDS);
+ *     counts.join();
+ * }
+ * }</pre>
+ *
+ * <p>Cancelling a future, or letting its timeout expire, cancels the statements the task is running with
+ * {@link Statement#cancel()}. The statements opened through {@code SQLinteractions}, {@code StatementCache},
+ * {@code ResultCursor} and the database utilities are tracked automatically; statements prepared directly
+ * inside a callback must be passed to {@link StatementTracker#track(Statement)} to be cancellable. A task that
+ * is still waiting for a permit or a connection is interrupted instead; a task is never interrupted while it
+ * is talking to the driver.</p>
+ */
+public class AsyncQueryExecutor implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(AsyncQueryExecutor.class);
+
+    /**
+     * Unit of work run with a pooled connection. The connection is returned to the pool afterwards and must
+     * not be kept.
+     */
+    @FunctionalInterface
+    public interface ConnectionCallback<T> {
+        T doInConnection(Connection connection) throws SQLException;
+    }
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final ConnectionPool pool;
+    private final Semaphore poolPermits;
+    // Límite propio del ejecutor, además del del pool; null si es el del pool
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates an executor that runs as many tasks at once as the pool has connections.
+     *
+     * @param pool the pool to borrow connections from
+     */
+    public AsyncQueryExecutor(ConnectionPool pool) {
+        this(pool, pool.getMaxSize());
+    }
+
+    /**
+     * @param pool           the pool to borrow connections from
+     * @param maxConcurrency the maximum number of this executor's tasks holding or waiting for a connection at
+     *                       once; the pool's own limit, shared with its other executors, still applies
+     */
+    public AsyncQueryExecutor(ConnectionPool pool, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.pool = pool;
+        this.poolPermits = pool.taskPermits();
+        this.maxConcurrency = Math.min(maxConcurrency, pool.getMaxSize());
+        this.permits = this.maxConcurrency < pool.getMaxSize() ? new Semaphore(this.maxConcurrency, true) : null;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of this executor's tasks currently waiting for a permit
+     */
+    public int getQueueLength() {
+        return waiting.get();
+    }
+
+    /**
+     * Runs a callback asynchronously.
+     *
+     * @param callback the work to run
+     * @return a future completed with the callback's result; cancelling it cancels the running statement
+     */
+    public <T> CompletableFuture<T> submit(ConnectionCallback<T> callback) {
+        Task<T> task = new Task<>(callback);
+        task.future.whenComplete((result, failure) -> {
+            if (failure instanceof CancellationException || failure instanceof TimeoutException) {
+                task.abort();
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.future.completeExceptionally(e);
+        }
+        return task.future;
+    }
+
+    /**
+     * Runs a callback asynchronously, failing it with a {@link TimeoutException} and
+     * cancelling its statement if it has not finished in time. The timeout includes the time spent waiting
+     * for a permit and a connection.
+     *
+     * @param callback the work to run
+     * @param timeout  the maximum time to wait for the result
+     * @param unit     the unit of {@code timeout}
+     * @return a future completed with the callback's result
+     */
+    public <T> CompletableFuture<T> submit(ConnectionCallback<T> callback, long timeout, TimeUnit unit) {
+        return submit(callback).orTimeout(timeout, unit);
+    }
+
+    /**
+     * Runs several callbacks concurrently and gathers their results in submission order.
+     *
+     * <p>The group fails fast: as soon as one callback fails, the returned future fails with that error and
+     * the other callbacks are cancelled. Cancelling the returned future cancels all of them.</p>
+     *
+     * @param callbacks the work to run
+     * @return a future completed with the results, in the order of {@code callbacks}
+     */
+    public <T> CompletableFuture<List<T>> submitAll(List<? extends ConnectionCallback<? extends T>> callbacks) {
+        List<CompletableFuture<? extends T>> futures = new ArrayList<>(callbacks.size());
+        for (ConnectionCallback<? extends T> callback : callbacks) {
+            futures.add(submit(callback));
+        }
+        CompletableFuture<List<T>> all = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        if (futures.isEmpty()) {
+            all.complete(new ArrayList<>());
+        }
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    all.completeExceptionally(failure instanceof CompletionException ? failure.getCause() : failure);
+                } else if (remaining.decrementAndGet() == 0) {
+                    List<T> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<? extends T> done : futures) {
+                        results.add(done.join());
+                    }
+                    all.complete(results);
+                }
+            });
+        }
+        all.whenComplete((results, failure) -> {
+            if (failure != null) {
+                for (CompletableFuture<? extends T> future : futures) {
+                    future.cancel(false);
+                }
+            }
+        });
+        return all;
+    }
+
+    /**
+     * Same as {@link #submitAll(List)}, with a timeout for the whole group.
+     *
+     * @param callbacks the work to run
+     * @param timeout   the maximum time to wait for every result
+     * @param unit      the unit of {@code timeout}
+     * @return a future completed with the results, in the order of {@code callbacks}
+     */
+    public <T> CompletableFuture<List<T>> submitAll(List<? extends ConnectionCallback<? extends T>> callbacks,
+                                                    long timeout, TimeUnit unit) {
+        return this.<T>submitAll(callbacks).orTimeout(timeout, unit);
+    }
+
+    /**
+     * Stops accepting tasks and waits for the submitted ones to finish. The pool is not closed.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * A submitted callback together with its future and the statements it has opened.
+     */
+    private final class Task<T> implements Runnable, StatementTracker.Listener {
+
+        private final ConnectionCallback<T> callback;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+        private Thread runner;
+        private int state = QUEUED;
+
+        Task(ConnectionCallback<T> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (future.isDone()) {
+                    state = DONE;
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            boolean acquired = false;
+            boolean acquiredPool = false;
+            try {
+                waiting.incrementAndGet();
+                try {
+                    if (permits != null) {
+                        permits.acquire();
+                        acquired = true;
+                    }
+                    poolPermits.acquire();
+                    acquiredPool = true;
+                } finally {
+                    waiting.decrementAndGet();
+                }
+                try (Connection connection = pool.getConnection()) {
+                    synchronized (this) {
+                        if (future.isDone()) {
+                            Thread.interrupted();
+                            return;
+                        }
+                        state = RUNNING;
+                    }
+                    StatementTracker.setListener(this);
+                    try {
+                        future.complete(callback.doInConnection(connection));
+                    } finally {
+                        StatementTracker.clearListener();
+                    }
+                }
+            } catch (InterruptedException e) {
+                future.completeExceptionally(new CancellationException("Interrupted while waiting for a connection"));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    state = DONE;
+                    runner = null;
+                }
+                Thread.interrupted();
+                if (acquiredPool) {
+                    poolPermits.release();
+                }
+                if (acquired) {
+                    permits.release();
+                }
+            }
+        }
+
+        @Override
+        public void statementUsed(Statement statement) {
+            statements.add(statement);
+            if (future.isDone()) {
+                cancel(statement);
+            }
+        }
+
+        /**
+         * Called when the future is cancelled or times out before the callback returns.
+         */
+        synchronized void abort() {
+            if (state == QUEUED && runner != null) {
+                runner.interrupt();
+            } else if (state == RUNNING) {
+                for (Statement statement : statements) {
+                    cancel(statement);
+                }
+            }
+        }
+
+        private void cancel(Statement statement) {
+            try {
+                if (!statement.isClosed()) {
+                    statement.cancel();
+                }
+            } catch (SQLException e) {
+                logger.warn("Error cancelling statement", e);
+            }
+        }
+    }
+}
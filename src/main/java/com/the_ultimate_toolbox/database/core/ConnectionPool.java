@@ -0,0 +1,548 @@
+package com.the_ultimate_toolbox.database.core;
+
+import com.the_ultimate_toolbox.database.jdbc.StatementCache;
+import com.the_ultimate_toolbox.database.jdbc.StatementMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded pool of JDBC connections.
+ *
+ * <p>Idle connections are kept in a lock-free deque: borrowing pops the most recently returned
+ * connection and returning pushes it back, so the hot connections stay warm while the oldest ones
+ * drift to the tail where the evictor retires them. The number of open connections is bounded by
+ * an atomic counter; when the pool is exhausted, borrowers park until a connection is returned or
+ * the borrow timeout expires.</p>
+ *
+ * <p>The connections handed out are thin proxies over the physical ones. Calling {@code close()}
+ * on them returns the connection to the pool instead of closing it, so they can be passed to every
+ * static method in {@code SQLinteractions} and used with try-with-resources:</p>
+ *
+ * <pre>{@code
+ * try (ConnectionPool pool = ConnectionPool.builder(url, user, pwd).minSize(2).maxSize(10).build();
+ *      Connection connection = pool.getConnection()) {
+ *     SQLinteractions.searchByField(connection, "usuarios", "email", "juan@example.com");
+ * }
+ * }</pre>
+ *
+ * <p>{@code unwrap(Connection.class)} on a borrowed connection returns the physical one, for drivers that need
+ * it. It still belongs to the pool: it must not be closed, and must not be used once the borrowed connection
+ * has been returned. Unwrapping a connection that has already been returned fails.</p>
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ConnectionPool.class);
+
+    private final String connectionUrl;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutNanos;
+    private final long idleTimeoutNanos;
+    private final long validationIntervalNanos;
+    private final int validationTimeoutSeconds;
+    private final boolean instrumented;
+
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final ScheduledExecutorService evictor;
+    // Compartido por todos los AsyncQueryExecutor del pool, para que entre todos no pidan más de maxSize
+    private final Semaphore taskPermits;
+
+    private final LongAdder borrowed = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    private ConnectionPool(Builder builder) throws SQLException {
+        if (builder.minSize < 0 || builder.maxSize < 1 || builder.minSize > builder.maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + builder.minSize + ", max=" + builder.maxSize);
+        }
+        if (builder.driverClassName != null) {
+            try {
+                Class.forName(builder.driverClassName);
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("JDBC driver not found: " + builder.driverClassName, e);
+            }
+        }
+        this.connectionUrl = builder.connectionUrl;
+        this.username = builder.username;
+        this.password = builder.password;
+        this.minSize = builder.minSize;
+        this.maxSize = builder.maxSize;
+        this.taskPermits = new Semaphore(maxSize, true);
+        this.borrowTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.borrowTimeoutMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(builder.idleTimeoutMillis);
+        this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(builder.validationIntervalMillis);
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.instrumented = builder.instrumented;
+
+        try {
+            for (int i = 0; i < minSize; i++) {
+                total.incrementAndGet();
+                idle.addFirst(openConnection());
+            }
+        } catch (SQLException | RuntimeException e) {
+            // El pool no llega a existir: cerrar las conexiones que ya se habían abierto
+            PooledConnection opened;
+            while ((opened = idle.pollFirst()) != null) {
+                destroy(opened);
+            }
+            throw e;
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, builder.evictionIntervalMillis);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts building a pool for the given database.
+     *
+     * @param connectionUrl the JDBC connection URL
+     * @param username      the database username
+     * @param password      the database password
+     * @return a builder with the default sizing and timeouts
+     */
+    public static Builder builder(String connectionUrl, String username, String password) {
+        return new Builder(connectionUrl, username, password);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the configured borrow timeout.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, no connection became available in time,
+     *                      or a new physical connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        return getConnection(borrowTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the given timeout.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of the timeout
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the pool is closed, no connection became available in time,
+     *                      or a new physical connection could not be opened
+     */
+    public Connection getConnection(long timeout, TimeUnit unit) throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        while (true) {
+            if (closed.get()) {
+                throw new SQLException("The connection pool is closed");
+            }
+            PooledConnection pooled = tryAcquire();
+            if (pooled != null) {
+                pooled.checkOut();
+                active.incrementAndGet();
+                borrowed.increment();
+                long waited = System.nanoTime() - start;
+                waitNanos.add(waited);
+                StatementMetrics.recordConnectionWait(waited);
+                return pooled.borrowed;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                timeouts.increment();
+                // Si el último aviso fue para este hilo, que lo reciba otro que siga esperando
+                signalWaiter();
+                throw new SQLException("Timed out waiting for a connection after "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms (pool size " + maxSize + ")");
+            }
+            Thread current = Thread.currentThread();
+            waiters.add(current);
+            // Re-check after enqueueing so a release between tryAcquire() and add() is not missed
+            if (idle.isEmpty() && total.get() >= maxSize) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            waiters.remove(current);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                signalWaiter();
+                throw new SQLException("Interrupted while waiting for a connection");
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     *
+     * @return the current pool statistics
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(total.get(), idle.size(), active.get(), borrowed.sum(), created.sum(),
+                destroyed.sum(), validationFailures.sum(), timeouts.sum(), waitNanos.sum());
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the fair semaphore, with one permit per connection, that every {@link AsyncQueryExecutor} on this
+     * pool acquires before borrowing
+     */
+    Semaphore taskPermits() {
+        return taskPermits;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Closes every idle connection and stops the evictor. Connections that are still borrowed
+     * are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        Thread waiter;
+        while ((waiter = waiters.poll()) != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private PooledConnection tryAcquire() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailures.increment();
+            destroy(pooled);
+        }
+        int current;
+        while ((current = total.get()) < maxSize) {
+            if (total.compareAndSet(current, current + 1)) {
+                return openConnection();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validation-on-borrow. Connections used within the validation interval are trusted, so the
+     * round trip of {@link Connection#isValid(int)} is only paid by connections that sat idle.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.nanoTime() - pooled.lastUsedNanos < validationIntervalNanos) {
+                return true;
+            }
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(connectionUrl, username, password);
+            created.increment();
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            total.decrementAndGet();
+            signalWaiter();
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        if (closed.get() || !reset(pooled)) {
+            destroy(pooled);
+        } else {
+            pooled.lastUsedNanos = System.nanoTime();
+            idle.addFirst(pooled);
+            if (closed.get() && idle.removeFirstOccurrence(pooled)) {
+                destroy(pooled);
+            }
+        }
+        signalWaiter();
+    }
+
+    /**
+     * Puts a returned connection back into the state a fresh one would have, so a borrower never
+     * inherits an open transaction from the previous one.
+     */
+    private boolean reset(PooledConnection pooled) {
+        try {
+            Connection physical = pooled.physical;
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            logger.warn("Discarding pooled connection that could not be reset", e);
+            return false;
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        destroyed.increment();
+        StatementCache.evict(pooled.borrowed);
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing pooled connection", e);
+        }
+        signalWaiter();
+    }
+
+    private void signalWaiter() {
+        Thread waiter = waiters.poll();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private void evictIdleConnections() {
+        try {
+            long now = System.nanoTime();
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && total.get() > minSize) {
+                PooledConnection pooled = oldestFirst.next();
+                // removeLastOccurrence only succeeds for the thread that unlinks the node, so a
+                // connection that a borrower popped in the meantime is left alone
+                if (now - pooled.lastUsedNanos > idleTimeoutNanos && idle.removeLastOccurrence(pooled)) {
+                    destroy(pooled);
+                }
+            }
+            while (!closed.get() && total.get() < minSize) {
+                int current = total.get();
+                if (current < minSize && total.compareAndSet(current, current + 1)) {
+                    idle.addLast(openConnection());
+                    signalWaiter();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.warn("Error while maintaining the connection pool", e);
+        }
+    }
+
+    /**
+     * A physical connection together with the proxy handed out to borrowers.
+     */
+    private final class PooledConnection implements InvocationHandler {
+        private final Connection physical;
+        private final Connection handle;
+        // Lo que recibe quien pide la conexión; creado una sola vez para que StatementCache la reconozca
+        private final Connection borrowed;
+        private final AtomicBoolean checkedOut = new AtomicBoolean();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.handle = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+            this.borrowed = instrumented ? StatementMetrics.instrument(handle) : handle;
+            // El asa devuelta al pool dice estar cerrada; destroy() se encarga de sacarla de la caché
+            StatementCache.manage(borrowed);
+        }
+
+        private void checkOut() {
+            checkedOut.set(true);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (checkedOut.compareAndSet(true, false)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !checkedOut.get() || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                case "unwrap":
+                    // Solo mientras la conexión esté prestada: la física sigue siendo del pool
+                    if (args[0] == Connection.class && checkedOut.get()) {
+                        return physical;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (args[0] == Connection.class) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (!checkedOut.get()) {
+                throw new SQLException("The connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link ConnectionPool}.
+     */
+    public static final class Builder {
+        private final String connectionUrl;
+        private final String username;
+        private final String password;
+        private String driverClassName;
+        private int minSize = 1;
+        private int maxSize = 10;
+        private long borrowTimeoutMillis = 30_000;
+        private long idleTimeoutMillis = 600_000;
+        private long evictionIntervalMillis = 30_000;
+        private long validationIntervalMillis = 5_000;
+        private int validationTimeoutSeconds = 2;
+        private boolean instrumented = false;
+
+        private Builder(String connectionUrl, String username, String password) {
+            this.connectionUrl = connectionUrl;
+            this.username = username;
+            this.password = password;
+        }
+
+        /**
+         * @param driverClassName the driver class to load before connecting; not needed for JDBC 4 drivers
+         */
+        public Builder driverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+            return this;
+        }
+
+        /**
+         * @param minSize the number of connections kept open even when idle
+         */
+        public Builder minSize(int minSize) {
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * @param maxSize the maximum number of open connections
+         */
+        public Builder maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * @param borrowTimeoutMillis how long {@link ConnectionPool#getConnection()} waits when the pool is exhausted
+         */
+        public Builder borrowTimeoutMillis(long borrowTimeoutMillis) {
+            this.borrowTimeoutMillis = borrowTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param idleTimeoutMillis how long a connection above the minimum size may stay idle before it is closed
+         */
+        public Builder idleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        /**
+         * @param evictionIntervalMillis how often the evictor looks for idle connections
+         */
+        public Builder evictionIntervalMillis(long evictionIntervalMillis) {
+            this.evictionIntervalMillis = evictionIntervalMillis;
+            return this;
+        }
+
+        /**
+         * @param validationIntervalMillis connections idle for longer than this are validated on borrow
+         */
+        public Builder validationIntervalMillis(long validationIntervalMillis) {
+            this.validationIntervalMillis = validationIntervalMillis;
+            return this;
+        }
+
+        /**
+         * @param validationTimeoutSeconds the timeout passed to {@link Connection#isValid(int)}
+         */
+        public Builder validationTimeoutSeconds(int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        /**
+         * @param instrumented whether the connections handed out are wrapped with
+         *                     {@link StatementMetrics#instrument(Connection)}; defaults to false
+         */
+        public Builder instrumented(boolean instrumented) {
+            this.instrumented = instrumented;
+            return this;
+        }
+
+        /**
+         * Creates the pool and opens its minimum number of connections.
+         *
+         * @return the new pool
+         * @throws SQLException if the initial connections could not be opened
+         */
+        public ConnectionPool build() throws SQLException {
+            return new ConnectionPool(this);
+        }
+    }
+}
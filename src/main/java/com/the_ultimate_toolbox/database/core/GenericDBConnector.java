@@ -1,5 +1,9 @@
 package com.the_ultimate_toolbox.database.core;
 
+import com.the_ultimate_toolbox.database.dialect.SQLDialect;
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import com.the_ultimate_toolbox.database.jdbc.StatementCache;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -11,17 +15,31 @@ public class GenericDBConnector {
     private String connectionUrl;
     private String username;
     private String password;
+    private String driverClassName;
 
     /**
      * Private constructor to enforce Singleton pattern.
      * Initializes the connection using the provided configuration parameters.
+     * The JDBC driver is the one of the dialect that matches the URL.
      *
      * @param curl The database connection URL
      * @param usr      The database username
      * @param pwd      The database password
      */
     public GenericDBConnector(String curl, String usr, String pwd) {
-        String DRIVER_JDBC = "com.mysql.cj.jdbc.Driver";
+        this(curl, usr, pwd, SQLDialects.forUrl(curl).getDriverClassName());
+    }
+
+    /**
+     * Initializes the connection with an explicit JDBC driver.
+     *
+     * @param curl            The database connection URL
+     * @param usr             The database username
+     * @param pwd             The database password
+     * @param driverClassName The JDBC driver class, or null to rely on driver auto-loading
+     */
+    public GenericDBConnector(String curl, String usr, String pwd, String driverClassName) {
+        this.driverClassName = driverClassName;
         boolean conection =false;
         if (!(curl.isBlank() || curl.isEmpty())){
             this.connectionUrl = curl;
@@ -37,7 +55,9 @@ public class GenericDBConnector {
         if (conection){
             try {
                 // Database configuration parameters (make these configurable)
-                Class.forName(DRIVER_JDBC);
+                if (driverClassName != null) {
+                    Class.forName(driverClassName);
+                }
                 connection = DriverManager.getConnection(connectionUrl, username, password);
                 System.out.println("Database connection established."); // Replace with your logging mechanism
             } catch (ClassNotFoundException | SQLException e) {
@@ -51,19 +71,48 @@ public class GenericDBConnector {
     public void cerrarConexion() {
         try {
             if (connection != null && !connection.isClosed()) {
+                StatementCache.evict(connection);
                 connection.close();
             }
         } catch (SQLException e) {
             System.err.println("Error closing database connection: " + e.getMessage()); // Replace with your logging mechanism
         }
     }
-    public static GenericDBConnector getInstance() {
+    /**
+     * Creates a connection pool for the database this connector points to. Unlike the singleton,
+     * which shares one connection between every caller, the pool hands each thread its own.
+     *
+     * @param minSize the number of connections kept open even when idle
+     * @param maxSize the maximum number of open connections
+     * @return a new connection pool; the caller is responsible for closing it
+     * @throws SQLException if the initial connections could not be opened
+     */
+    public ConnectionPool createPool(int minSize, int maxSize) throws SQLException {
+        return ConnectionPool.builder(connectionUrl, username, password)
+                .driverClassName(driverClassName)
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .build();
+    }
+
+    public static synchronized GenericDBConnector getInstance() {
         if (instance == null) {
             instance = new GenericDBConnector();
         }
         return instance;
     }
 
+    /**
+     * @return the dialect of the database this connector points to
+     */
+    public SQLDialect getDialect() {
+        return SQLDialects.forUrl(connectionUrl);
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
     public Connection getConnection() {
         return connection;
     }
@@ -0,0 +1,36 @@
+package com.the_ultimate_toolbox.database.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time snapshot of the counters of a {@link ConnectionPool}.
+ *
+ * @param totalConnections   the number of open physical connections
+ * @param idleConnections    the number of connections waiting in the pool
+ * @param activeConnections  the number of connections currently borrowed
+ * @param borrowCount        the number of successful borrows since the pool was created
+ * @param createdCount       the number of physical connections opened
+ * @param destroyedCount     the number of physical connections closed
+ * @param validationFailures the number of connections discarded because they failed validation on borrow
+ * @param timeoutCount       the number of borrows that gave up waiting for a connection
+ * @param totalWaitNanos     the accumulated time borrowers spent acquiring connections
+ */
+public record PoolStatistics(int totalConnections,
+                             int idleConnections,
+                             int activeConnections,
+                             long borrowCount,
+                             long createdCount,
+                             long destroyedCount,
+                             long validationFailures,
+                             long timeoutCount,
+                             long totalWaitNanos) {
+
+    /**
+     * Returns the mean time a successful borrow took, in microseconds.
+     *
+     * @return the average wait, or 0 if nothing has been borrowed yet
+     */
+    public double averageWaitMicros() {
+        return borrowCount == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalWaitNanos) / borrowCount;
+    }
+}
@@ -0,0 +1,393 @@
+package com.the_ultimate_toolbox.database.core;
+
+import com.the_ultimate_toolbox.database.jdbc.BatchResult;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffers single-row inserts and writes them to the database in batches from a dedicated thread.
+ *
+ * <p>Callers hand rows to {@link #insert(String...)} and get a future back straight away; a writer thread
+ * drains the queue and sends the rows with {@link SQLinteractions#insertIntoTableBatch} as soon as
+ * {@code batchSize} rows are waiting or {@code maxDelayMillis} have passed, whichever comes first. Hundreds of
+ * threads inserting one event each then cost one round trip and one commit per batch instead of one per event.
+ * The future of a row completes when the batch holding it has been committed, and fails if the row was
+ * rejected.</p>
+ *
+ * <pre>{@code
+ * try (WriteBehindInserter inserter = WriteBehindInserter.builder(pool, "eventos", "tipo", "payload")
+ *         .batchSize(500)
+ *         .maxDelayMillis(20)
+ *         .build()) {
+ *     inserter.insert("click", json).join();
+ * }
+ * }</pre>
+ *
+ * <p>The queue is a lock-free linked queue bounded by an atomic counter, like the idle deque of
+ * {@link ConnectionPool}. When it is full, {@link #insert(String...)} parks the caller until the writer makes
+ * room, so a database that falls behind slows producers down instead of exhausting the heap. A batch that
+ * fails because of some of its rows is rolled back as a whole; the rows the driver blamed fail and the others
+ * are written again in the next batch. {@link #close()} stops accepting rows and flushes everything queued.</p>
+ */
+public class WriteBehindInserter implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(WriteBehindInserter.class);
+
+    private final ConnectionPool pool;
+    private final String table;
+    private final String[] columns;
+    private final String[] types;
+    private final int batchSize;
+    private final int capacity;
+    private final long maxDelayNanos;
+
+    private final ConcurrentLinkedQueue<PendingRow> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Thread> blockedProducers = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile boolean flushRequested;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * A queued row and the future of the caller that queued it.
+     */
+    private record PendingRow(String[] values, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Point-in-time counters of an inserter.
+     *
+     * @param acceptedRows the number of rows queued since the inserter was created
+     * @param writtenRows  the number of rows committed
+     * @param failedRows   the number of rows whose future failed
+     * @param batches      the number of batches sent
+     * @param queuedRows   the number of rows waiting to be written
+     */
+    public record Statistics(long acceptedRows, long writtenRows, long failedRows, long batches, int queuedRows) {
+    }
+
+    private WriteBehindInserter(Builder builder) {
+        if (builder.types != null && builder.types.length != builder.columns.length) {
+            throw new IllegalArgumentException("The number of columns and types must be the same.");
+        }
+        if (builder.batchSize < 1 || builder.capacity < builder.batchSize) {
+            throw new IllegalArgumentException("Invalid sizes: batchSize=" + builder.batchSize + ", capacity=" + builder.capacity);
+        }
+        this.pool = builder.pool;
+        this.table = builder.table;
+        this.columns = builder.columns;
+        this.types = builder.types;
+        this.batchSize = builder.batchSize;
+        this.capacity = builder.capacity;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, builder.maxDelayMillis));
+        this.writer = new Thread(this::runWriter, "write-behind-" + table);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Starts building an inserter for the given table.
+     *
+     * @param pool    the pool the writer borrows a connection from for every batch
+     * @param table   the name of the table
+     * @param columns the columns every row provides values for
+     * @return a builder with the default sizing
+     */
+    public static Builder builder(ConnectionPool pool, String table, String... columns) {
+        return new Builder(pool, table, columns);
+    }
+
+    /**
+     * Queues a row, waiting for room if the queue is full.
+     *
+     * @param values the values of the row, one per column
+     * @return a future completed once the row has been committed; it fails with the database error if the row
+     * is rejected, or with a {@link RejectedExecutionException} if the inserter is closed or the caller is
+     * interrupted while waiting for room
+     */
+    public CompletableFuture<Void> insert(String... values) {
+        return offer(values, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Queues a row, waiting at most the given time for room if the queue is full.
+     *
+     * @param values  the values of the row, one per column
+     * @param timeout the maximum time to wait for room
+     * @param unit    the unit of {@code timeout}
+     * @return a future completed once the row has been committed; it fails with a
+     * {@link RejectedExecutionException} if there was no room in time
+     */
+    public CompletableFuture<Void> offer(String[] values, long timeout, TimeUnit unit) {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("The number of columns and values must be the same.");
+        }
+        long deadline = timeout == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + unit.toNanos(timeout);
+        int queued;
+        while (true) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("The inserter for " + table + " is closed"));
+            }
+            queued = size.get();
+            if (queued < capacity) {
+                if (size.compareAndSet(queued, queued + 1)) {
+                    break;
+                }
+                continue;
+            }
+            long remaining = deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return CompletableFuture.failedFuture(new RejectedExecutionException("The write-behind queue for " + table + " is full"));
+            }
+            Thread current = Thread.currentThread();
+            blockedProducers.add(current);
+            // Se vuelve a mirar tras encolarse para no perder un aviso del escritor entre get() y add()
+            if (size.get() >= capacity && !closed) {
+                LockSupport.parkNanos(this, Math.min(remaining, maxDelayNanos));
+            }
+            blockedProducers.remove(current);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(new RejectedExecutionException("Interrupted while waiting for room"));
+            }
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        PendingRow row = new PendingRow(values.clone(), done);
+        queue.add(row);
+        if (closed && queue.remove(row)) {
+            // close() ya hizo su último vaciado y nadie escribiría esta fila
+            size.decrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("The inserter for " + table + " is closed"));
+        }
+        accepted.increment();
+        if (queued + 1 == batchSize) {
+            LockSupport.unpark(writer);
+        }
+        return done;
+    }
+
+    /**
+     * Asks the writer to send everything queued now, without waiting for a full batch or the delay.
+     *
+     * @return a future completed when the rows queued before this call have been written or have failed
+     */
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (PendingRow row : queue) {
+            pending.add(row.done());
+        }
+        flushRequested = true;
+        LockSupport.unpark(writer);
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]))
+                .handle((ignored, failure) -> null);
+    }
+
+    public Statistics getStatistics() {
+        return new Statistics(accepted.sum(), written.sum(), failed.sum(), batches.sum(), size.get());
+    }
+
+    /**
+     * Stops accepting rows and waits until every queued row has been written or has failed. The pool is
+     * not closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        Thread waiter;
+        while ((waiter = blockedProducers.poll()) != null) {
+            LockSupport.unpark(waiter);
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        // Filas que un productor encoló justo cuando el escritor terminaba
+        drainAndWrite();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        while (true) {
+            long deadline = System.nanoTime() + maxDelayNanos;
+            long remaining;
+            while (size.get() < batchSize && !closed && !flushRequested && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            boolean stopping = closed;
+            flushRequested = false;
+            drainAndWrite();
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes everything queued, in batches of at most {@code batchSize} rows.
+     */
+    private void drainAndWrite() {
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        PendingRow row;
+        while (true) {
+            while (batch.size() < batchSize && (row = queue.poll()) != null) {
+                batch.add(row);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            int taken = batch.size();
+            List<PendingRow> retry = write(batch);
+            // Only rows that left the queue for good free their slot; retried rows keep theirs
+            size.addAndGet(-(taken - retry.size()));
+            for (int i = taken - retry.size(); i > 0; i--) {
+                Thread waiter = blockedProducers.poll();
+                if (waiter == null) {
+                    break;
+                }
+                LockSupport.unpark(waiter);
+            }
+            batch.clear();
+            batch.addAll(retry);
+        }
+    }
+
+    /**
+     * Sends one batch and completes the futures of its rows.
+     *
+     * @return the rows that were rolled back only because a neighbour failed, to be sent again
+     */
+    private List<PendingRow> write(List<PendingRow> batch) {
+        String[][] values = new String[batch.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = batch.get(i).values();
+        }
+        BatchResult result;
+        try (Connection connection = pool.getConnection()) {
+            result = SQLinteractions.insertIntoTableBatch(connection, table, columns, values, types, values.length);
+        } catch (SQLException | RuntimeException e) {
+            logger.error("A write-behind batch of " + values.length + " rows for " + table + " failed", e);
+            failed.add(batch.size());
+            batches.increment();
+            for (PendingRow row : batch) {
+                row.done().completeExceptionally(e);
+            }
+            return List.of();
+        }
+        batches.increment();
+        Set<Integer> rejected = new HashSet<>(result.getFailedRowIndexes());
+        boolean committed = !result.getChunks().isEmpty() && result.getChunks().get(0).committed();
+        List<PendingRow> retry = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRow row = batch.get(i);
+            if (rejected.contains(i)) {
+                failed.increment();
+                row.done().completeExceptionally(new SQLException("Row rejected by the database while inserting into " + table));
+            } else if (committed || result.getChunks().isEmpty()) {
+                written.increment();
+                row.done().complete(null);
+            } else {
+                retry.add(row);
+            }
+        }
+        if (retry.size() == batch.size()) {
+            // The driver did not say which row broke the batch; retrying would fail the same way forever
+            failed.add(retry.size());
+            for (PendingRow row : retry) {
+                row.done().completeExceptionally(new SQLException("Batch rejected by the database while inserting into " + table));
+            }
+            return List.of();
+        }
+        return retry;
+    }
+
+    /**
+     * Builder for {@link WriteBehindInserter}.
+     */
+    public static final class Builder {
+        private final ConnectionPool pool;
+        private final String table;
+        private final String[] columns;
+        private String[] types;
+        private int batchSize = 500;
+        private int capacity = 10_000;
+        private long maxDelayMillis = 50;
+
+        private Builder(ConnectionPool pool, String table, String[] columns) {
+            this.pool = pool;
+            this.table = table;
+            this.columns = columns.clone();
+        }
+
+        /**
+         * @param types the data types of the columns ("INT", "FLOAT", "DOUBLE" or any other for strings);
+         *              when not set every value is bound as a string
+         */
+        public Builder types(String... types) {
+            this.types = types.clone();
+            return this;
+        }
+
+        /**
+         * @param batchSize the number of queued rows that triggers a write; also the largest batch sent
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * @param capacity the number of rows that may be queued before producers have to wait
+         */
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param maxDelayMillis the longest a row waits in the queue before it is written with a partial batch
+         */
+        public Builder maxDelayMillis(long maxDelayMillis) {
+            this.maxDelayMillis = maxDelayMillis;
+            return this;
+        }
+
+        /**
+         * Creates the inserter and starts its writer thread.
+         *
+         * @return the new inserter
+         */
+        public WriteBehindInserter build() {
+            return new WriteBehindInserter(this);
+        }
+    }
+}
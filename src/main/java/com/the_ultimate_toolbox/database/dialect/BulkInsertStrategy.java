@@ -0,0 +1,17 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+/**
+ * How a dialect sends many rows at once.
+ */
+public enum BulkInsertStrategy {
+    /**
+     * One single-row INSERT, executed with {@code addBatch}/{@code executeBatch}. Best for embedded databases,
+     * where there is no round trip to save, and for drivers that rewrite batches themselves.
+     */
+    JDBC_BATCH,
+    /**
+     * One {@code INSERT ... VALUES (...), (...)} statement per chunk of rows, sized to the packet and
+     * placeholder limits. Best for client/server databases that execute a batch row by row.
+     */
+    MULTI_ROW_VALUES
+}
@@ -0,0 +1,121 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * H2, embedded or in server mode.
+ *
+ * <p>An in-memory H2 database ({@code jdbc:h2:mem:...}) runs the whole JDBC layer without a database server,
+ * which makes it the reference for tests and local benchmarks. Embedded, there is no network round trip to
+ * save, so plain JDBC batches of a single-row INSERT are the fastest bulk path: they are parsed once and
+ * avoid building huge multi-row statements.</p>
+ *
+ * <p>H2 has no expression indexes, so case-insensitive lookups are indexed through an invisible generated
+ * column holding {@code LOWER(column)}; the database keeps it up to date and {@code SELECT *} does not return
+ * it.</p>
+ */
+public class H2Dialect extends StandardDialect {
+
+    // Conexión -> "tabla.columna" -> si la tabla tiene la columna sombra de esa columna
+    private final Map<Connection, Map<String, Boolean>> shadowColumns = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public String getName() {
+        return "H2";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "org.h2.Driver";
+    }
+
+    @Override
+    public boolean acceptsProduct(String productName) {
+        return productName.toLowerCase().contains("h2");
+    }
+
+    @Override
+    public boolean acceptsUrl(String url) {
+        return url.startsWith("jdbc:h2:");
+    }
+
+    /**
+     * {@code MERGE INTO ... KEY (...) VALUES (...)}, which needs no unique index on the key columns.
+     */
+    @Override
+    public String upsert(String table, String[] keyColumns, String[] columns) {
+        return "MERGE INTO " + table + " (" + String.join(", ", columns) + ") KEY (" + String.join(", ", keyColumns)
+                + ") VALUES (" + placeholders(columns.length) + ")";
+    }
+
+    @Override
+    public String limit(String query, int rows) {
+        return query + " LIMIT " + rows;
+    }
+
+    /**
+     * Compares the shadow column created by {@link #caseInsensitiveIndex(String, String)} when the table has
+     * one, and {@code LOWER(column)} otherwise. Whether it has one is read once per connection and column,
+     * until {@link #forget(Connection)}.
+     */
+    @Override
+    public String caseInsensitiveEquals(Connection connection, String table, String column) {
+        Map<String, Boolean> columns = shadowColumns.computeIfAbsent(connection, c -> new ConcurrentHashMap<>());
+        String key = (table + "." + column).toLowerCase(Locale.ROOT);
+        Boolean shadow = columns.get(key);
+        if (shadow == null) {
+            shadow = hasColumn(connection, table, shadowColumn(column));
+            columns.put(key, shadow);
+        }
+        if (shadow) {
+            return shadowColumn(column) + " = LOWER(?)";
+        }
+        return super.caseInsensitiveEquals(connection, table, column);
+    }
+
+    @Override
+    public void forget(Connection connection) {
+        shadowColumns.remove(connection);
+    }
+
+    @Override
+    public List<String> caseInsensitiveIndex(String table, String column) {
+        return List.of(
+                "ALTER TABLE " + table + " ADD COLUMN IF NOT EXISTS " + shadowColumn(column)
+                        + " VARCHAR INVISIBLE GENERATED ALWAYS AS (LOWER(" + column + "))",
+                "CREATE INDEX IF NOT EXISTS " + caseInsensitiveIndexName(table, column) + " ON " + table + " (" + shadowColumn(column) + ")");
+    }
+
+    private static String shadowColumn(String column) {
+        return column + "_ci";
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) {
+        // DatabaseMetaData.getColumns() no devuelve las columnas invisibles
+        String sql = "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = SCHEMA()"
+                + " AND UPPER(TABLE_NAME) = UPPER(?) AND UPPER(COLUMN_NAME) = UPPER(?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            statement.setString(2, column);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) > 0;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 100_000;
+    }
+}
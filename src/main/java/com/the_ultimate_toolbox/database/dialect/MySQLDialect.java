@@ -0,0 +1,157 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MySQL and MariaDB.
+ *
+ * <p>Every statement of a JDBC batch is a round trip unless the URL sets {@code rewriteBatchedStatements=true},
+ * so bulk inserts are sent as multi-row {@code VALUES} lists sized to {@code max_allowed_packet}. Results are
+ * streamed with the driver's {@code Integer.MIN_VALUE} fetch size.</p>
+ */
+public class MySQLDialect extends StandardDialect {
+
+    // Conexión -> "tabla.columna" -> si la intercalación de la columna ignora mayúsculas
+    private final Map<Connection, Map<String, Boolean>> ciColumns = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public String getName() {
+        return "MySQL";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "com.mysql.cj.jdbc.Driver";
+    }
+
+    @Override
+    public boolean acceptsProduct(String productName) {
+        String product = productName.toLowerCase();
+        return product.contains("mysql") || product.contains("mariadb");
+    }
+
+    @Override
+    public boolean acceptsUrl(String url) {
+        return url.startsWith("jdbc:mysql:");
+    }
+
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey(String column) {
+        return column + " INT AUTO_INCREMENT PRIMARY KEY";
+    }
+
+    /**
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE}. The key columns must be covered by a primary key or unique
+     * index.
+     */
+    @Override
+    public String upsert(String table, String[] keyColumns, String[] columns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        StringBuilder sql = new StringBuilder(insert(table, columns)).append(" ON DUPLICATE KEY UPDATE ");
+        boolean first = true;
+        for (String column : columns) {
+            if (!keys.contains(column)) {
+                sql.append(first ? "" : ", ").append(column).append(" = VALUES(").append(column).append(")");
+                first = false;
+            }
+        }
+        if (first) {
+            // Only key columns: nothing to update, but the statement must still be valid
+            sql.append(keyColumns[0]).append(" = ").append(keyColumns[0]);
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public String limit(String query, int rows) {
+        return query + " LIMIT " + rows;
+    }
+
+    /**
+     * A plain {@code column = ?} when the column has a case-insensitive ({@code _ci}) collation, the default:
+     * it already compares ignoring case, and wrapping the column in {@code LOWER()} would keep MySQL from using
+     * its index. Columns with a binary or {@code _cs} collation, or whose collation cannot be read, get
+     * {@code LOWER(column) = LOWER(?)}, which is correct but not indexed. The collation is read from
+     * {@code INFORMATION_SCHEMA.COLUMNS} once per connection and column.
+     */
+    @Override
+    public String caseInsensitiveEquals(Connection connection, String table, String column) {
+        Map<String, Boolean> columns = ciColumns.computeIfAbsent(connection, c -> new ConcurrentHashMap<>());
+        String key = (table + "." + column).toLowerCase(Locale.ROOT);
+        Boolean ci = columns.get(key);
+        if (ci == null) {
+            String collation = collation(connection, table, column);
+            ci = collation != null && collation.toLowerCase(Locale.ROOT).endsWith("_ci");
+            columns.put(key, ci);
+        }
+        return ci ? column + " = ?" : super.caseInsensitiveEquals(connection, table, column);
+    }
+
+    /**
+     * @return the collation of the column, or null if it has none (not a text column) or it cannot be read
+     */
+    String collation(Connection connection, String table, String column) {
+        String sql = "SELECT COLLATION_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE()"
+                + " AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, table);
+            statement.setString(2, column);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            // Sin la intercalación se compara con LOWER(), que siempre es correcto
+            return null;
+        }
+    }
+
+    @Override
+    public void forget(Connection connection) {
+        ciColumns.remove(connection);
+    }
+
+    @Override
+    public List<String> caseInsensitiveIndex(String table, String column) {
+        return List.of("CREATE INDEX " + caseInsensitiveIndexName(table, column) + " ON " + table + " (" + column + ")");
+    }
+
+    @Override
+    public BulkInsertStrategy getBulkInsertStrategy() {
+        return BulkInsertStrategy.MULTI_ROW_VALUES;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        // Límite de marcadores del protocolo cliente/servidor de MySQL
+        return 65_535;
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public long getMaxPacketBytes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet")) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+}
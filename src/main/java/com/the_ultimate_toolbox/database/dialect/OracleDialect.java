@@ -0,0 +1,46 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+/**
+ * Oracle, whose {@code MERGE} reads its source row from {@code dual}.
+ */
+public class OracleDialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "Oracle";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "oracle.jdbc.OracleDriver";
+    }
+
+    @Override
+    public boolean acceptsProduct(String productName) {
+        return productName.toLowerCase().contains("oracle");
+    }
+
+    @Override
+    public boolean acceptsUrl(String url) {
+        return url.startsWith("jdbc:oracle:");
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey(String column) {
+        return column + " NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+    }
+
+    @Override
+    protected String mergeSource(String[] columns) {
+        StringBuilder sql = new StringBuilder("(SELECT ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append("? ").append(columns[i]);
+        }
+        return sql.append(" FROM dual) src").toString();
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 65_535;
+    }
+}
@@ -0,0 +1,63 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PostgreSQL. Add {@code reWriteBatchedInserts=true} to the URL so the driver turns JDBC batches into
+ * multi-row inserts.
+ */
+public class PostgreSQLDialect extends StandardDialect {
+
+    @Override
+    public String getName() {
+        return "PostgreSQL";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "org.postgresql.Driver";
+    }
+
+    @Override
+    public boolean acceptsProduct(String productName) {
+        return productName.toLowerCase().contains("postgres");
+    }
+
+    @Override
+    public boolean acceptsUrl(String url) {
+        return url.startsWith("jdbc:postgresql:");
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey(String column) {
+        return column + " SERIAL PRIMARY KEY";
+    }
+
+    /**
+     * {@code INSERT ... ON CONFLICT (keys) DO UPDATE}. The key columns must be covered by a unique index.
+     */
+    @Override
+    public String upsert(String table, String[] keyColumns, String[] columns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        StringBuilder sql = new StringBuilder(insert(table, columns))
+                .append(" ON CONFLICT (").append(String.join(", ", keyColumns)).append(") ");
+        StringBuilder updates = new StringBuilder();
+        for (String column : columns) {
+            if (!keys.contains(column)) {
+                updates.append(updates.length() == 0 ? "" : ", ").append(column).append(" = EXCLUDED.").append(column);
+            }
+        }
+        return sql.append(updates.length() == 0 ? "DO NOTHING" : "DO UPDATE SET " + updates).toString();
+    }
+
+    @Override
+    public String limit(String query, int rows) {
+        return query + " LIMIT " + rows;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 32_767;
+    }
+}
@@ -0,0 +1,120 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The SQL and driver details that differ from one database to another.
+ *
+ * <p>The JDBC helpers ask the dialect of their connection (see {@link SQLDialects#forConnection(Connection)})
+ * for the statements they cannot write portably: upserts, auto-increment keys, row limits and case-insensitive
+ * comparisons, and for the fastest way to send many rows. Implementations must be stateless and thread-safe.</p>
+ */
+public interface SQLDialect {
+
+    /**
+     * @return a short name for logs, such as "MySQL"
+     */
+    String getName();
+
+    /**
+     * @return the JDBC driver class to load for this database, or null to rely on driver auto-loading
+     */
+    String getDriverClassName();
+
+    /**
+     * @param productName the {@code DatabaseMetaData.getDatabaseProductName()} of a connection
+     * @return whether this dialect is the one for that product
+     */
+    boolean acceptsProduct(String productName);
+
+    /**
+     * @param url a JDBC connection URL
+     * @return whether this dialect is the one for that URL
+     */
+    boolean acceptsUrl(String url);
+
+    /**
+     * Quotes an identifier, escaping the quote character. Quoted identifiers are case-sensitive on most
+     * databases, so only quote names that need it (reserved words, spaces).
+     */
+    String quoteIdentifier(String identifier);
+
+    /**
+     * @param column the name of the key column
+     * @return the definition of an integer primary key generated by the database, for {@code CREATE TABLE}
+     */
+    String autoIncrementPrimaryKey(String column);
+
+    /**
+     * Builds a statement that inserts a row or updates the existing one with the same key. Its parameters are
+     * the values of {@code columns}, in order.
+     *
+     * @param table      the name of the table
+     * @param keyColumns the columns that identify the row; all of them appear in {@code columns}
+     * @param columns    the columns to insert
+     * @return the upsert statement
+     */
+    String upsert(String table, String[] keyColumns, String[] columns);
+
+    /**
+     * Appends the clause that returns at most {@code rows} rows to an ordered query.
+     */
+    String limit(String query, int rows);
+
+    /**
+     * Returns a condition that is true when {@code column} equals its single parameter ignoring case. Once
+     * the statements of {@link #caseInsensitiveIndex(String, String)} have been run, the condition is answered
+     * with an index seek instead of a full scan.
+     *
+     * @param connection a connection to the database, for dialects whose condition depends on the schema
+     * @param table      the table of the column
+     * @param column     the column to compare
+     * @return the condition, with one {@code ?} for the value
+     */
+    String caseInsensitiveEquals(Connection connection, String table, String column);
+
+    /**
+     * @param table  the table of the column
+     * @param column the column searched with {@link #caseInsensitiveEquals(Connection, String, String)}
+     * @return the DDL statements that index the column for case-insensitive lookups, or an empty list if the
+     * database cannot index them
+     */
+    List<String> caseInsensitiveIndex(String table, String column);
+
+    /**
+     * @return the fastest way to insert many rows on this database
+     */
+    BulkInsertStrategy getBulkInsertStrategy();
+
+    /**
+     * @return the maximum number of placeholders in one statement
+     */
+    int getMaxParameters();
+
+    /**
+     * @return the fetch size that makes the driver stream a result instead of buffering it
+     */
+    int getStreamingFetchSize();
+
+    /**
+     * Returns the largest statement the server accepts, in bytes, or -1 if the database has no such limit or
+     * it is unknown.
+     *
+     * @param connection a connection to the database
+     * @throws SQLException if the server cannot be asked
+     */
+    default long getMaxPacketBytes(Connection connection) throws SQLException {
+        return -1;
+    }
+
+    /**
+     * Drops what the dialect has read about the schema behind a connection, such as the columns
+     * {@link #caseInsensitiveEquals(Connection, String, String)} looks up, after it has changed.
+     *
+     * @param connection the connection
+     */
+    default void forget(Connection connection) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Finds the dialect of a connection or URL.
+ *
+ * <p>Dialects registered with {@link #register(SQLDialect)} are tried first, most recent first, then the
+ * built-in MySQL, H2, PostgreSQL, SQLite and Oracle dialects. Anything else gets {@link StandardDialect}.
+ * The dialect of a connection is detected from its product name once and remembered for as long as the
+ * connection is alive.</p>
+ */
+public final class SQLDialects {
+
+    public static final SQLDialect MYSQL = new MySQLDialect();
+    public static final SQLDialect H2 = new H2Dialect();
+    public static final SQLDialect POSTGRESQL = new PostgreSQLDialect();
+    public static final SQLDialect SQLITE = new SQLiteDialect();
+    public static final SQLDialect ORACLE = new OracleDialect();
+    public static final SQLDialect STANDARD = new StandardDialect();
+
+    private static final List<SQLDialect> custom = new CopyOnWriteArrayList<>();
+    private static final List<SQLDialect> builtIn = List.of(MYSQL, H2, POSTGRESQL, SQLITE, ORACLE);
+    private static final Map<Connection, SQLDialect> byConnection = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private SQLDialects() {
+    }
+
+    /**
+     * Registers a dialect ahead of the built-in ones, for a database they do not cover or to override one.
+     */
+    public static void register(SQLDialect dialect) {
+        custom.add(0, dialect);
+        byConnection.clear();
+    }
+
+    /**
+     * Removes a dialect added with {@link #register(SQLDialect)}.
+     *
+     * @return whether the dialect was registered
+     */
+    public static boolean unregister(SQLDialect dialect) {
+        boolean removed = custom.remove(dialect);
+        byConnection.clear();
+        return removed;
+    }
+
+    /**
+     * @param connection an open connection
+     * @return the dialect of the database behind the connection
+     * @throws RuntimeException if the connection's metadata cannot be read
+     */
+    public static SQLDialect forConnection(Connection connection) {
+        SQLDialect dialect = byConnection.get(connection);
+        if (dialect == null) {
+            try {
+                dialect = forProductName(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+            byConnection.put(connection, dialect);
+        }
+        return dialect;
+    }
+
+    /**
+     * Makes every dialect drop what it has read about the schema behind a connection. Called when the
+     * connection's statements are evicted, after DDL or before the connection is closed.
+     *
+     * @param connection the connection
+     */
+    public static void forget(Connection connection) {
+        for (SQLDialect dialect : custom) {
+            dialect.forget(connection);
+        }
+        for (SQLDialect dialect : builtIn) {
+            dialect.forget(connection);
+        }
+    }
+
+    /**
+     * @param productName a {@code DatabaseMetaData.getDatabaseProductName()}
+     * @return the dialect for that product
+     */
+    public static SQLDialect forProductName(String productName) {
+        String product = productName == null ? "" : productName;
+        for (SQLDialect dialect : custom) {
+            if (dialect.acceptsProduct(product)) {
+                return dialect;
+            }
+        }
+        for (SQLDialect dialect : builtIn) {
+            if (dialect.acceptsProduct(product)) {
+                return dialect;
+            }
+        }
+        return STANDARD;
+    }
+
+    /**
+     * @param url a JDBC connection URL
+     * @return the dialect for that URL
+     */
+    public static SQLDialect forUrl(String url) {
+        for (SQLDialect dialect : custom) {
+            if (dialect.acceptsUrl(url)) {
+                return dialect;
+            }
+        }
+        for (SQLDialect dialect : builtIn) {
+            if (dialect.acceptsUrl(url)) {
+                return dialect;
+            }
+        }
+        return STANDARD;
+    }
+}
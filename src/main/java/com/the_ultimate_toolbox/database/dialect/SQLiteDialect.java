@@ -0,0 +1,37 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+/**
+ * SQLite, which shares PostgreSQL's {@code ON CONFLICT} upsert and {@code LIMIT} syntax.
+ */
+public class SQLiteDialect extends PostgreSQLDialect {
+
+    @Override
+    public String getName() {
+        return "SQLite";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return "org.sqlite.JDBC";
+    }
+
+    @Override
+    public boolean acceptsProduct(String productName) {
+        return productName.toLowerCase().contains("sqlite");
+    }
+
+    @Override
+    public boolean acceptsUrl(String url) {
+        return url.startsWith("jdbc:sqlite:");
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey(String column) {
+        return column + " INTEGER PRIMARY KEY AUTOINCREMENT";
+    }
+
+    @Override
+    public int getMaxParameters() {
+        return 32_766;
+    }
+}
@@ -0,0 +1,139 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL:2003 dialect, used for databases without a dedicated one (SQL Server, DB2...) and as the base of the
+ * others. Upserts are {@code MERGE} statements and row limits use {@code FETCH FIRST}.
+ */
+public class StandardDialect implements SQLDialect {
+
+    @Override
+    public String getName() {
+        return "Standard SQL";
+    }
+
+    @Override
+    public String getDriverClassName() {
+        return null;
+    }
+
+    @Override
+    public boolean acceptsProduct(String productName) {
+        return true;
+    }
+
+    @Override
+    public boolean acceptsUrl(String url) {
+        return true;
+    }
+
+    @Override
+    public String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    @Override
+    public String autoIncrementPrimaryKey(String column) {
+        return column + " INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+    }
+
+    @Override
+    public String upsert(String table, String[] keyColumns, String[] columns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(table).append(" USING ")
+                .append(mergeSource(columns)).append(" ON (");
+        for (int i = 0; i < keyColumns.length; i++) {
+            sql.append(i == 0 ? "" : " AND ").append(table).append(".").append(keyColumns[i]).append(" = src.").append(keyColumns[i]);
+        }
+        sql.append(")");
+        StringBuilder updates = new StringBuilder();
+        for (String column : columns) {
+            if (!keys.contains(column)) {
+                updates.append(updates.length() == 0 ? "" : ", ").append(column).append(" = src.").append(column);
+            }
+        }
+        if (updates.length() > 0) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ").append(updates);
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (").append(String.join(", ", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append("src.").append(columns[i]);
+        }
+        return sql.append(")").toString();
+    }
+
+    /**
+     * @return the {@code USING} source of a {@code MERGE}: one row named {@code src} holding the parameters
+     */
+    protected String mergeSource(String[] columns) {
+        return "(VALUES (" + placeholders(columns.length) + ")) AS src (" + String.join(", ", columns) + ")";
+    }
+
+    @Override
+    public String limit(String query, int rows) {
+        return query + " FETCH FIRST " + rows + " ROWS ONLY";
+    }
+
+    /**
+     * {@code LOWER(column) = LOWER(?)}, which databases with expression indexes (PostgreSQL, SQLite, Oracle,
+     * DB2) can answer from an index on {@code LOWER(column)}.
+     */
+    @Override
+    public String caseInsensitiveEquals(Connection connection, String table, String column) {
+        return "LOWER(" + column + ") = LOWER(?)";
+    }
+
+    @Override
+    public List<String> caseInsensitiveIndex(String table, String column) {
+        return List.of("CREATE INDEX " + caseInsensitiveIndexName(table, column) + " ON " + table + " (LOWER(" + column + "))");
+    }
+
+    @Override
+    public BulkInsertStrategy getBulkInsertStrategy() {
+        return BulkInsertStrategy.JDBC_BATCH;
+    }
+
+    @Override
+    public int getMaxParameters() {
+        // SQL Server admite 2100; es el límite más bajo entre las bases de datos habituales
+        return 2_000;
+    }
+
+    @Override
+    public int getStreamingFetchSize() {
+        return 1_000;
+    }
+
+    /**
+     * @return the statement {@code INSERT INTO table (columns) VALUES (?, ...)}
+     */
+    protected static String insert(String table, String[] columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders(columns.length) + ")";
+    }
+
+    /**
+     * @return the name of the index created by {@link #caseInsensitiveIndex(String, String)}
+     */
+    protected static String caseInsensitiveIndexName(String table, String column) {
+        return table + "_" + column + "_ci";
+    }
+
+    /**
+     * @return {@code count} comma-separated placeholders
+     */
+    protected static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
@@ -0,0 +1,94 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a chunked batch operation such as
+ * {@link SQLinteractions#insertIntoTableBatch(java.sql.Connection, String, String[], String[][], String[], int)}.
+ *
+ * <p>Every chunk runs in its own transaction. A chunk that fails is rolled back as a whole, so none of
+ * its rows are persisted even if the driver only rejected some of them; those rejected rows are listed
+ * in {@link #getFailedRowIndexes()}.</p>
+ */
+public class BatchResult {
+
+    /**
+     * Result of a single chunk.
+     *
+     * @param firstRowIndex the index of the first row of the chunk in the input
+     * @param rowCount      the number of rows in the chunk
+     * @param updateCounts  the update counts reported by the driver, one per executed row; may be
+     *                      shorter than {@code rowCount} if the driver stopped at the first failure
+     * @param committed     whether the chunk was committed
+     */
+    public record ChunkResult(int firstRowIndex, int rowCount, int[] updateCounts, boolean committed) {
+
+        /**
+         * Returns the number of rows the chunk affected, or 0 if it was rolled back.
+         * Rows reported as {@link Statement#SUCCESS_NO_INFO} count as one affected row each.
+         *
+         * @return the affected row count
+         */
+        public int affectedRows() {
+            if (!committed) {
+                return 0;
+            }
+            int affected = 0;
+            for (int count : updateCounts) {
+                affected += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+            return affected;
+        }
+    }
+
+    private final List<ChunkResult> chunks = new ArrayList<>();
+    private final List<Integer> failedRowIndexes = new ArrayList<>();
+
+    void addChunk(ChunkResult chunk) {
+        chunks.add(chunk);
+    }
+
+    void addFailedRow(int rowIndex) {
+        failedRowIndexes.add(rowIndex);
+    }
+
+    /**
+     * @return the per-chunk results, in input order
+     */
+    public List<ChunkResult> getChunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * @return the indexes, in the input array, of the rows the driver rejected
+     */
+    public List<Integer> getFailedRowIndexes() {
+        return Collections.unmodifiableList(failedRowIndexes);
+    }
+
+    /**
+     * @return the total number of affected rows across committed chunks
+     */
+    public int getAffectedRows() {
+        int affected = 0;
+        for (ChunkResult chunk : chunks) {
+            affected += chunk.affectedRows();
+        }
+        return affected;
+    }
+
+    /**
+     * @return true if every chunk was committed
+     */
+    public boolean isSuccessful() {
+        for (ChunkResult chunk : chunks) {
+            if (!chunk.committed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
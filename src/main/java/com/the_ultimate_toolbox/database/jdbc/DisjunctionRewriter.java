@@ -0,0 +1,185 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rewrites the {@code a = ? OR b = ? OR a = ?} filter of {@link SQLinteractions#searchByMultipleFieldOR} into a
+ * form the optimizer can answer with index lookups.
+ *
+ * <p>Conditions on the same column are merged into one {@code IN (...)} list. If every column of the
+ * disjunction is the leading column of an index, each column becomes its own branch of a {@code UNION ALL}, so
+ * every branch is an index seek; a branch skips the rows an earlier branch already returned, so no row comes
+ * back twice:</p>
+ *
+ * <pre>
+ * SELECT * FROM t WHERE a IN (?, ?)
+ * UNION ALL SELECT * FROM t WHERE b = ? AND CASE WHEN a IN (?, ?) THEN 1 ELSE 0 END = 0
+ * </pre>
+ *
+ * <p>The {@code CASE} test is used instead of {@code NOT (...)} because it is false rather than unknown when
+ * the column is NULL, and it runs on every database. If some column has no index, one scan is unavoidable, and
+ * the filter stays a single {@code WHERE} of {@code IN} lists joined by {@code OR}. Whether a column is indexed
+ * is read from the database metadata once per connection.</p>
+ */
+final class DisjunctionRewriter {
+
+    private static final Map<Connection, Map<String, Boolean>> indexedColumns = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * A rewritten query.
+     *
+     * @param sql            the statement
+     * @param parameterOrder for every placeholder, in order, the index of the input value it takes
+     * @param union          whether the statement is a {@code UNION ALL} of lookups
+     */
+    record Rewritten(String sql, int[] parameterOrder, boolean union) {
+
+        /**
+         * @return {@code values} reordered to match the placeholders
+         */
+        String[] reorder(String[] values) {
+            String[] out = new String[parameterOrder.length];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = values[parameterOrder[i]];
+            }
+            return out;
+        }
+    }
+
+    private DisjunctionRewriter() {
+    }
+
+    /**
+     * @param connection the connection the query will run on, used to find out which columns are indexed
+     * @param table      the name of the table
+     * @param fields     the column of every condition; a column may appear more than once
+     * @return the rewritten query
+     */
+    static Rewritten rewrite(Connection connection, String table, String[] fields) {
+        // Columna -> índices de las condiciones sobre ella, en orden de aparición
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < fields.length; i++) {
+            groups.computeIfAbsent(fields[i].toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(i);
+        }
+        List<String> columns = new ArrayList<>(groups.size());
+        List<List<Integer>> conditions = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups.values()) {
+            columns.add(fields[group.get(0)]);
+            conditions.add(group);
+        }
+
+        boolean union = columns.size() > 1 && allIndexed(connection, table, columns);
+        StringBuilder sql = new StringBuilder();
+        List<Integer> order = new ArrayList<>(fields.length);
+        if (!union) {
+            sql.append("SELECT * FROM ").append(table).append(" WHERE ");
+            appendDisjunction(sql, order, columns, conditions, columns.size());
+        } else {
+            for (int branch = 0; branch < columns.size(); branch++) {
+                if (branch > 0) {
+                    sql.append(" UNION ALL ");
+                }
+                sql.append("SELECT * FROM ").append(table).append(" WHERE ");
+                appendCondition(sql, order, columns.get(branch), conditions.get(branch));
+                if (branch > 0) {
+                    sql.append(" AND CASE WHEN ");
+                    appendDisjunction(sql, order, columns, conditions, branch);
+                    sql.append(" THEN 1 ELSE 0 END = 0");
+                }
+            }
+        }
+        int[] parameterOrder = new int[order.size()];
+        for (int i = 0; i < parameterOrder.length; i++) {
+            parameterOrder[i] = order.get(i);
+        }
+        return new Rewritten(sql.toString(), parameterOrder, union);
+    }
+
+    /**
+     * Appends the conditions of the first {@code count} columns, joined by {@code OR}.
+     */
+    private static void appendDisjunction(StringBuilder sql, List<Integer> order, List<String> columns,
+                                          List<List<Integer>> conditions, int count) {
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            appendCondition(sql, order, columns.get(i), conditions.get(i));
+        }
+    }
+
+    private static void appendCondition(StringBuilder sql, List<Integer> order, String column, List<Integer> indexes) {
+        sql.append(column);
+        if (indexes.size() == 1) {
+            sql.append(" = ?");
+        } else {
+            sql.append(" IN (");
+            for (int i = 0; i < indexes.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")");
+        }
+        order.addAll(indexes);
+    }
+
+    private static boolean allIndexed(Connection connection, String table, List<String> columns) {
+        Map<String, Boolean> known = indexedColumns.computeIfAbsent(connection, c -> new ConcurrentHashMap<>());
+        for (String column : columns) {
+            String name = (table + "." + column).toLowerCase(Locale.ROOT);
+            Boolean indexed = known.get(name);
+            if (indexed == null) {
+                indexed = hasLeadingIndex(connection, table, column);
+                known.put(name, indexed);
+            }
+            if (!indexed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether some index of the table starts with the column, so an equality on it is a seek
+     */
+    private static boolean hasLeadingIndex(Connection connection, String table, String column) {
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Según la base de datos los nombres sin comillas se guardan en mayúsculas, minúsculas o tal cual
+            for (String name : new String[]{table, table.toUpperCase(Locale.ROOT), table.toLowerCase(Locale.ROOT)}) {
+                try (ResultSet indexes = metaData.getIndexInfo(null, null, name, false, true)) {
+                    boolean found = false;
+                    while (indexes.next()) {
+                        found = true;
+                        if (indexes.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                    if (found) {
+                        return false;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // Sin metadatos se asume lo conservador: una sola consulta con OR
+        }
+        return false;
+    }
+
+    /**
+     * Forgets what was learnt about the indexes of a connection, after they have changed.
+     */
+    static void forget(Connection connection) {
+        indexedColumns.remove(connection);
+    }
+}
@@ -0,0 +1,266 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the parameters of a statement for a fixed column layout.
+ *
+ * <p>The type names used throughout {@link SQLinteractions} ("INT", "FLOAT", "DOUBLE", anything else is a
+ * string) are resolved once, when the binder is compiled, into one setter per column. Binding a row is then
+ * a straight loop over those setters: no string comparison per value, and, when the values come from a
+ * {@link RowBuffer}, no parsing and no boxing either.</p>
+ *
+ * <p>Binders are immutable and thread-safe; {@link #forTypes(String...)} returns the same instance for the
+ * same layout.</p>
+ */
+public final class ParameterBinder {
+
+    private static final ConcurrentHashMap<Layout, ParameterBinder> binders = new ConcurrentHashMap<>();
+
+    /**
+     * The key of a layout in the binder cache. A lookup wraps the caller's array as is; only the key stored
+     * on a miss holds a copy.
+     */
+    private static final class Layout {
+
+        private final String[] types;
+        private final int hash;
+
+        Layout(String[] types) {
+            this.types = types;
+            this.hash = Arrays.hashCode(types);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Layout && Arrays.equals(types, ((Layout) other).types);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Sets one parameter from a typed row buffer.
+     */
+    @FunctionalInterface
+    private interface TypedSetter {
+        void set(PreparedStatement statement, int index, RowBuffer row, int column) throws SQLException;
+    }
+
+    /**
+     * Sets one parameter from its textual representation.
+     */
+    @FunctionalInterface
+    private interface TextSetter {
+        void set(PreparedStatement statement, int index, String value) throws SQLException;
+    }
+
+    private final String[] types;
+    private final TypedSetter[] typedSetters;
+    private final TextSetter[] textSetters;
+    private final byte[] slots;
+
+    private ParameterBinder(String[] types) {
+        this.types = types;
+        this.slots = new byte[types.length];
+        this.typedSetters = new TypedSetter[types.length];
+        this.textSetters = new TextSetter[types.length];
+        for (int i = 0; i < types.length; i++) {
+            String type = types[i] == null ? "" : types[i];
+            switch (type) {
+                case "INT":
+                    slots[i] = RowBuffer.LONG;
+                    typedSetters[i] = (statement, index, row, column) -> {
+                        row.check(column, RowBuffer.LONG);
+                        if (row.nulls[column]) {
+                            statement.setNull(index, Types.INTEGER);
+                        } else {
+                            statement.setInt(index, (int) row.longs[column]);
+                        }
+                    };
+                    textSetters[i] = (statement, index, value) -> {
+                        if (value == null) {
+                            statement.setNull(index, Types.INTEGER);
+                        } else {
+                            statement.setInt(index, Integer.parseInt(value));
+                        }
+                    };
+                    break;
+                case "BIGINT":
+                case "LONG":
+                    slots[i] = RowBuffer.LONG;
+                    typedSetters[i] = (statement, index, row, column) -> {
+                        row.check(column, RowBuffer.LONG);
+                        if (row.nulls[column]) {
+                            statement.setNull(index, Types.BIGINT);
+                        } else {
+                            statement.setLong(index, row.longs[column]);
+                        }
+                    };
+                    textSetters[i] = (statement, index, value) -> {
+                        if (value == null) {
+                            statement.setNull(index, Types.BIGINT);
+                        } else {
+                            statement.setLong(index, Long.parseLong(value));
+                        }
+                    };
+                    break;
+                case "FLOAT":
+                    slots[i] = RowBuffer.DOUBLE;
+                    typedSetters[i] = (statement, index, row, column) -> {
+                        row.check(column, RowBuffer.DOUBLE);
+                        if (row.nulls[column]) {
+                            statement.setNull(index, Types.FLOAT);
+                        } else {
+                            statement.setFloat(index, (float) row.doubles[column]);
+                        }
+                    };
+                    textSetters[i] = (statement, index, value) -> {
+                        if (value == null) {
+                            statement.setNull(index, Types.FLOAT);
+                        } else {
+                            statement.setFloat(index, Float.parseFloat(value));
+                        }
+                    };
+                    break;
+                case "DOUBLE":
+                    slots[i] = RowBuffer.DOUBLE;
+                    typedSetters[i] = (statement, index, row, column) -> {
+                        row.check(column, RowBuffer.DOUBLE);
+                        if (row.nulls[column]) {
+                            statement.setNull(index, Types.DOUBLE);
+                        } else {
+                            statement.setDouble(index, row.doubles[column]);
+                        }
+                    };
+                    textSetters[i] = (statement, index, value) -> {
+                        if (value == null) {
+                            statement.setNull(index, Types.DOUBLE);
+                        } else {
+                            statement.setDouble(index, Double.parseDouble(value));
+                        }
+                    };
+                    break;
+                default:
+                    slots[i] = RowBuffer.STRING;
+                    typedSetters[i] = (statement, index, row, column) -> {
+                        row.check(column, RowBuffer.STRING);
+                        statement.setString(index, row.strings[column]);
+                    };
+                    textSetters[i] = PreparedStatement::setString;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the binder for a column layout, compiling it the first time the layout is seen.
+     *
+     * @param types the data type of every column ("INT", "BIGINT", "FLOAT", "DOUBLE" or any other for strings)
+     * @return the binder for that layout
+     */
+    public static ParameterBinder forTypes(String... types) {
+        ParameterBinder binder = binders.get(new Layout(types));
+        if (binder == null) {
+            // Se copia el array solo al guardarlo: el que pasa el llamador puede cambiar después
+            Layout layout = new Layout(types.clone());
+            binder = binders.computeIfAbsent(layout, l -> new ParameterBinder(l.types));
+        }
+        return binder;
+    }
+
+    /**
+     * Returns a binder that binds every one of {@code columnCount} columns as a string.
+     *
+     * @param columnCount the number of columns
+     * @return the binder for that layout
+     */
+    public static ParameterBinder forStrings(int columnCount) {
+        String[] types = new String[columnCount];
+        Arrays.fill(types, "VARCHAR");
+        return forTypes(types);
+    }
+
+    /**
+     * @return the number of parameters this binder sets
+     */
+    public int getColumnCount() {
+        return types.length;
+    }
+
+    /**
+     * @return a new row buffer for this layout, which only accepts the setter matching each column type
+     */
+    public RowBuffer newRow() {
+        return new RowBuffer(types.length, slots);
+    }
+
+    /**
+     * Binds a typed row starting at parameter {@code firstIndex}.
+     *
+     * @param statement  the statement to bind
+     * @param row        the values to bind
+     * @param firstIndex the 1-based index of the first parameter
+     * @throws SQLException             if the driver rejects a value
+     * @throws IllegalArgumentException if the row does not have one value per column, or a value was not set
+     *                                  through the setter of its column type
+     */
+    public void bind(PreparedStatement statement, RowBuffer row, int firstIndex) throws SQLException {
+        if (row.getColumnCount() != typedSetters.length) {
+            throw new IllegalArgumentException("Expected " + typedSetters.length + " values but got " + row.getColumnCount() + ".");
+        }
+        TypedSetter[] setters = typedSetters;
+        for (int i = 0; i < setters.length; i++) {
+            setters[i].set(statement, firstIndex + i, row, i);
+        }
+    }
+
+    /**
+     * Binds textual values starting at parameter {@code firstIndex}, converting each one to its column type.
+     *
+     * @param statement  the statement to bind
+     * @param values     the values to bind, one per column
+     * @param firstIndex the 1-based index of the first parameter
+     * @throws SQLException          if the driver rejects a value
+     * @throws NumberFormatException if a numeric column holds a value that is not a number
+     */
+    public void bindStrings(PreparedStatement statement, String[] values, int firstIndex) throws SQLException {
+        if (values.length != textSetters.length) {
+            throw new IllegalArgumentException("Expected " + textSetters.length + " values but got " + values.length + ".");
+        }
+        TextSetter[] setters = textSetters;
+        for (int i = 0; i < setters.length; i++) {
+            setters[i].set(statement, firstIndex + i, values[i]);
+        }
+    }
+
+    /**
+     * Binds textual values in the order given by {@code order}: parameter {@code firstIndex + i} takes
+     * {@code values[order[i]]}, converted to the type of column {@code order[i]}. A value may be bound more than
+     * once or not at all.
+     *
+     * @param statement  the statement to bind
+     * @param values     the values, one per column
+     * @param order      for every parameter, the column whose value it takes
+     * @param firstIndex the 1-based index of the first parameter
+     * @throws SQLException          if the driver rejects a value
+     * @throws NumberFormatException if a numeric column holds a value that is not a number
+     */
+    void bindStrings(PreparedStatement statement, String[] values, int[] order, int firstIndex) throws SQLException {
+        if (values.length != textSetters.length) {
+            throw new IllegalArgumentException("Expected " + textSetters.length + " values but got " + values.length + ".");
+        }
+        TextSetter[] setters = textSetters;
+        for (int i = 0; i < order.length; i++) {
+            int column = order[i];
+            setters[column].set(statement, firstIndex + i, values[column]);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily pulled view over the rows of a query.
+ *
+ * <p>Unlike the {@code search*} methods of {@link SQLinteractions}, which load the whole result into an
+ * {@code ArrayList<String[]>}, a cursor fetches rows from the driver as they are consumed, so a large export
+ * runs in constant memory. The column metadata is read once when the cursor is opened. The cursor closes its
+ * statement as soon as the last row has been read; close it explicitly (or use try-with-resources) when you
+ * stop early.</p>
+ *
+ * <pre>{@code
+ * try (ResultCursor cursor = SQLinteractions.cursorByField(connection, "ventas", "pais", "ES", ResultCursor.STREAMING)) {
+ *     cursor.stream().forEach(row -> writer.append(row));
+ * }
+ * }</pre>
+ *
+ * <p>With MySQL, {@link #STREAMING} makes the driver stream the result row by row; no other statement can
+ * run on the connection until the cursor is closed. Positive fetch sizes are only honoured by MySQL when the
+ * connection URL contains {@code useCursorFetch=true}.</p>
+ */
+public class ResultCursor implements Iterator<String[]>, AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(ResultCursor.class);
+
+    /**
+     * Fetch size that asks the driver to stream the result. It is replaced by the streaming fetch size of the
+     * connection's {@link com.the_ultimate_toolbox.database.dialect.SQLDialect}: {@code Integer.MIN_VALUE} on
+     * MySQL, {@link #DEFAULT_FETCH_SIZE} on the others.
+     */
+    public static final int STREAMING = Integer.MIN_VALUE;
+
+    /**
+     * Fetch size used for {@link #STREAMING} on drivers that do not understand MySQL's convention.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1_000;
+
+    /**
+     * Sets the parameters of the cursor's statement.
+     */
+    @FunctionalInterface
+    interface ParameterSetter {
+        void setParameters(PreparedStatement statement) throws SQLException;
+    }
+
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final int columnCount;
+    private final String[] columnLabels;
+    private boolean hasNext;
+    private boolean advanced;
+    private boolean closed;
+
+    private ResultCursor(PreparedStatement statement, ResultSet resultSet) throws SQLException {
+        this.statement = statement;
+        this.resultSet = resultSet;
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        this.columnCount = metaData.getColumnCount();
+        this.columnLabels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+        }
+    }
+
+    /**
+     * Prepares and executes a forward-only, read-only query and wraps its result in a cursor.
+     */
+    static ResultCursor open(Connection connection, String sql, int fetchSize, ParameterSetter parameters) throws SQLException {
+        PreparedStatement statement = StatementTracker.track(
+                connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY));
+        try {
+            statement.setFetchSize(effectiveFetchSize(connection, fetchSize));
+            parameters.setParameters(statement);
+            return new ResultCursor(statement, statement.executeQuery());
+        } catch (SQLException | RuntimeException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    private static int effectiveFetchSize(Connection connection, int fetchSize) {
+        if (fetchSize != STREAMING) {
+            return Math.max(fetchSize, 0);
+        }
+        return SQLDialects.forConnection(connection).getStreamingFetchSize();
+    }
+
+    /**
+     * @return the number of columns of every row
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return the column labels, in result order
+     */
+    public String[] getColumnLabels() {
+        return columnLabels.clone();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced) {
+            if (closed) {
+                return false;
+            }
+            try {
+                hasNext = resultSet.next();
+            } catch (SQLException e) {
+                close();
+                logger.error("An error occurred while reading the cursor", e);
+                throw new RuntimeException(e);
+            }
+            advanced = true;
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public String[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advanced = false;
+        String[] row = new String[columnCount];
+        try {
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getString(i + 1);
+            }
+        } catch (SQLException e) {
+            close();
+            logger.error("An error occurred while reading the cursor", e);
+            throw new RuntimeException(e);
+        }
+        return row;
+    }
+
+    /**
+     * Returns the remaining rows as a sequential stream. Closing the stream closes the cursor.
+     *
+     * @return a lazily populated stream of rows
+     */
+    public Stream<String[]> stream() {
+        Spliterator<String[]> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            resultSet.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing cursor result set", e);
+        }
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing cursor statement", e);
+        }
+    }
+}
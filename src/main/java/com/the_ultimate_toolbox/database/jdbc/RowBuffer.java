@@ -0,0 +1,147 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+/**
+ * Reusable, typed holder for the values of one row.
+ *
+ * <p>Numeric values are kept in primitive arrays and strings by reference, so filling a buffer and binding
+ * it with a {@link ParameterBinder} neither boxes nor re-parses anything. A single buffer is meant to be
+ * refilled for every row of a batch.</p>
+ *
+ * <p>Every value must be set through the setter of its column type: {@code setInt} or {@code setLong} for
+ * "INT" and "BIGINT", {@code setFloat} or {@code setDouble} for "FLOAT" and "DOUBLE", {@code setString} for the
+ * rest. A buffer from {@link ParameterBinder#newRow()} rejects any other setter straight away.</p>
+ *
+ * <pre>{@code
+ * ParameterBinder binder = ParameterBinder.forTypes("VARCHAR", "INT", "DOUBLE");
+ * RowBuffer row = binder.newRow();
+ * row.setString(0, "teclado").setInt(1, 3).setDouble(2, 19.9);
+ * }</pre>
+ */
+public final class RowBuffer {
+
+    static final byte UNSET = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte STRING = 3;
+
+    private static final String[] SLOT_NAMES = {"no value", "an integer", "a floating-point value", "a string"};
+
+    final long[] longs;
+    final double[] doubles;
+    final String[] strings;
+    final boolean[] nulls;
+    /** The slot each column must be set through, or null if any setter is accepted. */
+    private final byte[] layout;
+    /** The slot each column was last set through. */
+    final byte[] written;
+
+    /**
+     * Creates a buffer that accepts any setter for any column. The binder checks, when the row is bound, that
+     * every value was set through the setter matching its column type.
+     *
+     * @param columnCount the number of values in the row
+     */
+    public RowBuffer(int columnCount) {
+        this(columnCount, null);
+    }
+
+    /**
+     * Creates a buffer that rejects a setter that does not match the column type as soon as it is called.
+     */
+    RowBuffer(int columnCount, byte[] layout) {
+        this.longs = new long[columnCount];
+        this.doubles = new double[columnCount];
+        this.strings = new String[columnCount];
+        this.nulls = new boolean[columnCount];
+        this.written = new byte[columnCount];
+        this.layout = layout;
+    }
+
+    public int getColumnCount() {
+        return nulls.length;
+    }
+
+    public RowBuffer setInt(int column, int value) {
+        mark(column, LONG);
+        longs[column] = value;
+        nulls[column] = false;
+        return this;
+    }
+
+    public RowBuffer setLong(int column, long value) {
+        mark(column, LONG);
+        longs[column] = value;
+        nulls[column] = false;
+        return this;
+    }
+
+    public RowBuffer setFloat(int column, float value) {
+        mark(column, DOUBLE);
+        doubles[column] = value;
+        nulls[column] = false;
+        return this;
+    }
+
+    public RowBuffer setDouble(int column, double value) {
+        mark(column, DOUBLE);
+        doubles[column] = value;
+        nulls[column] = false;
+        return this;
+    }
+
+    public RowBuffer setString(int column, String value) {
+        mark(column, STRING);
+        strings[column] = value;
+        nulls[column] = value == null;
+        return this;
+    }
+
+    /**
+     * Sets a column to NULL, whatever its type.
+     */
+    public RowBuffer setNull(int column) {
+        mark(column, layout == null ? STRING : layout[column]);
+        strings[column] = null;
+        nulls[column] = true;
+        return this;
+    }
+
+    public boolean isNull(int column) {
+        return nulls[column];
+    }
+
+    public long getLong(int column) {
+        return longs[column];
+    }
+
+    public double getDouble(int column) {
+        return doubles[column];
+    }
+
+    public String getString(int column) {
+        return strings[column];
+    }
+
+    /**
+     * Checks that a column holds a value set through the expected slot, or NULL.
+     *
+     * @throws IllegalArgumentException if the column was never set, or was set through another slot
+     */
+    void check(int column, byte slot) {
+        if (!nulls[column] && written[column] != slot) {
+            throw mismatch(column, slot, written[column]);
+        }
+    }
+
+    private void mark(int column, byte slot) {
+        if (layout != null && layout[column] != slot) {
+            throw mismatch(column, layout[column], slot);
+        }
+        written[column] = slot;
+    }
+
+    private static IllegalArgumentException mismatch(int column, byte expected, byte actual) {
+        return new IllegalArgumentException("Column " + column + " takes " + SLOT_NAMES[expected]
+                + " but was given " + SLOT_NAMES[actual] + ".");
+    }
+}
@@ -0,0 +1,16 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+/**
+ * Supplies rows one at a time by refilling a reusable {@link RowBuffer}.
+ */
+@FunctionalInterface
+public interface RowSource {
+
+    /**
+     * Fills {@code row} with the next row.
+     *
+     * @param row the buffer to fill; the same instance is passed for every row
+     * @return false if there are no more rows, in which case the buffer is ignored
+     */
+    boolean next(RowBuffer row);
+}
@@ -1,8 +1,13 @@
 package com.the_ultimate_toolbox.database.jdbc;
 
 
+import com.the_ultimate_toolbox.database.dialect.SQLDialect;
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -23,28 +28,9 @@ public class SQLinteractions {
         if (columns.length != values.length) {
             throw new IllegalArgumentException("The number of columns and values must be the same.");
         }
-        StringBuilder queryBuilder = new StringBuilder("INSERT INTO ");
-        queryBuilder.append(table).append(" (");
-        // Construye la lista de columnas en la consulta SQL
-        for (int i = 0; i < columns.length; i++) {
-            queryBuilder.append(columns[i]);
-            if (i < columns.length - 1) {
-                queryBuilder.append(", ");
-            }
-        }
-        queryBuilder.append(") VALUES (");
-        // Construye la lista de valores en la consulta SQL
-        for (int i = 0; i < values.length; i++) {
-            queryBuilder.append("?");
-            if (i < values.length - 1) {
-                queryBuilder.append(", ");
-            }
-        }
-        queryBuilder.append(")");
-
-        String query = queryBuilder.toString();
-
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        StatementCache.Key key = new StatementCache.Key("INSERT", table, columns);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> buildInsertQuery(table, columns))) {
+            PreparedStatement pstmt = cached.statement();
             // Establece los valores de los parámetros en la consulta preparada
             for (int i = 0; i < values.length; i++) {
                 pstmt.setString(i + 1, values[i]);
@@ -57,52 +43,19 @@ public class SQLinteractions {
             return filasInsertadas > 0;
         } catch (SQLException e) {
             Logger logger = LogManager.getLogger(SQLinteractions.class);
-            logger.error("An error occurred while searching", e);
+            logger.error("An error occurred while inserting into " + table, e);
             throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(table);
         }
     }
 
     public static boolean insertIntoTableOneRecord(Connection connection, String table, String[] columns, String[] values, String[] types) {
-        StringBuilder queryBuilder = new StringBuilder("INSERT INTO ");
-        queryBuilder.append(table).append(" (");
-        // Construye la lista de columnas en la consulta SQL
-        for (int i = 0; i < columns.length; i++) {
-            queryBuilder.append(columns[i]);
-            if (i < columns.length - 1) {
-                queryBuilder.append(", ");
-            }
-        }
-        queryBuilder.append(") VALUES (");
-        // Construye la lista de valores en la consulta SQL
-        for (int i = 0; i < values.length; i++) {
-            queryBuilder.append("?");
-            if (i < values.length - 1) {
-                queryBuilder.append(", ");
-            }
-        }
-        queryBuilder.append(")");
-
-        String query = queryBuilder.toString();
-
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        StatementCache.Key key = new StatementCache.Key("INSERT", table, columns);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> buildInsertQuery(table, columns))) {
+            PreparedStatement pstmt = cached.statement();
             // Establece los valores de los parámetros en la consulta preparada
-            for (int i = 0; i < values.length; i++) {
-                String type = types[i];
-                switch (type) {
-                    case "INT":
-                        pstmt.setInt(i + 1, Integer.parseInt(values[i]));
-                        break;
-                    case "FLOAT":
-                        pstmt.setFloat(i + 1, Float.parseFloat(values[i]));
-                        break;
-                    case "DOUBLE":
-                        pstmt.setDouble(i + 1, Double.parseDouble(values[i]));
-                        break;
-                    default:
-                        pstmt.setString(i + 1, values[i]);
-                        break;
-                }
-            }
+            ParameterBinder.forTypes(types).bindStrings(pstmt, values, 1);
 
             // Ejecuta la consulta
             int filasInsertadas = pstmt.executeUpdate();
@@ -111,8 +64,10 @@ public class SQLinteractions {
             return filasInsertadas > 0;
         } catch (SQLException e) {
             Logger logger = LogManager.getLogger(SQLinteractions.class);
-            logger.error("An error occurred while searching", e);
+            logger.error("An error occurred while inserting into " + table, e);
             throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(table);
         }
     }
 
@@ -154,6 +109,167 @@ public class SQLinteractions {
         return i;
     }
 
+    /**
+     * Inserts multiple records into the specified table using JDBC batching.
+     *
+     * <p>The INSERT statement is prepared once and the rows are sent with {@code addBatch}/{@code executeBatch}
+     * in chunks of {@code batchSize} rows. Each chunk runs in its own transaction: the connection's auto-commit
+     * mode is switched off for the duration of the call and restored afterwards. A chunk that fails is rolled
+     * back and the remaining chunks are still attempted. With MySQL, add {@code rewriteBatchedStatements=true}
+     * to the connection URL so the driver sends each chunk as a single multi-row INSERT.</p>
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param columns    an array of column names
+     * @param values     a 2-dimensional array of values corresponding to the columns
+     * @param types      an array of data types corresponding to the columns ("INT", "FLOAT", "DOUBLE" or any other for strings)
+     * @param batchSize  the number of rows sent and committed together
+     * @return the per-chunk results and the indexes of the rows the driver rejected
+     */
+    public static BatchResult insertIntoTableBatch(Connection connection, String table, String[] columns, String[][] values, String[] types, int batchSize) {
+        if (types != null && types.length != columns.length) {
+            throw new IllegalArgumentException("The number of columns and types must be the same.");
+        }
+        ParameterBinder binder = types == null ? ParameterBinder.forStrings(columns.length) : ParameterBinder.forTypes(types);
+        try {
+            return executeBatchInChunks(connection, buildInsertQuery(table, columns), batchSize, (pstmt, row) -> {
+                if (row >= values.length) {
+                    return false;
+                }
+                binder.bindStrings(pstmt, values[row], 1);
+                return true;
+            });
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
+    /**
+     * Inserts the rows produced by {@code rows} into the specified table using JDBC batching and typed binding.
+     *
+     * <p>This is the allocation-free counterpart of
+     * {@link #insertIntoTableBatch(Connection, String, String[], String[][], String[], int)}: the source refills
+     * one {@link RowBuffer} per row and the binder sets its primitive values directly, without parsing or boxing.</p>
+     *
+     * <pre>{@code
+     * ParameterBinder binder = ParameterBinder.forTypes("VARCHAR", "INT");
+     * int[] next = {0};
+     * SQLinteractions.insertIntoTableBatch(connection, "usuarios", new String[]{"nombre", "edad"}, binder, row -> {
+     *     if (next[0] == nombres.length) return false;
+     *     row.setString(0, nombres[next[0]]).setInt(1, edades[next[0]]);
+     *     next[0]++;
+     *     return true;
+     * }, 1000);
+     * }</pre>
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param columns    an array of column names
+     * @param binder     the binder for the column types
+     * @param rows       fills the buffer with the next row, returning false when there are no more rows
+     * @param batchSize  the number of rows sent and committed together
+     * @return the per-chunk results and the indexes of the rows the driver rejected
+     */
+    public static BatchResult insertIntoTableBatch(Connection connection, String table, String[] columns, ParameterBinder binder, RowSource rows, int batchSize) {
+        if (binder.getColumnCount() != columns.length) {
+            throw new IllegalArgumentException("The number of columns and types must be the same.");
+        }
+        RowBuffer buffer = binder.newRow();
+        try {
+            return executeBatchInChunks(connection, buildInsertQuery(table, columns), batchSize, (pstmt, row) -> {
+                if (!rows.next(buffer)) {
+                    return false;
+                }
+                binder.bind(pstmt, buffer, 1);
+                return true;
+            });
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
+    /**
+     * Inserts multiple records into the specified table using JDBC batching, binding every value as a string.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param columns    an array of column names
+     * @param values     a 2-dimensional array of values corresponding to the columns
+     * @param batchSize  the number of rows sent and committed together
+     * @return the per-chunk results and the indexes of the rows the driver rejected
+     * @see #insertIntoTableBatch(Connection, String, String[], String[][], String[], int)
+     */
+    public static BatchResult insertIntoTableBatch(Connection connection, String table, String[] columns, String[][] values, int batchSize) {
+        return insertIntoTableBatch(connection, table, columns, values, null, batchSize);
+    }
+
+    /**
+     * Inserts a record, or updates the existing one with the same key, in a single statement.
+     *
+     * <p>The statement is generated for the database behind the connection: {@code INSERT ... ON DUPLICATE KEY
+     * UPDATE} on MySQL/MariaDB, {@code MERGE ... KEY} on H2, {@code INSERT ... ON CONFLICT} on PostgreSQL and
+     * SQLite, and a standard {@code MERGE} elsewhere. On MySQL the key columns must be covered by a primary key
+     * or unique index. Replaces the search-then-insert-or-update pattern, which takes two or three round trips
+     * and races under concurrency.</p>
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param keyColumns the columns that identify the row; they must also appear in {@code columns}
+     * @param columns    an array of column names
+     * @param values     an array of values corresponding to the columns
+     * @param types      an array of data types corresponding to the columns
+     * @return true if a row was inserted or changed, false otherwise
+     */
+    public static boolean upsert(Connection connection, String table, String[] keyColumns, String[] columns, String[] values, String[] types) {
+        checkUpsertColumns(keyColumns, columns);
+        StatementCache.Key key = new StatementCache.Key("UPSERT", table, String.join(",", keyColumns), String.join(",", columns));
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key,
+                () -> buildUpsertQuery(connection, table, keyColumns, columns))) {
+            PreparedStatement pstmt = cached.statement();
+            ParameterBinder.forTypes(types).bindStrings(pstmt, values, 1);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            Logger logger = LogManager.getLogger(SQLinteractions.class);
+            logger.error("An error occurred while upserting into " + table, e);
+            throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
+    /**
+     * Upserts many records using JDBC batching, so a sync job touches every row exactly once.
+     * Chunks are committed independently, as in
+     * {@link #insertIntoTableBatch(Connection, String, String[], String[][], String[], int)}.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param keyColumns the columns that identify a row; they must also appear in {@code columns}
+     * @param columns    an array of column names
+     * @param values     a 2-dimensional array of values corresponding to the columns
+     * @param types      an array of data types corresponding to the columns
+     * @param batchSize  the number of rows sent and committed together
+     * @return the per-chunk results and the indexes of the rows the driver rejected
+     * @see #upsert(Connection, String, String[], String[], String[], String[])
+     */
+    public static BatchResult upsertBatch(Connection connection, String table, String[] keyColumns, String[] columns,
+                                          String[][] values, String[] types, int batchSize) {
+        checkUpsertColumns(keyColumns, columns);
+        ParameterBinder binder = ParameterBinder.forTypes(types);
+        String sql = buildUpsertQuery(connection, table, keyColumns, columns);
+        try {
+            return executeBatchInChunks(connection, sql, batchSize, (pstmt, row) -> {
+                if (row >= values.length) {
+                    return false;
+                }
+                binder.bindStrings(pstmt, values[row], 1);
+                return true;
+            });
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
     /**
      * Counts the number of rows in the specified table.
      *
@@ -162,9 +278,9 @@ public class SQLinteractions {
      * @return the number of rows in the table, or 0 if the table is empty
      */
     public static int countRows(Connection connection, String table) {
-        String sql = "SELECT COUNT(*) FROM " + table;
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            try (ResultSet resultSet = statement.executeQuery()) {
+        StatementCache.Key key = new StatementCache.Key("COUNT", table);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> "SELECT COUNT(*) FROM " + table)) {
+            try (ResultSet resultSet = cached.statement().executeQuery()) {
                 if (resultSet.next()) {
                     return resultSet.getInt(1);
                 } else {
@@ -173,7 +289,7 @@ public class SQLinteractions {
             }
         } catch (SQLException e) {
             Logger logger = LogManager.getLogger(SQLinteractions.class);
-            logger.error("An error occurred while searching", e);
+            logger.error("An error occurred while counting the rows of " + table, e);
             throw new RuntimeException(e);
         }
     }
@@ -187,14 +303,17 @@ public class SQLinteractions {
      * @return true if the row was deleted successfully, false otherwise
      */
     public static boolean deleteRowByID(Connection connection, String table, int id)  {
-        String sql = "DELETE FROM " + table + " WHERE id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        StatementCache.Key key = new StatementCache.Key("DELETE_BY_ID", table);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> "DELETE FROM " + table + " WHERE id = ?")) {
+            PreparedStatement statement = cached.statement();
             statement.setInt(1, id);
             return statement.executeUpdate() > 0;
         } catch (SQLException e) {
             Logger logger = LogManager.getLogger(SQLinteractions.class);
-            logger.error("An error occurred while searching", e);
+            logger.error("An error occurred while deleting from " + table, e);
             throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(table);
         }
     }
 
@@ -211,10 +330,125 @@ public class SQLinteractions {
         boolean out = true;
         while (count < id.length && out) {
             out = deleteRowByID(connection, table, id[count]);
+            count++;
         }
 
         return out;
     }
+
+    /**
+     * Deletes every row whose ID is in {@code ids} using chunked {@code DELETE ... WHERE id IN (...)} statements.
+     *
+     * <p>All chunks run in a single transaction: either every chunk is applied or, if one fails, none is.
+     * Chunks of the full size share one prepared statement. If the connection already has a transaction
+     * open (auto-commit off), the chunks run in it and committing or rolling back is left to the caller.</p>
+     *
+     * @param connection   the database connection
+     * @param table        the name of the table
+     * @param idColumnName the name of the ID column
+     * @param ids          the IDs of the rows to delete
+     * @param chunkSize    the number of IDs per statement
+     * @return the number of rows deleted by each chunk, in order
+     * @throws RuntimeException if a statement fails; the transaction is rolled back unless it is the caller's
+     */
+    public static int[] bulkDeleteByIds(Connection connection, String table, String idColumnName, int[] ids, int chunkSize) {
+        checkChunkSize(connection, chunkSize, 0);
+        String prefix = "DELETE FROM " + table + " WHERE " + idColumnName + " IN (";
+        try {
+            return inTransaction(connection, () -> executeInChunks(connection, prefix, ids, chunkSize, (pstmt, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    pstmt.setInt(i - from + 1, ids[i]);
+                }
+            }));
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
+    /**
+     * Sets the same values on every row whose ID is in {@code ids} using chunked
+     * {@code UPDATE ... SET ... WHERE id IN (...)} statements, all in one transaction. If the connection
+     * already has a transaction open (auto-commit off), the statements run in it and committing or rolling
+     * back is left to the caller.
+     *
+     * @param connection   the database connection
+     * @param table        the name of the table
+     * @param idColumnName the name of the ID column
+     * @param ids          the IDs of the rows to update
+     * @param columns      an array of column names to update
+     * @param values       an array of values corresponding to the columns
+     * @param types        an array of data types corresponding to the columns
+     * @param chunkSize    the number of IDs per statement
+     * @return the number of rows updated by each chunk, in order
+     * @throws RuntimeException if a statement fails; the transaction is rolled back unless it is the caller's
+     */
+    public static int[] bulkUpdateByIds(Connection connection, String table, String idColumnName, int[] ids,
+                                        String[] columns, String[] values, String[] types, int chunkSize) {
+        checkChunkSize(connection, chunkSize, columns.length);
+        ParameterBinder binder = ParameterBinder.forTypes(types);
+        StringBuilder prefix = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < columns.length; i++) {
+            prefix.append(i == 0 ? "" : ", ").append(columns[i]).append(" = ?");
+        }
+        prefix.append(" WHERE ").append(idColumnName).append(" IN (");
+        try {
+            return inTransaction(connection, () -> executeInChunks(connection, prefix.toString(), ids, chunkSize, (pstmt, from, to) -> {
+                binder.bindStrings(pstmt, values, 1);
+                for (int i = from; i < to; i++) {
+                    pstmt.setInt(columns.length + i - from + 1, ids[i]);
+                }
+            }));
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
+    /**
+     * Updates many rows by ID, each with its own values, using JDBC batches of {@code batchSize} rows.
+     * Unlike {@link #insertIntoTableBatch(Connection, String, String[], String[][], String[], int)}, all
+     * batches run in a single transaction. If the connection already has a transaction open (auto-commit
+     * off), the batches run in it and committing or rolling back is left to the caller.
+     *
+     * @param connection   the database connection
+     * @param table        the name of the table
+     * @param idColumnName the name of the ID column
+     * @param ids          the ID of every row to update
+     * @param columns      an array of column names to update
+     * @param values       the new values of every row, one array per ID
+     * @param types        an array of data types corresponding to the columns
+     * @param batchSize    the number of rows per batch
+     * @return the number of rows updated by each batch, in order
+     * @throws RuntimeException if a batch fails; the transaction is rolled back unless it is the caller's
+     */
+    public static int[] bulkUpdateByIdBatch(Connection connection, String table, String idColumnName, int[] ids,
+                                            String[] columns, String[][] values, String[] types, int batchSize) {
+        if (ids.length != values.length) {
+            throw new IllegalArgumentException("The number of IDs and value rows must be the same.");
+        }
+        checkChunkSize(connection, batchSize, 0);
+        ParameterBinder binder = ParameterBinder.forTypes(types);
+        try {
+            return inTransaction(connection, () -> {
+                int[] affected = new int[(ids.length + batchSize - 1) / batchSize];
+                try (PreparedStatement pstmt = StatementTracker.track(connection.prepareStatement(buildUpdateByIdQuery(table, idColumnName, columns)))) {
+                    for (int chunk = 0; chunk < affected.length; chunk++) {
+                        int end = Math.min((chunk + 1) * batchSize, ids.length);
+                        for (int row = chunk * batchSize; row < end; row++) {
+                            binder.bindStrings(pstmt, values[row], 1);
+                            pstmt.setInt(columns.length + 1, ids[row]);
+                            pstmt.addBatch();
+                        }
+                        for (int count : pstmt.executeBatch()) {
+                            affected[chunk] += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+                        }
+                    }
+                }
+                return affected;
+            });
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
     /**
      * Updates a record in the specified table by ID.
      *
@@ -230,51 +464,62 @@ public class SQLinteractions {
      */
     public static boolean updateById(Connection connection, String table, String idColumnName, int id, String[] columns, String[] values, String[] types) {
         boolean out;
-        StringBuilder sql = new StringBuilder("UPDATE " + table + " SET ");
-        for (int i = 0; i < columns.length; i++) {
-            sql.append(columns[i]).append(" = ?");
-            if (i < columns.length - 1) {
-                sql.append(", ");
-            }
-        }
-        sql.append(" WHERE ").append(idColumnName).append(" = ?").append(id);
-        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
-            for(int i=0;i<types.length;i++){
-                switch (types[i]){
-                    case "INT":
-                        statement.setInt(i+1, Integer.parseInt(values[i]));
-                        break;
-                    case "FLOAT":
-                        statement.setFloat(i+1, Float.parseFloat(values[i]));
-                        break;
-                    case "DOUBLE":
-                        statement.setDouble(i+1, Double.parseDouble(values[i]));
-                        break;
-                    default:
-                        statement.setString(i+1, values[i]);
-                        break;
-                }
-            }
+        StatementCache.Key key = new StatementCache.Key("UPDATE_BY_ID", table, idColumnName, String.join(",", columns));
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> buildUpdateByIdQuery(table, idColumnName, columns))) {
+            PreparedStatement statement = cached.statement();
+            ParameterBinder.forTypes(types).bindStrings(statement, values, 1);
             statement.setInt(columns.length + 1, id);
             out = statement.executeUpdate() > 0;
             return out;
         } catch (SQLException e) {
             Logger logger = LogManager.getLogger(SQLinteractions.class);
-            logger.error("An error occurred while searching", e);
+            logger.error("An error occurred while updating " + table, e);
+            throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(table);
+        }
+    }
+
+    /**
+     * Updates a record in the specified table by ID, binding typed values from a {@link RowBuffer}.
+     *
+     * @param connection   the database connection
+     * @param table        the name of the table
+     * @param idColumnName the name of the ID column
+     * @param id           the ID of the record to update
+     * @param columns      an array of column names to update
+     * @param binder       the binder for the column types
+     * @param values       the new values, one per column
+     * @return true if the record was updated successfully, false otherwise
+     * @throws RuntimeException if an SQL exception occurs during the update
+     */
+    public static boolean updateById(Connection connection, String table, String idColumnName, int id, String[] columns, ParameterBinder binder, RowBuffer values) {
+        StatementCache.Key key = new StatementCache.Key("UPDATE_BY_ID", table, idColumnName, String.join(",", columns));
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> buildUpdateByIdQuery(table, idColumnName, columns))) {
+            PreparedStatement statement = cached.statement();
+            binder.bind(statement, values, 1);
+            statement.setInt(columns.length + 1, id);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            Logger logger = LogManager.getLogger(SQLinteractions.class);
+            logger.error("An error occurred while updating " + table, e);
             throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(table);
         }
     }
 
     public static ArrayList<String[]> searchByField(Connection connection, String table, String field, String value) {
-        String sql = "SELECT * FROM " + table + " WHERE " + field + " = ?";
         ArrayList<String[]> out = new ArrayList<>();
+        StatementCache.Key key = new StatementCache.Key("SEARCH", table, field);
 
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> "SELECT * FROM " + table + " WHERE " + field + " = ?")) {
+            PreparedStatement pstmt = cached.statement();
             pstmt.setString(1, value);
 
             try (ResultSet rs = pstmt.executeQuery()) {
+                int columnCount = rs.getMetaData().getColumnCount();
                 while (rs.next()) {
-                    int columnCount = rs.getMetaData().getColumnCount();
                     String[] row = new String[columnCount];
                     for (int i = 0; i < columnCount; i++) {
                         row[i] = rs.getString(i + 1);
@@ -291,40 +536,24 @@ public class SQLinteractions {
 
     public static ArrayList<String[]> searchByMultipleFieldAND(Connection connection, String table, String[] field, String[] values,String[] types) {
         ArrayList<String[]> out = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT * FROM " + table + " WHERE ");
         if (field.length != values.length) {
             throw new IllegalArgumentException("The number of fields and values must be the same.");
         }
-        for (int i = 0; i < field.length; i++) {
-            sql.append(field[i]).append(" = ?");
-            if (i < field.length - 1) {
-                sql.append(" AND ");
-            }
-        }
-        try (PreparedStatement pstmt = connection.prepareStatement(sql.toString())) {
-            for (int i = 0; i < values.length; i++) {
-                String type = types[i];
-                switch (type) {
-                    case "INT":
-                        pstmt.setInt(i + 1, Integer.parseInt(values[i]));
-                        break;
-                    case "FLOAT":
-                        pstmt.setFloat(i + 1, Float.parseFloat(values[i]));
-                        break;
-                    case "DOUBLE":
-                        pstmt.setDouble(i + 1, Double.parseDouble(values[i]));
-                        break;
-                    default:
-                        pstmt.setString(i + 1, values[i]);
-                        break;
-                }
-            }
+        StatementCache.Key key = new StatementCache.Key("SEARCH_AND", table, field);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> buildSearchQuery(table, field, " AND "))) {
+            PreparedStatement pstmt = cached.statement();
+            ParameterBinder.forTypes(types).bindStrings(pstmt, values, 1);
             try (ResultSet rs = pstmt.executeQuery()) {
+                ResultSetMetaData metaData = rs.getMetaData();
+                int columnCount = metaData.getColumnCount();
+                int[] columnTypes = new int[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    columnTypes[i] = metaData.getColumnType(i + 1);
+                }
                 while (rs.next()) {
-                    int columnCount = rs.getMetaData().getColumnCount();
                     String[] row = new String[columnCount];
                     for (int i = 0; i < columnCount; i++) {
-                        switch (rs.getMetaData().getColumnType(i + 1)) {
+                        switch (columnTypes[i]) {
                             case Types.FLOAT:
                                 row[i] = String.valueOf(rs.getFloat(i + 1));
                                 break;
@@ -350,9 +579,8 @@ public class SQLinteractions {
                                 row[i] = rs.getString(i + 1);
                                 break;
                         }
-                        out.add(row);
                     }
-
+                    out.add(row);
                 }
                 return out;
             }
@@ -362,46 +590,39 @@ public class SQLinteractions {
 
     }
 
+    /**
+     * Searches for the rows matching any of the field/value pairs.
+     *
+     * <p>Repeated conditions on one field are sent as an {@code IN} list, and when every field is indexed the
+     * search runs as a {@code UNION ALL} of index lookups instead of a scan; see {@link DisjunctionRewriter}.
+     * Each matching row is returned once, in no particular order.</p>
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param field      the columns to filter on; a column may be repeated
+     * @param types      the data types of the values ("INT", "FLOAT", "DOUBLE" or any other for strings)
+     * @param values     the values to look for, one per field
+     * @return the matching rows
+     */
     public static ArrayList<String[]> searchByMultipleFieldOR(Connection connection, String table, String[] field,String[] types, String[] values)  {
         ArrayList<String[]> out = new ArrayList<>();
-        StringBuilder sql = new StringBuilder("SELECT * FROM " + table + " WHERE ");
         if (field.length != values.length) {
             throw new IllegalArgumentException("The number of fields and values must be the same.");
         }
-        for (int i = 0; i < field.length; i++) {
-            sql.append(field[i]).append(" = ?");
-            if (i < field.length - 1) {
-                sql.append(" OR ");
-            }
-        }
-        PreparedStatement pstmt= null;
-        try {
-            pstmt = connection.prepareStatement(sql.toString());
-            for(int i=0;i<values.length;i++){
-                switch (types[i]){
-                case "INT":
-                    pstmt.setInt(i+1,Integer.parseInt(values[i]));
-                    break;
-                case "FLOAT":
-                    pstmt.setFloat(i+1,Float.parseFloat(values[i]));
-                    break;
-                case "DOUBLE":
-                    pstmt.setDouble(i+1,Double.parseDouble(values[i]));
-                    break;
-                default:
-                    pstmt.setString(i+1,values[i]);
-                    break;
-                }
-
-            }
-                        ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
+        DisjunctionRewriter.Rewritten query = DisjunctionRewriter.rewrite(connection, table, field);
+        StatementCache.Key key = new StatementCache.Key(query.union() ? "SEARCH_OR_UNION" : "SEARCH_OR", table, field);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, query::sql)) {
+            PreparedStatement pstmt = cached.statement();
+            ParameterBinder.forTypes(types).bindStrings(pstmt, values, query.parameterOrder(), 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
                 int columnCount = rs.getMetaData().getColumnCount();
-                String[] row = new String[columnCount];
-                for (int i = 0; i < columnCount; i++) {
-                    row[i] = rs.getString(i + 1);
+                while (rs.next()) {
+                    String[] row = new String[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = rs.getString(i + 1);
+                    }
+                    out.add(row);
                 }
-                out.add(row);
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -409,6 +630,105 @@ public class SQLinteractions {
         return out;
     }
 
+    /**
+     * Opens a cursor over the rows whose field equals the given value. Rows are fetched lazily as the cursor
+     * is consumed, so the result never has to fit in memory.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param field      the column to filter on
+     * @param value      the value to look for
+     * @param fetchSize  the number of rows the driver fetches per round trip, or {@link ResultCursor#STREAMING}
+     * @return an open cursor; close it if it is not read to the end
+     */
+    public static ResultCursor cursorByField(Connection connection, String table, String field, String value, int fetchSize) {
+        String sql = "SELECT * FROM " + table + " WHERE " + field + " = ?";
+        return openCursor(connection, sql, fetchSize, pstmt -> pstmt.setString(1, value));
+    }
+
+    /**
+     * Opens a cursor over the rows matching every field/value pair.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param field      the columns to filter on
+     * @param values     the values to look for, one per field
+     * @param types      the data types of the values ("INT", "FLOAT", "DOUBLE" or any other for strings)
+     * @param fetchSize  the number of rows the driver fetches per round trip, or {@link ResultCursor#STREAMING}
+     * @return an open cursor; close it if it is not read to the end
+     */
+    public static ResultCursor cursorByMultipleFieldAND(Connection connection, String table, String[] field, String[] values, String[] types, int fetchSize) {
+        if (field.length != values.length) {
+            throw new IllegalArgumentException("The number of fields and values must be the same.");
+        }
+        return openCursor(connection, buildSearchQuery(table, field, " AND "), fetchSize, pstmt -> ParameterBinder.forTypes(types).bindStrings(pstmt, values, 1));
+    }
+
+    /**
+     * Opens a cursor over the rows matching any of the field/value pairs.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param field      the columns to filter on
+     * @param types      the data types of the values ("INT", "FLOAT", "DOUBLE" or any other for strings)
+     * @param values     the values to look for, one per field
+     * @param fetchSize  the number of rows the driver fetches per round trip, or {@link ResultCursor#STREAMING}
+     * @return an open cursor; close it if it is not read to the end
+     */
+    public static ResultCursor cursorByMultipleFieldOR(Connection connection, String table, String[] field, String[] types, String[] values, int fetchSize) {
+        if (field.length != values.length) {
+            throw new IllegalArgumentException("The number of fields and values must be the same.");
+        }
+        DisjunctionRewriter.Rewritten query = DisjunctionRewriter.rewrite(connection, table, field);
+        return openCursor(connection, query.sql(), fetchSize,
+                pstmt -> ParameterBinder.forTypes(types).bindStrings(pstmt, values, query.parameterOrder(), 1));
+    }
+
+    /**
+     * Opens a cursor over the rows whose column equals the given value, ignoring case.
+     *
+     * @param connection  the database connection
+     * @param tableName   the name of the table
+     * @param columnName  the column to filter on
+     * @param searchValue the value to look for
+     * @param fetchSize   the number of rows the driver fetches per round trip, or {@link ResultCursor#STREAMING}
+     * @return an open cursor; close it if it is not read to the end
+     */
+    public static ResultCursor cursorIgnoreCase(Connection connection, String tableName, String columnName, String searchValue, int fetchSize) {
+        String sql = "SELECT * FROM " + tableName + " WHERE "
+                + SQLDialects.forConnection(connection).caseInsensitiveEquals(connection, tableName, columnName);
+        return openCursor(connection, sql, fetchSize, pstmt -> pstmt.setString(1, searchValue));
+    }
+
+    /**
+     * Opens a cursor over the rows whose key lies in {@code [from, to]}, in key order.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param keyColumn  the integer key column to range over, typically the primary key
+     * @param from       the lowest key, inclusive
+     * @param to         the highest key, inclusive
+     * @param fetchSize  the number of rows the driver fetches per round trip, or {@link ResultCursor#STREAMING}
+     * @return an open cursor; close it if it is not read to the end
+     */
+    public static ResultCursor cursorByKeyRange(Connection connection, String table, String keyColumn, long from, long to, int fetchSize) {
+        String sql = "SELECT * FROM " + table + " WHERE " + keyColumn + " >= ? AND " + keyColumn + " <= ? ORDER BY " + keyColumn;
+        return openCursor(connection, sql, fetchSize, pstmt -> {
+            pstmt.setLong(1, from);
+            pstmt.setLong(2, to);
+        });
+    }
+
+    private static ResultCursor openCursor(Connection connection, String sql, int fetchSize, ResultCursor.ParameterSetter parameters) {
+        try {
+            return ResultCursor.open(connection, sql, fetchSize, parameters);
+        } catch (SQLException e) {
+            Logger logger = LogManager.getLogger(SQLinteractions.class);
+            logger.error("An error occurred while searching", e);
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * Creates a new table in the database with the specified name and columns.
      *
@@ -428,7 +748,7 @@ public class SQLinteractions {
         queryBuilder.append(nombreTabla).append(" (");
 
         // Añadir columna ID_[nombreTabla] como PRIMARY KEY
-        queryBuilder.append("ID_").append(nombreTabla).append(" INT AUTO_INCREMENT PRIMARY KEY");
+        queryBuilder.append(SQLDialects.forConnection(connection).autoIncrementPrimaryKey("ID_" + nombreTabla));
 
         // Agregar las columnas proporcionadas
         for (int i = 0; i < columnas.length; i++) {
@@ -439,84 +759,88 @@ public class SQLinteractions {
 
         String query = queryBuilder.toString();
 
-        try (Statement stmt = connection.createStatement()) {
+        try (Statement stmt = StatementTracker.track(connection.createStatement())) {
             // Ejecutar la consulta para crear la tabla
             stmt.executeUpdate(query);
             return true; // Devolver true si la tabla se creó con éxito
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } finally {
+            TableWriteNotifier.tableWritten(nombreTabla);
         }
     }
 
+    /**
+     * Searches for the rows whose column equals the given value, ignoring case.
+     *
+     * <p>The comparison is written by the connection's dialect so that it can use an index: a plain
+     * {@code =} under MySQL's case-insensitive collations, {@code LOWER(column) = LOWER(?)} where an expression
+     * index on {@code LOWER(column)} can answer it, and an indexed shadow column on H2. Run
+     * {@link #createCaseInsensitiveIndex(Connection, String, String)} once to create that index; without it
+     * the search is a full scan.</p>
+     *
+     * @param connection  the database connection
+     * @param tableName   the name of the table
+     * @param columnName  the column to filter on
+     * @param searchValue the value to look for
+     * @return the matching rows
+     * @throws RuntimeException if the query fails
+     */
     public static ArrayList<String[]> searchIgnoreCase(Connection connection, String tableName, String columnName, String searchValue) {
-        try {
+        StatementCache.Key key = new StatementCache.Key("SEARCH_IGNORE_CASE", tableName, columnName);
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key,
+                () -> "SELECT * FROM " + tableName + " WHERE " + SQLDialects.forConnection(connection).caseInsensitiveEquals(connection, tableName, columnName))) {
             ArrayList<String[]> out = new ArrayList<>();
-            // Crear la consulta SQL para buscar el valor ignorando mayúsculas/minúsculas
-            String sql = "SELECT * FROM " + tableName + " WHERE LOWER(" + columnName + ") = LOWER(?)";
-
-            // Crear una declaración preparada
-            PreparedStatement statement = connection.prepareStatement(sql);
+            PreparedStatement statement = cached.statement();
 
             // Establecer el valor a buscar en la declaración preparada
             statement.setString(1, searchValue);
 
-            // Ejecutar la consulta
-            ResultSet resultSet = statement.executeQuery();
-
-            // Mostrar resultados
-            int columnCount = resultSet.getMetaData().getColumnCount();
-            while (resultSet.next()) {
-                // Aquí puedes procesar los resultados como desees
-                // Por ejemplo, puedes imprimirlos en la consola
-                String[] row = new String[columnCount];
-                for (int i = 0; i < columnCount; i++) {
-                    row[i] = resultSet.getString(i + 1);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                int columnCount = resultSet.getMetaData().getColumnCount();
+                while (resultSet.next()) {
+                    String[] row = new String[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        row[i] = resultSet.getString(i + 1);
+                    }
+                    out.add(row);
                 }
-                out.add(row);
-                System.out.println("Resultado encontrado: " + resultSet.getString(columnName));
             }
-
-            // Cerrar recursos
-            resultSet.close();
-            statement.close();
             return out;
         } catch (SQLException e) {
             Logger logger = LogManager.getLogger(SQLinteractions.class);
             logger.error("An error occurred while searching", e);
-            return null;
+            throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Searches for the rows matching every column/value pair, ignoring case on the text columns.
+     *
+     * <p>Text columns ({@code VARCHAR}, {@code CHAR}, {@code TEXT}...) are compared like in
+     * {@link #searchIgnoreCase(Connection, String, String, String)}; the other columns are compared with
+     * {@code =}.</p>
+     *
+     * @param connection   the database connection
+     * @param tableName    the name of the table
+     * @param columnNames  the columns to filter on
+     * @param searchValues the values to look for, one per column
+     * @param columnTypes  the data types of the columns
+     * @return the values of {@code columnNames} for every matching row
+     */
     public static ArrayList<String[]> searchIgnoreCaseMultipleFields(Connection connection, String tableName, String[] columnNames, String[] searchValues, String[] columnTypes) {
         ArrayList<String[]> out = new ArrayList<>();
         if (columnNames.length != searchValues.length || columnNames.length != columnTypes.length) {
             throw new IllegalArgumentException("The number of column names, search values, and column types must be equal.");
         }
 
-        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(tableName).append(" WHERE ");
-
-        for (int i = 0; i < columnNames.length; i++) {
-            if (i > 0) {
-                sql.append(" AND ");
-            }
-
-            String columnType = columnTypes[i];
-            String searchValue = searchValues[i];
-            String wildcard = "";
-
-            if ("VARCHAR".equalsIgnoreCase(columnType) || "CHAR".equalsIgnoreCase(columnType)) {
-                wildcard = "%";
-            }
-
-            sql.append(columnNames[i]).append(" LIKE ").append("LOWER(?)");
-
-            if (!wildcard.isEmpty()) {
-                sql.append(wildcard);
-            }
-        }
-
-        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+        StatementCache.Key key = new StatementCache.Key("SEARCH_IGNORE_CASE_MULTIPLE", tableName,
+                String.join(",", columnNames), String.join(",", columnTypes));
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key,
+                () -> buildIgnoreCaseMultipleFieldsQuery(connection, tableName, columnNames, columnTypes))) {
+            PreparedStatement statement = cached.statement();
             for (int i = 0; i < searchValues.length; i++) {
-                statement.setString(i + 1, searchValues[i].toLowerCase());
+                statement.setString(i + 1, searchValues[i]);
             }
 
             try (ResultSet resultSet = statement.executeQuery()) {
@@ -529,8 +853,323 @@ public class SQLinteractions {
                 }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            Logger logger = LogManager.getLogger(SQLinteractions.class);
+            logger.error("An error occurred while searching", e);
+            throw new RuntimeException(e);
         }
         return out;
     }
-}
\ No newline at end of file
+
+    /**
+     * Indexes a column for {@link #searchIgnoreCase(Connection, String, String, String)} and the other
+     * case-insensitive searches, with the statements of the connection's dialect.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param column     the column searched ignoring case
+     * @return true if the index was created, false if the database cannot index case-insensitive lookups
+     * @throws RuntimeException if a statement fails, for example because the index already exists
+     */
+    public static boolean createCaseInsensitiveIndex(Connection connection, String table, String column) {
+        List<String> ddl = SQLDialects.forConnection(connection).caseInsensitiveIndex(table, column);
+        if (ddl.isEmpty()) {
+            return false;
+        }
+        try (Statement statement = StatementTracker.track(connection.createStatement())) {
+            for (String sql : ddl) {
+                statement.executeUpdate(sql);
+            }
+        } catch (SQLException e) {
+            Logger logger = LogManager.getLogger(SQLinteractions.class);
+            logger.error("An error occurred while indexing " + table + "." + column, e);
+            throw new RuntimeException(e);
+        }
+        // Las sentencias ya preparadas seguirían comparando sin el índice
+        StatementCache.evict(connection);
+        return true;
+    }
+
+    /**
+     * Binds the parameters of one row of a batch.
+     */
+    @FunctionalInterface
+    interface RowBinder {
+        /**
+         * @return false if there is no row with that index, which ends the batch
+         */
+        boolean bind(PreparedStatement statement, int row) throws SQLException;
+    }
+
+    /**
+     * Runs a prepared statement over the rows supplied by {@code binder} in chunks of {@code batchSize}, each
+     * chunk in its own transaction. Failed chunks are rolled back and reported instead of aborting the whole run;
+     * a row whose values cannot be converted fails its chunk before anything is sent.
+     */
+    static BatchResult executeBatchInChunks(Connection connection, String sql, int batchSize, RowBinder binder) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The batch size must be at least 1.");
+        }
+        BatchResult result = new BatchResult();
+        Logger logger = LogManager.getLogger(SQLinteractions.class);
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement pstmt = StatementTracker.track(connection.prepareStatement(sql))) {
+                int row = 0;
+                boolean more = true;
+                while (more) {
+                    int size = 0;
+                    int first = row;
+                    int unbound = -1;
+                    while (size < batchSize) {
+                        try {
+                            if (!binder.bind(pstmt, row)) {
+                                more = false;
+                                break;
+                            }
+                            if (unbound < 0) {
+                                pstmt.addBatch();
+                            }
+                        } catch (IllegalArgumentException e) {
+                            // A value that cannot be converted to its column type; the rest of the chunk is still
+                            // read so the next chunk starts where it would have
+                            if (unbound < 0) {
+                                logger.error("Row " + row + " could not be bound, skipping the chunk starting at row " + first, e);
+                                unbound = row;
+                            }
+                        }
+                        size++;
+                        row++;
+                    }
+                    if (size == 0) {
+                        break;
+                    }
+                    if (unbound >= 0) {
+                        // Nothing of this chunk has reached the database yet
+                        pstmt.clearBatch();
+                        result.addFailedRow(unbound);
+                        result.addChunk(new BatchResult.ChunkResult(first, size, new int[0], false));
+                        continue;
+                    }
+                    try {
+                        int[] counts = pstmt.executeBatch();
+                        connection.commit();
+                        result.addChunk(new BatchResult.ChunkResult(first, size, counts, true));
+                    } catch (BatchUpdateException e) {
+                        logger.error("Batch chunk starting at row " + first + " failed and was rolled back", e);
+                        connection.rollback();
+                        pstmt.clearBatch();
+                        int[] counts = e.getUpdateCounts() == null ? new int[0] : e.getUpdateCounts();
+                        for (int i = 0; i < counts.length && i < size; i++) {
+                            if (counts[i] == Statement.EXECUTE_FAILED) {
+                                result.addFailedRow(first + i);
+                            }
+                        }
+                        // Drivers that stop at the first error report fewer counts than rows; the next row is the culprit
+                        if (counts.length < size) {
+                            result.addFailedRow(first + counts.length);
+                        }
+                        result.addChunk(new BatchResult.ChunkResult(first, size, counts, false));
+                    } catch (SQLException e) {
+                        logger.error("Batch chunk starting at row " + first + " failed and was rolled back", e);
+                        connection.rollback();
+                        pstmt.clearBatch();
+                        for (int i = 0; i < size; i++) {
+                            result.addFailedRow(first + i);
+                        }
+                        result.addChunk(new BatchResult.ChunkResult(first, size, new int[0], false));
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("An error occurred while executing a batch", e);
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Work run by {@link #inTransaction(Connection, TransactionWork)}.
+     */
+    @FunctionalInterface
+    interface TransactionWork<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Binds the IDs {@code ids[from..to)} (and any other parameters) of one {@code IN (...)} chunk.
+     */
+    @FunctionalInterface
+    interface ChunkBinder {
+        void bind(PreparedStatement statement, int from, int to) throws SQLException;
+    }
+
+    /**
+     * Runs {@code work} in a single transaction, rolling back if it fails and restoring the auto-commit mode.
+     *
+     * <p>If the connection is not in auto-commit mode, the caller already has a transaction open: the work
+     * joins it and is neither committed nor rolled back here, so the caller's own work is left alone.</p>
+     */
+    static <T> T inTransaction(Connection connection, TransactionWork<T> work) {
+        Logger logger = LogManager.getLogger(SQLinteractions.class);
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            if (!autoCommit) {
+                // Transacción del llamador: la confirma o la deshace él
+                try {
+                    return work.run();
+                } catch (SQLException e) {
+                    logger.error("An error occurred in the caller's transaction, not rolled back", e);
+                    throw new RuntimeException(e);
+                }
+            }
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run();
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.error("An error occurred in a transaction, rolled back", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes {@code prefix + "?, ?, ...)"} once per chunk of {@code ids}. Full-size chunks share one statement.
+     */
+    private static int[] executeInChunks(Connection connection, String prefix, int[] ids, int chunkSize, ChunkBinder binder) throws SQLException {
+        int[] affected = new int[(ids.length + chunkSize - 1) / chunkSize];
+        PreparedStatement full = null;
+        try {
+            for (int chunk = 0; chunk < affected.length; chunk++) {
+                int from = chunk * chunkSize;
+                int to = Math.min(from + chunkSize, ids.length);
+                if (to - from == chunkSize) {
+                    if (full == null) {
+                        full = StatementTracker.track(connection.prepareStatement(prefix + placeholders(chunkSize) + ")"));
+                    }
+                    binder.bind(full, from, to);
+                    affected[chunk] = full.executeUpdate();
+                } else {
+                    try (PreparedStatement last = StatementTracker.track(connection.prepareStatement(prefix + placeholders(to - from) + ")"))) {
+                        binder.bind(last, from, to);
+                        affected[chunk] = last.executeUpdate();
+                    }
+                }
+            }
+        } finally {
+            if (full != null) {
+                full.close();
+            }
+        }
+        return affected;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sql = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.toString();
+    }
+
+    private static void checkChunkSize(Connection connection, int chunkSize, int otherParameters) {
+        int maxParameters = SQLDialects.forConnection(connection).getMaxParameters();
+        if (chunkSize < 1 || (long) chunkSize + otherParameters > maxParameters) {
+            throw new IllegalArgumentException("The chunk size must be between 1 and " + (maxParameters - otherParameters) + ".");
+        }
+    }
+
+    private static void checkUpsertColumns(String[] keyColumns, String[] columns) {
+        if (keyColumns.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required.");
+        }
+        for (String keyColumn : keyColumns) {
+            if (!Arrays.asList(columns).contains(keyColumn)) {
+                throw new IllegalArgumentException("Key column " + keyColumn + " must be one of the inserted columns.");
+            }
+        }
+    }
+
+    /**
+     * Builds the upsert statement for the database behind the connection. Parameters are always the values of
+     * {@code columns}, in order.
+     */
+    private static String buildUpsertQuery(Connection connection, String table, String[] keyColumns, String[] columns) {
+        return SQLDialects.forConnection(connection).upsert(table, keyColumns, columns);
+    }
+
+    private static String buildInsertQuery(String table, String[] columns) {
+        StringBuilder queryBuilder = new StringBuilder("INSERT INTO ");
+        queryBuilder.append(table).append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            queryBuilder.append(columns[i]);
+            if (i < columns.length - 1) {
+                queryBuilder.append(", ");
+            }
+        }
+        queryBuilder.append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            queryBuilder.append("?");
+            if (i < columns.length - 1) {
+                queryBuilder.append(", ");
+            }
+        }
+        queryBuilder.append(")");
+        return queryBuilder.toString();
+    }
+
+    private static String buildUpdateByIdQuery(String table, String idColumnName, String[] columns) {
+        StringBuilder sql = new StringBuilder("UPDATE " + table + " SET ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(columns[i]).append(" = ?");
+            if (i < columns.length - 1) {
+                sql.append(", ");
+            }
+        }
+        sql.append(" WHERE ").append(idColumnName).append(" = ?");
+        return sql.toString();
+    }
+
+    private static String buildSearchQuery(String table, String[] fields, String connector) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM " + table + " WHERE ");
+        for (int i = 0; i < fields.length; i++) {
+            sql.append(fields[i]).append(" = ?");
+            if (i < fields.length - 1) {
+                sql.append(connector);
+            }
+        }
+        return sql.toString();
+    }
+
+    private static String buildIgnoreCaseMultipleFieldsQuery(Connection connection, String tableName, String[] columnNames, String[] columnTypes) {
+        SQLDialect dialect = SQLDialects.forConnection(connection);
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(tableName).append(" WHERE ");
+
+        for (int i = 0; i < columnNames.length; i++) {
+            if (i > 0) {
+                sql.append(" AND ");
+            }
+            if (isTextType(columnTypes[i])) {
+                sql.append(dialect.caseInsensitiveEquals(connection, tableName, columnNames[i]));
+            } else {
+                sql.append(columnNames[i]).append(" = ?");
+            }
+        }
+        return sql.toString();
+    }
+
+    private static boolean isTextType(String type) {
+        String upper = type.toUpperCase();
+        return upper.contains("CHAR") || upper.contains("TEXT") || upper.contains("CLOB");
+    }
+
+}
@@ -0,0 +1,334 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-connection cache of the prepared statements generated by {@link SQLinteractions}.
+ *
+ * <p>Statements are keyed by (connection, operation, table, column shape), so the SQL text is built and
+ * prepared only the first time a shape is seen on a connection. Each connection keeps at most
+ * {@link #getMaxStatementsPerConnection()} statements; the least recently used one is closed when the
+ * limit is exceeded.</p>
+ *
+ * <p>Every connection's statements stay cached until the connection is evicted. {@link #evict(Connection)} is
+ * called by {@code ConnectionPool} when it closes a physical connection and by
+ * {@code GenericDBConnector.cerrarConexion()}. Other connections, such as those from {@code DriverManager},
+ * do not need to be evicted: whenever a connection is seen for the first time, the cache drops the entries of
+ * the connections that have been closed since. A pool marks its connections with {@link #manage(Connection)},
+ * because a pooled connection reports itself closed while it sits idle in the pool.</p>
+ *
+ * <p>A cached statement is checked out while it is in use. If two threads share a connection and ask for
+ * the same shape at once, the second one gets a fresh, uncached statement instead of the busy one.</p>
+ *
+ * <pre>{@code
+ * try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, key, () -> sql)) {
+ *     PreparedStatement pstmt = cached.statement();
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class StatementCache {
+
+    private static final Logger logger = LogManager.getLogger(StatementCache.class);
+
+    private static final Map<Connection, ConnectionStatements> caches = new IdentityHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+
+    private static volatile int maxStatementsPerConnection = 64;
+    private static volatile boolean enabled = true;
+
+    private StatementCache() {
+    }
+
+    /**
+     * Identifies the shape of a generated statement.
+     */
+    public static final class Key {
+        private final String operation;
+        private final String table;
+        private final String[] shape;
+        private final int hash;
+
+        /**
+         * @param operation the kind of statement, e.g. "INSERT" or "SEARCH_AND"
+         * @param table     the table the statement targets
+         * @param shape     the column names (and anything else) the SQL text depends on
+         */
+        public Key(String operation, String table, String... shape) {
+            this.operation = operation;
+            this.table = table;
+            // Copied because callers are free to reuse their column arrays
+            this.shape = shape.clone();
+            this.hash = 31 * (31 * operation.hashCode() + table.hashCode()) + Arrays.hashCode(shape);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return hash == other.hash && operation.equals(other.operation) && table.equals(other.table)
+                    && Arrays.equals(shape, other.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return operation + " " + table + " " + Arrays.toString(shape);
+        }
+    }
+
+    /**
+     * Cache counters.
+     *
+     * @param hits      the number of acquisitions served from the cache
+     * @param misses    the number of acquisitions that had to prepare a statement
+     * @param evictions the number of statements closed to respect the size limit
+     */
+    public record Statistics(long hits, long misses, long evictions) {
+
+        /**
+         * @return the fraction of acquisitions served from the cache
+         */
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * A statement on loan from the cache. Closing it returns the statement to the cache, or closes it
+     * if it was not cached.
+     */
+    public static final class CachedStatement implements AutoCloseable {
+        private final ConnectionStatements owner;
+        private final Key key;
+        private final PreparedStatement statement;
+
+        private CachedStatement(ConnectionStatements owner, Key key, PreparedStatement statement) {
+            this.owner = owner;
+            this.key = key;
+            this.statement = statement;
+        }
+
+        public PreparedStatement statement() {
+            return statement;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (owner == null) {
+                statement.close();
+            } else {
+                owner.giveBack(key, statement);
+            }
+        }
+    }
+
+    /**
+     * Borrows the statement for the given shape, preparing it if it is not cached yet.
+     *
+     * @param connection the database connection
+     * @param key        the statement shape
+     * @param sql        builds the SQL text; only called on a miss
+     * @return the statement on loan; close it to give it back
+     * @throws SQLException if the statement cannot be prepared
+     */
+    public static CachedStatement acquire(Connection connection, Key key, Supplier<String> sql) throws SQLException {
+        if (!enabled) {
+            misses.increment();
+            return new CachedStatement(null, key, StatementTracker.track(connection.prepareStatement(sql.get())));
+        }
+        ConnectionStatements statements = statementsOf(connection, false);
+        PreparedStatement cached = statements.take(key);
+        if (cached != null) {
+            hits.increment();
+            return new CachedStatement(statements, key, StatementTracker.track(cached));
+        }
+        misses.increment();
+        return new CachedStatement(statements, key, StatementTracker.track(connection.prepareStatement(sql.get())));
+    }
+
+    /**
+     * Closes and forgets every statement cached for a connection, and what was learnt about its indexes. Call
+     * it before closing a connection marked with {@link #manage(Connection)}, and after changing the indexes of
+     * a table so the next statements are planned for them.
+     *
+     * @param connection the connection whose statements should be released
+     */
+    public static void evict(Connection connection) {
+        DisjunctionRewriter.forget(connection);
+        SQLDialects.forget(connection);
+        ConnectionStatements statements;
+        synchronized (caches) {
+            statements = caches.remove(connection);
+        }
+        if (statements != null) {
+            statements.closeAll();
+        }
+    }
+
+    /**
+     * Marks a connection whose owner evicts it explicitly. The cache then never drops its statements because
+     * {@link Connection#isClosed()} returns true, which lets a pool hand out a handle that reports itself closed
+     * while it is idle.
+     *
+     * @param connection the connection; its owner must call {@link #evict(Connection)} before closing it
+     */
+    public static void manage(Connection connection) {
+        statementsOf(connection, true);
+    }
+
+    /**
+     * @return whether the cache holds an entry for a connection
+     */
+    static boolean isCached(Connection connection) {
+        synchronized (caches) {
+            return caches.containsKey(connection);
+        }
+    }
+
+    private static ConnectionStatements statementsOf(Connection connection, boolean manage) {
+        List<Map.Entry<Connection, ConnectionStatements>> closed = new ArrayList<>();
+        ConnectionStatements statements;
+        synchronized (caches) {
+            statements = caches.get(connection);
+            if (statements == null) {
+                // Una conexión nueva: se aprovecha para soltar las que ya se han cerrado
+                Iterator<Map.Entry<Connection, ConnectionStatements>> entries = caches.entrySet().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<Connection, ConnectionStatements> entry = entries.next();
+                    if (!entry.getValue().managed && isClosed(entry.getKey())) {
+                        closed.add(Map.entry(entry.getKey(), entry.getValue()));
+                        entries.remove();
+                    }
+                }
+                statements = new ConnectionStatements();
+                caches.put(connection, statements);
+            }
+            statements.managed |= manage;
+        }
+        for (Map.Entry<Connection, ConnectionStatements> entry : closed) {
+            DisjunctionRewriter.forget(entry.getKey());
+            entry.getValue().closeAll();
+        }
+        return statements;
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    public static Statistics getStatistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    public static int getMaxStatementsPerConnection() {
+        return maxStatementsPerConnection;
+    }
+
+    public static void setMaxStatementsPerConnection(int maxStatementsPerConnection) {
+        if (maxStatementsPerConnection < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one statement per connection.");
+        }
+        StatementCache.maxStatementsPerConnection = maxStatementsPerConnection;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns caching on or off. Statements already cached stay open until their connection is evicted.
+     */
+    public static void setEnabled(boolean enabled) {
+        StatementCache.enabled = enabled;
+    }
+
+    /**
+     * LRU of the idle statements of one connection. Statements on loan are not in the map.
+     */
+    private static final class ConnectionStatements {
+        private final LinkedHashMap<Key, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+        private boolean managed;
+
+        private synchronized PreparedStatement take(Key key) throws SQLException {
+            PreparedStatement statement = idle.remove(key);
+            if (statement != null && statement.isClosed()) {
+                return null;
+            }
+            return statement;
+        }
+
+        private void giveBack(Key key, PreparedStatement statement) throws SQLException {
+            if (statement.isClosed()) {
+                return;
+            }
+            statement.clearParameters();
+            PreparedStatement displaced;
+            PreparedStatement eldest = null;
+            synchronized (this) {
+                displaced = idle.put(key, statement);
+                if (idle.size() > maxStatementsPerConnection) {
+                    Map.Entry<Key, PreparedStatement> entry = idle.entrySet().iterator().next();
+                    eldest = entry.getValue();
+                    idle.remove(entry.getKey());
+                }
+            }
+            // Another loan of the same shape came back first; keep one of them only
+            closeQuietly(displaced);
+            if (eldest != null) {
+                evictions.increment();
+                closeQuietly(eldest);
+            }
+        }
+
+        private void closeAll() {
+            synchronized (this) {
+                for (PreparedStatement statement : idle.values()) {
+                    closeQuietly(statement);
+                }
+                idle.clear();
+            }
+        }
+
+        private static void closeQuietly(PreparedStatement statement) {
+            if (statement == null) {
+                return;
+            }
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                logger.warn("Error closing cached statement", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Wrapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Records how long statements take, grouped by the shape of their SQL.
+ *
+ * <p>Wrap a connection with {@link #instrument(Connection)} and every statement prepared or executed through
+ * it is measured: prepare time, execute time (for queries, including the time spent in
+ * {@code ResultSet.next()}), rows returned or affected, and failures. The wrapped connection can be passed to
+ * every method in {@link SQLinteractions}; statements cached by {@link StatementCache} on it stay
+ * instrumented. {@code ConnectionPool} can hand out instrumented connections directly, and reports the time
+ * every borrower waited for a connection to {@link #recordConnectionWait(long)}.</p>
+ *
+ * <p>Statements are grouped by shape: the SQL with literals replaced by {@code ?} and {@code IN (?, ?, ...)}
+ * lists and multi-row {@code VALUES} collapsed, so the same query with a different number of IDs counts as
+ * one. Statements whose execute time reaches the slow-query threshold are logged at WARN to the
+ * {@value #SLOW_QUERY_LOGGER} logger, which can be routed to its own file in the log4j configuration.</p>
+ *
+ * <pre>{@code
+ * StatementMetrics.setSlowQueryThreshold(200, TimeUnit.MILLISECONDS);
+ * Connection connection = StatementMetrics.instrument(DriverManager.getConnection(url, user, pwd));
+ * ...
+ * for (StatementMetrics.ShapeStatistics shape : StatementMetrics.getStatistics()) {
+ *     System.out.println(shape.shape() + " p99=" + shape.execute().valueAtPercentile(99) + " ns");
+ * }
+ * }</pre>
+ *
+ * <p>A query whose result set is never closed nor read to the end is not recorded.</p>
+ */
+public final class StatementMetrics {
+
+    /**
+     * The name of the logger slow statements are written to.
+     */
+    public static final String SLOW_QUERY_LOGGER = "com.the_ultimate_toolbox.database.SlowQuery";
+
+    /**
+     * The shape statements are counted under once {@link #getMaxShapes()} distinct shapes have been seen.
+     */
+    public static final String OTHER_SHAPE = "(other)";
+
+    private static final Logger slowQueryLogger = LogManager.getLogger(SLOW_QUERY_LOGGER);
+
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:, \\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("\\((\\?(?:, \\.\\.\\.)?)\\)(?:, \\(\\1\\))+");
+
+    private static final ConcurrentHashMap<String, ShapeMetrics> shapes = new ConcurrentHashMap<>();
+    private static final LongHistogram connectionWait = new LongHistogram();
+
+    private static volatile long slowQueryThresholdNanos = TimeUnit.SECONDS.toNanos(1);
+    private static volatile int maxShapes = 1_000;
+
+    private StatementMetrics() {
+    }
+
+    /**
+     * The metrics of one statement shape.
+     *
+     * @param shape      the normalized SQL
+     * @param executions the number of times statements of this shape were executed
+     * @param errors     the number of prepares and executions that threw
+     * @param prepare    prepare times, in nanoseconds
+     * @param execute    execute times, in nanoseconds
+     * @param rows       rows returned by queries or affected by updates, per execution
+     */
+    public record ShapeStatistics(String shape, long executions, long errors, LongHistogram.Snapshot prepare,
+                                  LongHistogram.Snapshot execute, LongHistogram.Snapshot rows) {
+    }
+
+    private static final class ShapeMetrics {
+        private final String shape;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongHistogram prepare = new LongHistogram();
+        private final LongHistogram execute = new LongHistogram();
+        private final LongHistogram rows = new LongHistogram();
+
+        private ShapeMetrics(String shape) {
+            this.shape = shape;
+        }
+
+        private void recordExecution(long nanos, long rowCount) {
+            executions.increment();
+            execute.record(nanos);
+            rows.record(rowCount);
+            long threshold = slowQueryThresholdNanos;
+            if (threshold >= 0 && nanos >= threshold) {
+                slowQueryLogger.warn("Slow statement ({} ms, {} rows): {}",
+                        TimeUnit.NANOSECONDS.toMillis(nanos), rowCount, shape);
+            }
+        }
+
+        private void recordError(long nanos) {
+            errors.increment();
+            execute.record(nanos);
+        }
+
+        private void reset() {
+            executions.reset();
+            errors.reset();
+            prepare.reset();
+            execute.reset();
+            rows.reset();
+        }
+
+        private ShapeStatistics snapshot() {
+            return new ShapeStatistics(shape, executions.sum(), errors.sum(), prepare.snapshot(),
+                    execute.snapshot(), rows.snapshot());
+        }
+    }
+
+    /**
+     * Wraps a connection so every statement created through it is measured.
+     *
+     * @param connection the connection to instrument
+     * @return a connection that delegates to {@code connection}; closing it closes {@code connection}
+     */
+    public static Connection instrument(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass()) && Proxy.getInvocationHandler(connection) instanceof ConnectionHandler) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Records how long a borrower waited for a pooled connection.
+     *
+     * @param nanos the wait, in nanoseconds
+     */
+    public static void recordConnectionWait(long nanos) {
+        connectionWait.record(nanos);
+    }
+
+    /**
+     * @return the time borrowers waited for a pooled connection, in nanoseconds
+     */
+    public static LongHistogram.Snapshot getConnectionWait() {
+        return connectionWait.snapshot();
+    }
+
+    /**
+     * @return the metrics of every shape seen, the one with the highest total execute time first
+     */
+    public static List<ShapeStatistics> getStatistics() {
+        List<ShapeStatistics> out = new ArrayList<>(shapes.size());
+        for (ShapeMetrics metrics : shapes.values()) {
+            out.add(metrics.snapshot());
+        }
+        out.sort(Comparator.comparingLong((ShapeStatistics s) -> s.execute().sum()).reversed());
+        return out;
+    }
+
+    /**
+     * @param sql a statement, with or without literals
+     * @return the metrics of the shape of {@code sql}, or null if no statement of that shape was seen
+     */
+    public static ShapeStatistics getStatistics(String sql) {
+        ShapeMetrics metrics = shapes.get(normalize(sql));
+        return metrics == null ? null : metrics.snapshot();
+    }
+
+    /**
+     * Sets every metric back to zero. Shapes already seen stay registered, since open statements keep
+     * recording into them.
+     */
+    public static void reset() {
+        for (ShapeMetrics metrics : shapes.values()) {
+            metrics.reset();
+        }
+        connectionWait.reset();
+    }
+
+    /**
+     * Sets the execute time from which statements are written to the slow-query log. Defaults to one second;
+     * a negative value turns the log off.
+     */
+    public static void setSlowQueryThreshold(long threshold, TimeUnit unit) {
+        slowQueryThresholdNanos = threshold < 0 ? -1 : unit.toNanos(threshold);
+    }
+
+    /**
+     * @return the slow-query threshold in nanoseconds, or -1 if the slow-query log is off
+     */
+    public static long getSlowQueryThresholdNanos() {
+        return slowQueryThresholdNanos;
+    }
+
+    /**
+     * Sets how many distinct shapes are tracked before new ones are counted under {@link #OTHER_SHAPE}, so
+     * statements with literals that do not normalize cannot grow the registry without bound. Defaults to 1000.
+     */
+    public static void setMaxShapes(int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("The maximum number of shapes must be at least 1.");
+        }
+        maxShapes = max;
+    }
+
+    public static int getMaxShapes() {
+        return maxShapes;
+    }
+
+    /**
+     * Reduces a statement to its shape: whitespace collapsed, string and numeric literals replaced by
+     * {@code ?}, and lists of parameters and of parenthesized rows collapsed to their first element.
+     *
+     * @param sql the SQL text
+     * @return the shape of the statement
+     */
+    public static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    i++;
+                }
+                out.append('?');
+            } else if (c == '"' || c == '`') {
+                // Identificador entre comillas: se copia tal cual
+                int end = sql.indexOf(c, i + 1);
+                end = end < 0 ? length - 1 : end;
+                out.append(sql, i, end + 1);
+                i = end;
+            } else if (Character.isWhitespace(c)) {
+                if (out.length() > 0 && out.charAt(out.length() - 1) != ' ' && out.charAt(out.length() - 1) != '(') {
+                    out.append(' ');
+                }
+            } else if (c == ',') {
+                trimTrailingSpace(out);
+                out.append(", ");
+            } else if (c == ')') {
+                trimTrailingSpace(out);
+                out.append(c);
+            } else if (Character.isDigit(c) && (out.length() == 0 || !isIdentifierPart(out.charAt(out.length() - 1)))) {
+                while (i + 1 < length && (Character.isLetterOrDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+            }
+        }
+        trimTrailingSpace(out);
+        String shape = PARAMETER_LIST.matcher(out).replaceAll("?, ...");
+        return ROW_LIST.matcher(shape).replaceAll("($1), ...");
+    }
+
+    private static void trimTrailingSpace(StringBuilder out) {
+        if (out.length() > 0 && out.charAt(out.length() - 1) == ' ') {
+            out.setLength(out.length() - 1);
+        }
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static ShapeMetrics metricsFor(String sql) {
+        String shape = normalize(sql);
+        ShapeMetrics metrics = shapes.get(shape);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (shapes.size() >= maxShapes) {
+            shape = OTHER_SHAPE;
+        }
+        return shapes.computeIfAbsent(shape, ShapeMetrics::new);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Answers {@code equals}, {@code hashCode}, {@code toString} and the {@code Wrapper} methods for a proxy.
+     */
+    private static Object identity(Object proxy, Object target, Method method, Object[] args) throws SQLException {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "toString" -> "Instrumented[" + target + "]";
+            case "unwrap" -> ((Class<?>) args[0]).isInstance(target) ? target : ((Wrapper) target).unwrap((Class<?>) args[0]);
+            default -> ((Class<?>) args[0]).isInstance(target) || ((Wrapper) target).isWrapperFor((Class<?>) args[0]);
+        };
+    }
+
+    private static boolean isIdentityMethod(Method method) {
+        return switch (method.getName()) {
+            case "equals", "unwrap", "isWrapperFor" -> method.getParameterCount() == 1;
+            case "hashCode", "toString" -> method.getParameterCount() == 0;
+            default -> false;
+        };
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, target, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+                ShapeMetrics metrics = metricsFor((String) args[0]);
+                long start = System.nanoTime();
+                Object statement;
+                try {
+                    statement = invokeTarget(target, method, args);
+                } catch (Throwable e) {
+                    metrics.errors.increment();
+                    throw e;
+                }
+                metrics.prepare.record(System.nanoTime() - start);
+                Class<?> type = name.equals("prepareCall") ? CallableStatement.class : PreparedStatement.class;
+                return wrap(type, new StatementHandler((Connection) proxy, (Statement) statement, metrics));
+            }
+            if (name.equals("createStatement")) {
+                Statement statement = (Statement) invokeTarget(target, method, args);
+                return wrap(Statement.class, new StatementHandler((Connection) proxy, statement, null));
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    private static Object wrap(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Connection connection;
+        private final Statement target;
+        private final ShapeMetrics prepared;
+
+        private StatementHandler(Connection connection, Statement target, ShapeMetrics prepared) {
+            this.connection = connection;
+            this.target = target;
+            this.prepared = prepared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, target, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (!name.startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+            // Statement.execute(sql) lleva el SQL como primer argumento; PreparedStatement.execute() no
+            ShapeMetrics metrics = args != null && args.length > 0 && args[0] instanceof String sql ? metricsFor(sql) : prepared;
+            if (metrics == null) {
+                return invokeTarget(target, method, args);
+            }
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invokeTarget(target, method, args);
+            } catch (Throwable e) {
+                metrics.recordError(System.nanoTime() - start);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            switch (name) {
+                case "executeQuery" -> {
+                    return wrap(ResultSet.class, new ResultSetHandler((Statement) proxy, (ResultSet) result, metrics, elapsed));
+                }
+                case "executeUpdate", "executeLargeUpdate" -> metrics.recordExecution(elapsed, ((Number) result).longValue());
+                case "executeBatch" -> metrics.recordExecution(elapsed, sum((int[]) result));
+                case "executeLargeBatch" -> metrics.recordExecution(elapsed, sum((long[]) result));
+                default -> metrics.recordExecution(elapsed, Boolean.TRUE.equals(result) ? 0 : Math.max(0, target.getUpdateCount()));
+            }
+            return result;
+        }
+
+        private static long sum(int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                total += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+            return total;
+        }
+
+        private static long sum(long[] counts) {
+            long total = 0;
+            for (long count : counts) {
+                total += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Counts the rows of a query and adds the time spent fetching them to its execute time. The execution is
+     * recorded once, when the result set is exhausted or closed, whichever comes first.
+     */
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final Statement statement;
+        private final ResultSet target;
+        private final ShapeMetrics metrics;
+        private long nanos;
+        private long rows;
+        private boolean recorded;
+
+        private ResultSetHandler(Statement statement, ResultSet target, ShapeMetrics metrics, long executeNanos) {
+            this.statement = statement;
+            this.target = target;
+            this.metrics = metrics;
+            this.nanos = executeNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isIdentityMethod(method)) {
+                return identity(proxy, target, method, args);
+            }
+            switch (method.getName()) {
+                case "next" -> {
+                    long start = System.nanoTime();
+                    boolean more = (Boolean) invokeTarget(target, method, args);
+                    nanos += System.nanoTime() - start;
+                    if (more) {
+                        rows++;
+                    } else {
+                        record();
+                    }
+                    return more;
+                }
+                case "close" -> {
+                    record();
+                    return invokeTarget(target, method, args);
+                }
+                case "getStatement" -> {
+                    return statement;
+                }
+                default -> {
+                    return invokeTarget(target, method, args);
+                }
+            }
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                metrics.recordExecution(nanos, rows);
+            }
+        }
+    }
+}
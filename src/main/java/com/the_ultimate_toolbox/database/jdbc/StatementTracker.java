@@ -0,0 +1,55 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import java.sql.Statement;
+
+/**
+ * Lets the code that runs a unit of work find out which statements it opened, so it can cancel them.
+ *
+ * <p>A listener is installed per thread. Every statement that {@link SQLinteractions}, {@link StatementCache}
+ * and {@link ResultCursor} are about to execute is reported to the listener of the current thread, if any.
+ * Code that prepares statements on its own can report them with {@link #track(Statement)} to make them
+ * cancellable too.</p>
+ */
+public final class StatementTracker {
+
+    /**
+     * Receives the statements used on the thread it is installed on.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void statementUsed(Statement statement);
+    }
+
+    private static final ThreadLocal<Listener> listener = new ThreadLocal<>();
+
+    private StatementTracker() {
+    }
+
+    /**
+     * Installs a listener for the current thread, replacing any previous one.
+     */
+    public static void setListener(Listener newListener) {
+        listener.set(newListener);
+    }
+
+    /**
+     * Removes the listener of the current thread.
+     */
+    public static void clearListener() {
+        listener.remove();
+    }
+
+    /**
+     * Reports a statement to the listener of the current thread, if there is one.
+     *
+     * @param statement the statement about to be executed
+     * @return the same statement
+     */
+    public static <S extends Statement> S track(S statement) {
+        Listener current = listener.get();
+        if (current != null) {
+            current.statementUsed(statement);
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,59 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tells interested parties which tables have been written to.
+ *
+ * <p>Every insert, update, delete, upsert and table creation issued through {@link SQLinteractions} reports
+ * its table once the statement has run, whether it succeeded or not. Caches of query results register a
+ * {@link Listener} to drop what they hold for that table. Code that writes to a table by other means can call
+ * {@link #tableWritten(String)} itself.</p>
+ *
+ * <p>Listeners run synchronously on the writing thread and must be fast. When the write is part of a
+ * transaction that is committed later, the notification arrives before the commit.</p>
+ */
+public final class TableWriteNotifier {
+
+    private static final Logger logger = LogManager.getLogger(TableWriteNotifier.class);
+
+    /**
+     * Receives the name of every table written to.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void tableWritten(String table);
+    }
+
+    private static final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private TableWriteNotifier() {
+    }
+
+    public static void addListener(Listener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies every listener that a table has been written to. A listener that throws is logged and does not
+     * prevent the others from being notified.
+     *
+     * @param table the name of the table, as given to {@link SQLinteractions}
+     */
+    public static void tableWritten(String table) {
+        for (Listener listener : listeners) {
+            try {
+                listener.tableWritten(table);
+            } catch (RuntimeException e) {
+                logger.warn("Table write listener failed for table " + table, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.the_ultimate_toolbox.database.orm;
+
+import com.the_ultimate_toolbox.database.jdbc.StatementTracker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the rows of a result set to objects of a class.
+ *
+ * <p>The mapper for a (class, result set shape) pair is built once, from reflection, into a single
+ * {@link MethodHandle} that reads every column with its typed getter ({@code getInt}, {@code getDouble},
+ * {@code getString}...) and passes the value straight to a constructor or setter. Mapping a row then calls
+ * that handle: no reflection, no lookup by column name and no intermediate {@code String[]}.</p>
+ *
+ * <p>Columns are matched to properties by label, ignoring case and underscores ({@code fecha_alta} matches
+ * {@code fechaAlta}). The target is built in the first way that applies:</p>
+ * <ol>
+ *     <li>a record, through its canonical constructor; every component needs a column;</li>
+ *     <li>a class with a public no-argument constructor, through its public setters; columns without a setter
+ *     are ignored;</li>
+ *     <li>a class with a public constructor taking one argument per column; arguments are matched by name when
+ *     the class was compiled with {@code -parameters}, otherwise by position.</li>
+ * </ol>
+ *
+ * <pre>{@code
+ * List<Articulo> articulos = RowMapper.query(connection, Articulo.class,
+ *         "SELECT titulo, enlace, descripcion FROM articulos WHERE autor = ?", "bufigol");
+ * }</pre>
+ *
+ * <p>Primitive properties follow JDBC and read SQL NULL as 0 or false; use a wrapper type to keep NULLs.</p>
+ */
+public final class RowMapper<T> {
+
+    private static final Logger logger = LogManager.getLogger(RowMapper.class);
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final Map<Shape, RowMapper<?>> mappers = new ConcurrentHashMap<>();
+
+    private record Shape(Class<?> type, List<String> labels) {
+    }
+
+    private final Class<T> type;
+    private final MethodHandle handle;
+
+    private RowMapper(Class<T> type, MethodHandle handle) {
+        this.type = type;
+        this.handle = handle;
+    }
+
+    /**
+     * Returns the mapper of a class for a result set shape, building it the first time the shape is seen.
+     *
+     * @param type     the class to map rows to
+     * @param metaData the metadata of the result set
+     * @return the mapper
+     * @throws SQLException             if the metadata cannot be read
+     * @throws IllegalArgumentException if the class cannot be built from those columns
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type, ResultSetMetaData metaData) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+        }
+        Shape shape = new Shape(type, List.of(labels));
+        RowMapper<?> mapper = mappers.get(shape);
+        if (mapper == null) {
+            mapper = mappers.computeIfAbsent(shape, s -> new RowMapper<>(type, compile(type, labels)));
+        }
+        return (RowMapper<T>) mapper;
+    }
+
+    /**
+     * Maps every remaining row of a result set. The result set is consumed but not closed.
+     *
+     * @param resultSet the result set to read
+     * @param type      the class to map rows to
+     * @return the mapped objects, in row order
+     * @throws SQLException if reading the result set fails
+     */
+    public static <T> List<T> mapAll(ResultSet resultSet, Class<T> type) throws SQLException {
+        RowMapper<T> mapper = of(type, resultSet.getMetaData());
+        List<T> out = new ArrayList<>();
+        while (resultSet.next()) {
+            out.add(mapper.map(resultSet));
+        }
+        return out;
+    }
+
+    /**
+     * Runs a query and maps its rows.
+     *
+     * @param connection the database connection
+     * @param type       the class to map rows to
+     * @param sql        the query
+     * @param parameters the values of the query's placeholders, bound as strings
+     * @return the mapped objects, in row order
+     * @throws RuntimeException if the query fails
+     */
+    public static <T> List<T> query(Connection connection, Class<T> type, String sql, String... parameters) {
+        try (PreparedStatement statement = StatementTracker.track(connection.prepareStatement(sql))) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return mapAll(resultSet, type);
+            }
+        } catch (SQLException e) {
+            logger.error("An error occurred while searching", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Maps the current row of a result set.
+     *
+     * @param resultSet a result set positioned on a row, with the shape this mapper was built for
+     * @return the mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    public T map(ResultSet resultSet) throws SQLException {
+        try {
+            return type.cast((Object) handle.invokeExact(resultSet));
+        } catch (SQLException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Error mapping a row to " + type.getName(), t);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    private static MethodHandle compile(Class<?> type, String[] labels) {
+        try {
+            MethodHandle mapper;
+            if (type.isRecord()) {
+                mapper = compileRecord(type, labels);
+            } else if (hasPublicNoArgConstructor(type)) {
+                mapper = compileSetters(type, labels);
+            } else {
+                mapper = compileConstructor(type, labels);
+            }
+            return mapper.asType(MethodType.methodType(Object.class, ResultSet.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot map " + Arrays.toString(labels) + " to " + type.getName(), e);
+        }
+    }
+
+    private static MethodHandle compileRecord(Class<?> type, String[] labels) throws ReflectiveOperationException {
+        RecordComponent[] components = type.getRecordComponents();
+        Class<?>[] parameterTypes = new Class<?>[components.length];
+        int[] columns = new int[components.length];
+        for (int i = 0; i < components.length; i++) {
+            parameterTypes[i] = components[i].getType();
+            columns[i] = requireColumn(labels, components[i].getName(), type);
+        }
+        Constructor<?> constructor = type.getDeclaredConstructor(parameterTypes);
+        return spread(lookup.unreflectConstructor(constructor), parameterTypes, columns);
+    }
+
+    private static MethodHandle compileConstructor(Class<?> type, String[] labels) throws ReflectiveOperationException {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() != labels.length) {
+                continue;
+            }
+            Parameter[] parameters = constructor.getParameters();
+            int[] columns = new int[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                columns[i] = parameters[i].isNamePresent() ? requireColumn(labels, parameters[i].getName(), type) : i;
+            }
+            return spread(lookup.unreflectConstructor(constructor), constructor.getParameterTypes(), columns);
+        }
+        throw new IllegalArgumentException(type.getName() + " has no public no-argument constructor and no public "
+                + "constructor taking " + labels.length + " arguments");
+    }
+
+    private static MethodHandle compileSetters(Class<?> type, String[] labels) throws ReflectiveOperationException {
+        // (T, ResultSet)void que aplica todos los setters, en orden de columna
+        MethodHandle setters = null;
+        for (int column = 0; column < labels.length; column++) {
+            Method setter = findSetter(type, labels[column]);
+            if (setter == null) {
+                continue;
+            }
+            Class<?> valueType = setter.getParameterTypes()[0];
+            MethodHandle set = lookup.unreflect(setter).asType(MethodType.methodType(void.class, type, valueType));
+            set = MethodHandles.filterArguments(set, 1, getter(valueType, column + 1));
+            setters = setters == null ? set : MethodHandles.foldArguments(set, setters);
+        }
+        if (setters == null) {
+            throw new IllegalArgumentException("None of the columns " + Arrays.toString(labels)
+                    + " matches a setter of " + type.getName());
+        }
+        MethodHandle returnTarget = MethodHandles.dropArguments(MethodHandles.identity(type), 1, ResultSet.class);
+        MethodHandle populate = MethodHandles.foldArguments(returnTarget, setters);
+        MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+        return MethodHandles.foldArguments(populate, MethodHandles.dropArguments(constructor, 0, ResultSet.class));
+    }
+
+    /**
+     * Turns {@code (A1..An)T} into {@code (ResultSet)T}, reading argument {@code i} from column {@code columns[i]}.
+     */
+    private static MethodHandle spread(MethodHandle target, Class<?>[] parameterTypes, int[] columns)
+            throws ReflectiveOperationException {
+        MethodHandle[] getters = new MethodHandle[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            getters[i] = getter(parameterTypes[i], columns[i] + 1);
+        }
+        MethodHandle filtered = MethodHandles.filterArguments(target, 0, getters);
+        MethodType single = MethodType.methodType(target.type().returnType(), ResultSet.class);
+        return MethodHandles.permuteArguments(filtered, single, new int[parameterTypes.length]);
+    }
+
+    /**
+     * Returns a {@code (ResultSet)V} handle that reads a column with the getter matching {@code valueType}.
+     */
+    private static MethodHandle getter(Class<?> valueType, int column) throws ReflectiveOperationException {
+        String name;
+        if (valueType == int.class) {
+            name = "getInt";
+        } else if (valueType == long.class) {
+            name = "getLong";
+        } else if (valueType == double.class) {
+            name = "getDouble";
+        } else if (valueType == float.class) {
+            name = "getFloat";
+        } else if (valueType == boolean.class) {
+            name = "getBoolean";
+        } else if (valueType == short.class) {
+            name = "getShort";
+        } else if (valueType == byte.class) {
+            name = "getByte";
+        } else if (valueType == String.class) {
+            name = "getString";
+        } else if (valueType == BigDecimal.class) {
+            name = "getBigDecimal";
+        } else {
+            MethodHandle getObject = lookup.findVirtual(ResultSet.class, "getObject",
+                    MethodType.methodType(Object.class, int.class, Class.class));
+            Class<?> boxed = valueType.isPrimitive() ? MethodType.methodType(valueType).wrap().returnType() : valueType;
+            return MethodHandles.insertArguments(getObject, 1, column, boxed)
+                    .asType(MethodType.methodType(valueType, ResultSet.class));
+        }
+        MethodHandle get = lookup.findVirtual(ResultSet.class, name, MethodType.methodType(valueType, int.class));
+        return MethodHandles.insertArguments(get, 1, column);
+    }
+
+    private static Method findSetter(Class<?> type, String label) {
+        String property = normalize(label);
+        for (Method method : type.getMethods()) {
+            if (method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())
+                    && method.getName().startsWith("set") && normalize(method.getName().substring(3)).equals(property)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static int requireColumn(String[] labels, String property, Class<?> type) {
+        String normalized = normalize(property);
+        for (int i = 0; i < labels.length; i++) {
+            if (normalize(labels[i]).equals(normalized)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column for " + type.getSimpleName() + "." + property
+                + " in " + Arrays.toString(labels));
+    }
+
+    private static boolean hasPublicNoArgConstructor(Class<?> type) {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
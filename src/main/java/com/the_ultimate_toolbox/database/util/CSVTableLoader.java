@@ -0,0 +1,367 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.dialect.BulkInsertStrategy;
+import com.the_ultimate_toolbox.database.dialect.SQLDialect;
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import com.the_ultimate_toolbox.database.jdbc.StatementTracker;
+import com.the_ultimate_toolbox.database.jdbc.TableWriteNotifier;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams a CSV file into a table using multi-row {@code INSERT ... VALUES (...),(...)} statements.
+ *
+ * <p>Parsing and execution are pipelined: a parser thread reads the file and groups rows into chunks
+ * while the calling thread sends the previous chunk to the database. Only a few chunks are in flight
+ * at any time, so memory stays flat regardless of the file size. Each chunk is sized to stay below the
+ * driver's packet limit ({@code max_allowed_packet} on MySQL) and the bind-parameter limit, and is
+ * committed on its own.</p>
+ *
+ * <p>On databases whose dialect prefers {@link BulkInsertStrategy#JDBC_BATCH} (H2, PostgreSQL...), each chunk
+ * is sent instead as a JDBC batch of one single-row INSERT.</p>
+ *
+ * <pre>{@code
+ * CSVTableLoader.Result result = new CSVTableLoader(connection, "ventas")
+ *         .delimiter(';')
+ *         .header(true)
+ *         .load("ventas.csv");
+ * }</pre>
+ */
+public class CSVTableLoader {
+
+    private static final Logger logger = LogManager.getLogger(CSVTableLoader.class);
+
+    /** Packet size assumed when the server cannot be asked for its own limit. */
+    private static final long DEFAULT_PACKET_BYTES = 4L * 1024 * 1024;
+    /** Chunks waiting between the parser and the executor. */
+    private static final int QUEUE_CAPACITY = 4;
+    private static final List<String[]> END_OF_FILE = new ArrayList<>();
+
+    private final Connection connection;
+    private final String table;
+    private String[] columns;
+    private char delimiter = ';';
+    private Charset charset = StandardCharsets.UTF_8;
+    private boolean header = true;
+    private boolean emptyAsNull = false;
+    private int maxRowsPerStatement = 1_000;
+    private long maxPacketBytes = -1;
+
+    /**
+     * Creates a loader for the given table.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table to load into
+     */
+    public CSVTableLoader(Connection connection, String table) {
+        this.connection = connection;
+        this.table = table;
+    }
+
+    /**
+     * Sets the target columns. When not set, the first row of the file is used as the column list.
+     */
+    public CSVTableLoader columns(String... columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * Sets the field delimiter. Defaults to {@code ;} like {@code UniversalCSVReaderAndWriter}.
+     */
+    public CSVTableLoader delimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Sets the charset of the file. Defaults to UTF-8.
+     */
+    public CSVTableLoader charset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Sets whether the first row is a header. Defaults to true.
+     */
+    public CSVTableLoader header(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    /**
+     * Sets whether empty fields are inserted as NULL instead of empty strings. Defaults to false.
+     */
+    public CSVTableLoader emptyAsNull(boolean emptyAsNull) {
+        this.emptyAsNull = emptyAsNull;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of rows in a single INSERT statement, or in a single batch when the dialect
+     * prefers JDBC batches. Defaults to 1000.
+     */
+    public CSVTableLoader maxRowsPerStatement(int maxRowsPerStatement) {
+        if (maxRowsPerStatement < 1) {
+            throw new IllegalArgumentException("maxRowsPerStatement must be at least 1");
+        }
+        this.maxRowsPerStatement = maxRowsPerStatement;
+        return this;
+    }
+
+    /**
+     * Overrides the packet limit statements are sized against. By default the dialect provides it
+     * ({@code @@max_allowed_packet} on MySQL), and 4 MB is assumed when the dialect does not know it.
+     */
+    public CSVTableLoader maxPacketBytes(long maxPacketBytes) {
+        this.maxPacketBytes = maxPacketBytes;
+        return this;
+    }
+
+    /**
+     * Loads the file into the table.
+     *
+     * @param filePath the path to the CSV file
+     * @return the number of rows and statements sent
+     * @throws RuntimeException if the file cannot be read or a statement fails; chunks committed before
+     *                          the failure stay in the table
+     */
+    public Result load(String filePath) {
+        long start = System.nanoTime();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath), charset)) {
+            String[] targetColumns = columns;
+            if (header) {
+                String headerLine = reader.readLine();
+                if (headerLine == null) {
+                    return new Result(0, 0, System.nanoTime() - start);
+                }
+                if (targetColumns == null) {
+                    targetColumns = split(headerLine, delimiter);
+                }
+            }
+            if (targetColumns == null || targetColumns.length == 0) {
+                throw new IllegalArgumentException("No columns given and the file has no header row.");
+            }
+            SQLDialect dialect = SQLDialects.forConnection(connection);
+            boolean batch = dialect.getBulkInsertStrategy() == BulkInsertStrategy.JDBC_BATCH;
+            int rowsPerStatement = batch ? maxRowsPerStatement
+                    : Math.max(1, Math.min(maxRowsPerStatement, dialect.getMaxParameters() / targetColumns.length));
+            long packetBudget = batch ? Long.MAX_VALUE : packetBudget(dialect, targetColumns);
+            try {
+                return pipeline(reader, targetColumns, rowsPerStatement, packetBudget, batch, start);
+            } finally {
+                TableWriteNotifier.tableWritten(table);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file", e);
+        } catch (SQLException e) {
+            logger.error("An error occurred while loading " + filePath + " into " + table, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Result pipeline(BufferedReader reader, String[] targetColumns, int rowsPerStatement, long packetBudget,
+                            boolean batch, long start) throws SQLException {
+        BlockingQueue<List<String[]>> chunks = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        AtomicReference<Throwable> parserFailure = new AtomicReference<>();
+        Thread parser = new Thread(() -> {
+            try {
+                parse(reader, targetColumns.length, rowsPerStatement, packetBudget, chunks);
+            } catch (InterruptedException e) {
+                // The executor gave up and nobody is listening any more
+                return;
+            } catch (Throwable t) {
+                parserFailure.set(t);
+            }
+            try {
+                chunks.put(END_OF_FILE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "csv-table-loader-parser");
+        parser.setDaemon(true);
+        parser.start();
+
+        long rows = 0;
+        long statements = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        PreparedStatement fullChunkStatement = null;
+        try {
+            connection.setAutoCommit(false);
+            while (true) {
+                List<String[]> chunk = chunks.take();
+                if (chunk == END_OF_FILE) {
+                    break;
+                }
+                if (batch) {
+                    // Una sola sentencia de una fila, enviada como lote JDBC
+                    if (fullChunkStatement == null) {
+                        fullChunkStatement = StatementTracker.track(connection.prepareStatement(buildInsert(targetColumns, 1)));
+                    }
+                    executeBatch(fullChunkStatement, chunk, targetColumns.length);
+                } else if (chunk.size() == rowsPerStatement) {
+                    // Full chunks share one statement; only the odd-sized ones are prepared on the fly
+                    if (fullChunkStatement == null) {
+                        fullChunkStatement = StatementTracker.track(connection.prepareStatement(buildInsert(targetColumns, rowsPerStatement)));
+                    }
+                    executeChunk(fullChunkStatement, chunk, targetColumns.length);
+                } else {
+                    try (PreparedStatement pstmt = StatementTracker.track(connection.prepareStatement(buildInsert(targetColumns, chunk.size())))) {
+                        executeChunk(pstmt, chunk, targetColumns.length);
+                    }
+                }
+                connection.commit();
+                rows += chunk.size();
+                statements++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading " + table, e);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            parser.interrupt();
+            if (fullChunkStatement != null) {
+                fullChunkStatement.close();
+            }
+            connection.setAutoCommit(autoCommit);
+        }
+        Throwable failure = parserFailure.get();
+        if (failure != null) {
+            throw new RuntimeException("Error parsing CSV file after " + rows + " rows", failure);
+        }
+        return new Result(rows, statements, System.nanoTime() - start);
+    }
+
+    private void parse(BufferedReader reader, int columnCount, int rowsPerStatement, long packetBudget,
+                       BlockingQueue<List<String[]>> chunks) throws IOException, InterruptedException {
+        List<String[]> chunk = new ArrayList<>(rowsPerStatement);
+        long chunkBytes = 0;
+        String line;
+        long lineNumber = header ? 1 : 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] row = split(line, delimiter);
+            if (row.length != columnCount) {
+                throw new IOException("Line " + lineNumber + " has " + row.length + " fields, expected " + columnCount);
+            }
+            // Worst case for UTF-8 is three bytes per char, plus quotes and separators around every value
+            long rowBytes = 3L * line.length() + 4L * columnCount + 3;
+            if (!chunk.isEmpty() && (chunk.size() == rowsPerStatement || chunkBytes + rowBytes > packetBudget)) {
+                chunks.put(chunk);
+                chunk = new ArrayList<>(rowsPerStatement);
+                chunkBytes = 0;
+            }
+            chunk.add(row);
+            chunkBytes += rowBytes;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.put(chunk);
+        }
+    }
+
+    private void executeChunk(PreparedStatement pstmt, List<String[]> chunk, int columnCount) throws SQLException {
+        int index = 1;
+        for (String[] row : chunk) {
+            for (int i = 0; i < columnCount; i++) {
+                String value = row[i];
+                pstmt.setString(index++, emptyAsNull && value.isEmpty() ? null : value);
+            }
+        }
+        pstmt.executeUpdate();
+    }
+
+    private void executeBatch(PreparedStatement pstmt, List<String[]> chunk, int columnCount) throws SQLException {
+        for (String[] row : chunk) {
+            for (int i = 0; i < columnCount; i++) {
+                String value = row[i];
+                pstmt.setString(i + 1, emptyAsNull && value.isEmpty() ? null : value);
+            }
+            pstmt.addBatch();
+        }
+        pstmt.executeBatch();
+    }
+
+    private String buildInsert(String[] targetColumns, int rowCount) {
+        StringBuilder rowPlaceholders = new StringBuilder("(");
+        for (int i = 0; i < targetColumns.length; i++) {
+            rowPlaceholders.append(i == 0 ? "?" : ", ?");
+        }
+        rowPlaceholders.append(")");
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (")
+                .append(String.join(", ", targetColumns)).append(") VALUES ");
+        for (int row = 0; row < rowCount; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Bytes available for the values of one statement: the packet limit minus the statement text
+     * and a safety margin.
+     */
+    private long packetBudget(SQLDialect dialect, String[] targetColumns) throws SQLException {
+        long packet = maxPacketBytes > 0 ? maxPacketBytes : dialect.getMaxPacketBytes(connection);
+        if (packet <= 0) {
+            packet = DEFAULT_PACKET_BYTES;
+        }
+        long overhead = 64L + table.length() + String.join(", ", targetColumns).length();
+        return Math.max(1, (long) (packet * 0.9) - overhead);
+    }
+
+    /**
+     * Splits a line on a single character without going through the regex engine.
+     */
+    private static String[] split(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        int from = 0;
+        int to;
+        while ((to = line.indexOf(delimiter, from)) >= 0) {
+            fields.add(line.substring(from, to));
+            from = to + 1;
+        }
+        fields.add(line.substring(from));
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Outcome of a load.
+     *
+     * @param rowsLoaded         the number of rows inserted
+     * @param statementsExecuted the number of INSERT statements sent
+     * @param elapsedNanos       the wall-clock time of the load
+     */
+    public record Result(long rowsLoaded, long statementsExecuted, long elapsedNanos) {
+
+        /**
+         * @return the load rate in rows per second
+         */
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsLoaded * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
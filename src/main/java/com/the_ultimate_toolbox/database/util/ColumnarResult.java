@@ -0,0 +1,437 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.jdbc.StatementTracker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Query result materialized column by column into primitive vectors.
+ *
+ * <p>The {@code search*} methods of {@code SQLinteractions} return one {@code String} per cell, which for
+ * numeric reporting queries costs an order of magnitude more memory than the data itself. A columnar result
+ * stores integer columns in {@code int[]}/{@code long[]}, floating-point columns in {@code double[]}, exact
+ * decimals as unscaled {@code long[]} values and text columns dictionary-encoded (an {@code int[]} of codes plus
+ * the distinct values). The storage kind of each column is chosen from {@link ResultSetMetaData}. Row access and
+ * column scans never box.</p>
+ *
+ * <p>DECIMAL and NUMERIC columns keep their exact value: with a precision of up to 18 digits they are stored as
+ * unscaled {@code long}s sharing the column's scale, so {@code 12.50} in a {@code DECIMAL(10,2)} column is
+ * {@code 1250} with scale 2. Wider columns, or columns whose values turn out not to fit, are stored as
+ * {@code BigDecimal[]}.</p>
+ *
+ * <pre>{@code
+ * ColumnarResult ventas = ColumnarResult.query(connection, "SELECT pais, unidades, importe FROM ventas");
+ * // importe es DECIMAL(12,2): céntimos sin escala, 0 donde es NULL
+ * long[] importes = ventas.unscaledColumn(2);
+ * long total = 0;
+ * for (int row = 0; row < ventas.getRowCount(); row++) {
+ *     total += importes[row];
+ * }
+ * BigDecimal suma = BigDecimal.valueOf(total, ventas.getScale(2));
+ * }</pre>
+ *
+ * <p>The arrays returned by the column accessors are the backing vectors, sized exactly to the row count;
+ * they must not be modified.</p>
+ */
+public final class ColumnarResult {
+
+    private static final Logger logger = LogManager.getLogger(ColumnarResult.class);
+
+    /**
+     * Storage kind of a column.
+     */
+    public enum ColumnKind {
+        /** {@code int[]}: TINYINT, SMALLINT, INTEGER, BIT and BOOLEAN (as 0/1). */
+        INT,
+        /** {@code long[]}: BIGINT. */
+        LONG,
+        /** {@code double[]}: FLOAT, REAL and DOUBLE. */
+        DOUBLE,
+        /**
+         * DECIMAL and NUMERIC: unscaled {@code long[]} values when {@link #getScale(int)} is not negative,
+         * {@code BigDecimal[]} otherwise.
+         */
+        DECIMAL,
+        /** Dictionary-encoded {@code int[]} codes: every other type, read with {@code getString}. */
+        STRING
+    }
+
+    private static final int INITIAL_CAPACITY = 1_024;
+    /** The widest DECIMAL, in digits, whose unscaled values always fit in a {@code long}. */
+    private static final int MAX_SCALED_PRECISION = 18;
+
+    private final String[] columnNames;
+    private final ColumnKind[] kinds;
+    private final Object[] vectors;
+    private final int[] scales;
+    private final String[][] dictionaries;
+    private final long[][] nullBitmaps;
+    private final int rowCount;
+
+    private ColumnarResult(String[] columnNames, ColumnKind[] kinds, Object[] vectors, int[] scales,
+                           String[][] dictionaries, long[][] nullBitmaps, int rowCount) {
+        this.columnNames = columnNames;
+        this.kinds = kinds;
+        this.vectors = vectors;
+        this.scales = scales;
+        this.dictionaries = dictionaries;
+        this.nullBitmaps = nullBitmaps;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Runs a query and materializes its result.
+     *
+     * @param connection the database connection
+     * @param sql        the query
+     * @param parameters the values of the query's placeholders, bound as strings
+     * @return the columnar result
+     * @throws RuntimeException if the query fails
+     */
+    public static ColumnarResult query(Connection connection, String sql, String... parameters) {
+        try (PreparedStatement statement = StatementTracker.track(
+                connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return fromResultSet(resultSet);
+            }
+        } catch (SQLException e) {
+            logger.error("An error occurred while searching", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Materializes the remaining rows of a result set. The result set is consumed but not closed.
+     *
+     * @param resultSet the result set to read
+     * @return the columnar result
+     * @throws SQLException if reading the result set fails
+     */
+    public static ColumnarResult fromResultSet(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] names = new String[columnCount];
+        ColumnKind[] kinds = new ColumnKind[columnCount];
+        Object[] vectors = new Object[columnCount];
+        int[] scales = new int[columnCount];
+        long[][] nulls = new long[columnCount][];
+        List<HashMap<String, Integer>> codes = new ArrayList<>(columnCount);
+        List<ArrayList<String>> values = new ArrayList<>(columnCount);
+        int capacity = INITIAL_CAPACITY;
+
+        for (int c = 0; c < columnCount; c++) {
+            names[c] = metaData.getColumnLabel(c + 1);
+            kinds[c] = kindOf(metaData.getColumnType(c + 1));
+            scales[c] = -1;
+            if (kinds[c] == ColumnKind.DECIMAL) {
+                int precision = metaData.getPrecision(c + 1);
+                int scale = metaData.getScale(c + 1);
+                if (precision > 0 && precision <= MAX_SCALED_PRECISION && scale >= 0) {
+                    scales[c] = scale;
+                }
+            }
+            vectors[c] = switch (kinds[c]) {
+                case INT, STRING -> new int[capacity];
+                case LONG -> new long[capacity];
+                case DOUBLE -> new double[capacity];
+                case DECIMAL -> scales[c] >= 0 ? new long[capacity] : new BigDecimal[capacity];
+            };
+            nulls[c] = new long[capacity >>> 6];
+            codes.add(kinds[c] == ColumnKind.STRING ? new HashMap<>() : null);
+            values.add(kinds[c] == ColumnKind.STRING ? new ArrayList<>() : null);
+        }
+
+        int row = 0;
+        while (resultSet.next()) {
+            if (row == capacity) {
+                capacity <<= 1;
+                for (int c = 0; c < columnCount; c++) {
+                    vectors[c] = grow(vectors[c], capacity);
+                    nulls[c] = Arrays.copyOf(nulls[c], capacity >>> 6);
+                }
+            }
+            for (int c = 0; c < columnCount; c++) {
+                int index = c + 1;
+                boolean isNull;
+                switch (kinds[c]) {
+                    case INT -> {
+                        ((int[]) vectors[c])[row] = resultSet.getInt(index);
+                        isNull = resultSet.wasNull();
+                    }
+                    case LONG -> {
+                        ((long[]) vectors[c])[row] = resultSet.getLong(index);
+                        isNull = resultSet.wasNull();
+                    }
+                    case DOUBLE -> {
+                        ((double[]) vectors[c])[row] = resultSet.getDouble(index);
+                        isNull = resultSet.wasNull();
+                    }
+                    case DECIMAL -> {
+                        BigDecimal value = resultSet.getBigDecimal(index);
+                        isNull = value == null;
+                        if (isNull) {
+                            break;
+                        }
+                        if (scales[c] >= 0) {
+                            try {
+                                ((long[]) vectors[c])[row] = value.setScale(scales[c], RoundingMode.UNNECESSARY)
+                                        .unscaledValue().longValueExact();
+                                break;
+                            } catch (ArithmeticException e) {
+                                // El valor no cabe con la escala de la columna: se pasa la columna a BigDecimal
+                                vectors[c] = toBigDecimals((long[]) vectors[c], scales[c], row, nulls[c]);
+                                scales[c] = -1;
+                            }
+                        }
+                        ((BigDecimal[]) vectors[c])[row] = value;
+                    }
+                    default -> {
+                        String value = resultSet.getString(index);
+                        isNull = value == null;
+                        if (!isNull) {
+                            ArrayList<String> dictionary = values.get(c);
+                            Integer code = codes.get(c).putIfAbsent(value, dictionary.size());
+                            if (code == null) {
+                                code = dictionary.size();
+                                dictionary.add(value);
+                            }
+                            ((int[]) vectors[c])[row] = code;
+                        } else {
+                            ((int[]) vectors[c])[row] = -1;
+                        }
+                    }
+                }
+                if (isNull) {
+                    nulls[c][row >>> 6] |= 1L << row;
+                }
+            }
+            row++;
+        }
+
+        String[][] dictionaries = new String[columnCount][];
+        for (int c = 0; c < columnCount; c++) {
+            vectors[c] = grow(vectors[c], row);
+            nulls[c] = Arrays.copyOf(nulls[c], (row + 63) >>> 6);
+            if (kinds[c] == ColumnKind.STRING) {
+                dictionaries[c] = values.get(c).toArray(new String[0]);
+            }
+        }
+        return new ColumnarResult(names, kinds, vectors, scales, dictionaries, nulls, row);
+    }
+
+    private static BigDecimal[] toBigDecimals(long[] unscaled, int scale, int rows, long[] nulls) {
+        BigDecimal[] values = new BigDecimal[unscaled.length];
+        for (int row = 0; row < rows; row++) {
+            if ((nulls[row >>> 6] & (1L << row)) == 0) {
+                values[row] = BigDecimal.valueOf(unscaled[row], scale);
+            }
+        }
+        return values;
+    }
+
+    private static ColumnKind kindOf(int sqlType) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIT, Types.BOOLEAN -> ColumnKind.INT;
+            case Types.BIGINT -> ColumnKind.LONG;
+            case Types.FLOAT, Types.REAL, Types.DOUBLE -> ColumnKind.DOUBLE;
+            case Types.DECIMAL, Types.NUMERIC -> ColumnKind.DECIMAL;
+            default -> ColumnKind.STRING;
+        };
+    }
+
+    private static Object grow(Object vector, int length) {
+        if (vector instanceof int[] ints) {
+            return Arrays.copyOf(ints, length);
+        }
+        if (vector instanceof long[] longs) {
+            return Arrays.copyOf(longs, length);
+        }
+        if (vector instanceof BigDecimal[] decimals) {
+            return Arrays.copyOf(decimals, length);
+        }
+        return Arrays.copyOf((double[]) vector, length);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    public ColumnKind getColumnKind(int column) {
+        return kinds[column];
+    }
+
+    /**
+     * Returns the index of a column by label, ignoring case.
+     *
+     * @param name the column label
+     * @return the 0-based column index
+     * @throws IllegalArgumentException if there is no such column
+     */
+    public int columnIndex(String name) {
+        for (int c = 0; c < columnNames.length; c++) {
+            if (columnNames[c].equalsIgnoreCase(name)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("No column named " + name);
+    }
+
+    public boolean isNull(int row, int column) {
+        return (nullBitmaps[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * @return the value of an INT column; 0 if it is NULL
+     */
+    public int getInt(int row, int column) {
+        return intColumn(column)[row];
+    }
+
+    /**
+     * @return the value of an INT or LONG column; 0 if it is NULL
+     */
+    public long getLong(int row, int column) {
+        return kinds[column] == ColumnKind.INT ? intColumn(column)[row] : longColumn(column)[row];
+    }
+
+    /**
+     * @return the value of a numeric column; 0 if it is NULL. A DECIMAL value is rounded to the nearest
+     * {@code double}
+     */
+    public double getDouble(int row, int column) {
+        return switch (kinds[column]) {
+            case INT -> ((int[]) vectors[column])[row];
+            case LONG -> ((long[]) vectors[column])[row];
+            case DOUBLE -> ((double[]) vectors[column])[row];
+            case DECIMAL -> isNull(row, column) ? 0 : getBigDecimal(row, column).doubleValue();
+            case STRING -> throw new IllegalStateException("Column " + columnNames[column] + " is not numeric");
+        };
+    }
+
+    /**
+     * @return the exact value of a numeric column other than DOUBLE, or null if it is NULL
+     */
+    public BigDecimal getBigDecimal(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        return switch (kinds[column]) {
+            case INT -> BigDecimal.valueOf(((int[]) vectors[column])[row]);
+            case LONG -> BigDecimal.valueOf(((long[]) vectors[column])[row]);
+            case DECIMAL -> scales[column] >= 0
+                    ? BigDecimal.valueOf(((long[]) vectors[column])[row], scales[column])
+                    : ((BigDecimal[]) vectors[column])[row];
+            case DOUBLE, STRING -> throw new IllegalStateException("Column " + columnNames[column] + " is " + kinds[column]
+                    + ", not an exact numeric column");
+        };
+    }
+
+    /**
+     * Returns any cell as text, formatting numeric columns. Dictionary-encoded columns return the shared
+     * dictionary entry, so no string is created.
+     *
+     * @return the value, or null if it is NULL
+     */
+    public String getString(int row, int column) {
+        if (isNull(row, column)) {
+            return null;
+        }
+        return switch (kinds[column]) {
+            case INT -> Integer.toString(((int[]) vectors[column])[row]);
+            case LONG -> Long.toString(((long[]) vectors[column])[row]);
+            case DOUBLE -> Double.toString(((double[]) vectors[column])[row]);
+            case DECIMAL -> getBigDecimal(row, column).toPlainString();
+            case STRING -> dictionaries[column][((int[]) vectors[column])[row]];
+        };
+    }
+
+    /**
+     * @return the backing vector of an INT column
+     */
+    public int[] intColumn(int column) {
+        requireKind(column, ColumnKind.INT);
+        return (int[]) vectors[column];
+    }
+
+    /**
+     * @return the backing vector of a LONG column
+     */
+    public long[] longColumn(int column) {
+        requireKind(column, ColumnKind.LONG);
+        return (long[]) vectors[column];
+    }
+
+    /**
+     * @return the backing vector of a DOUBLE column
+     */
+    public double[] doubleColumn(int column) {
+        requireKind(column, ColumnKind.DOUBLE);
+        return (double[]) vectors[column];
+    }
+
+    /**
+     * @return the scale shared by the unscaled values of a DECIMAL column, or -1 if the column is stored as
+     * {@code BigDecimal[]}
+     */
+    public int getScale(int column) {
+        requireKind(column, ColumnKind.DECIMAL);
+        return scales[column];
+    }
+
+    /**
+     * @return the backing vector of unscaled values of a DECIMAL column; 0 where the value is NULL
+     * @throws IllegalStateException if the column is stored as {@code BigDecimal[]}
+     */
+    public long[] unscaledColumn(int column) {
+        if (getScale(column) < 0) {
+            throw new IllegalStateException("Column " + columnNames[column] + " is too wide for unscaled longs");
+        }
+        return (long[]) vectors[column];
+    }
+
+    /**
+     * @return the dictionary codes of a STRING column; -1 marks NULL
+     */
+    public int[] dictionaryCodes(int column) {
+        requireKind(column, ColumnKind.STRING);
+        return (int[]) vectors[column];
+    }
+
+    /**
+     * @return the distinct values of a STRING column, indexed by code
+     */
+    public String[] dictionary(int column) {
+        requireKind(column, ColumnKind.STRING);
+        return dictionaries[column];
+    }
+
+    private void requireKind(int column, ColumnKind kind) {
+        if (kinds[column] != kind) {
+            throw new IllegalStateException("Column " + columnNames[column] + " is " + kinds[column] + ", not " + kind);
+        }
+    }
+}
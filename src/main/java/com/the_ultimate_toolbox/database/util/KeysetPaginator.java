@@ -0,0 +1,229 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import com.the_ultimate_toolbox.database.jdbc.StatementCache;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Pages through a table by key instead of by offset.
+ *
+ * <p>Each page is read with {@code WHERE key > last_key ORDER BY key LIMIT n}, written in the row-limit syntax
+ * of the connection's dialect, where {@code last_key} is the key of the last row of the previous page. With an
+ * index on the key column the database seeks straight to the first row of the page, so page 10 000 costs the
+ * same as page 1; {@code LIMIT/OFFSET} has to read and discard every skipped row. The position is handed back
+ * to the caller as an opaque continuation token.</p>
+ *
+ * <pre>{@code
+ * KeysetPaginator paginator = new KeysetPaginator(connection, "ventas", "ID_ventas").where("pais", "ES").pageSize(500);
+ * KeysetPaginator.Page page = paginator.first();
+ * while (page.hasNext()) {
+ *     page = paginator.next(page.nextToken());
+ * }
+ * }</pre>
+ *
+ * <p>The key column must be unique and not null, typically the primary key; rows sharing a key value could
+ * be skipped at page boundaries. Rows inserted behind the current position are not seen, rows inserted ahead
+ * of it are, and no row is returned twice.</p>
+ */
+public class KeysetPaginator {
+
+    private static final Logger logger = LogManager.getLogger(KeysetPaginator.class);
+
+    private static final String LONG_KEY = "L";
+    private static final String STRING_KEY = "S";
+
+    /**
+     * One page of rows.
+     *
+     * @param columnLabels the column labels, in row order
+     * @param rows         the rows of the page, at most the page size
+     * @param nextToken    the token of the following page, or null if this is the last page
+     */
+    public record Page(String[] columnLabels, List<String[]> rows, String nextToken) {
+        public boolean hasNext() {
+            return nextToken != null;
+        }
+    }
+
+    private final Connection connection;
+    private final String table;
+    private final String keyColumn;
+    private String filterField;
+    private String filterValue;
+    private int pageSize = 1_000;
+    private boolean descending = false;
+
+    /**
+     * Creates a paginator over a table.
+     *
+     * @param connection the database connection
+     * @param table      the name of the table
+     * @param keyColumn  the unique, indexed column the pages are ordered by
+     */
+    public KeysetPaginator(Connection connection, String table, String keyColumn) {
+        this.connection = connection;
+        this.table = table;
+        this.keyColumn = keyColumn;
+    }
+
+    /**
+     * Restricts the pages to the rows where {@code field} equals {@code value}, like
+     * {@code SQLinteractions.searchByField}. For the seek to stay cheap, index {@code (field, key)}.
+     */
+    public KeysetPaginator where(String field, String value) {
+        this.filterField = field;
+        this.filterValue = value;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of rows per page. Defaults to 1000.
+     */
+    public KeysetPaginator pageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1");
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Sets whether the pages go from the highest key to the lowest. Defaults to false.
+     */
+    public KeysetPaginator descending(boolean descending) {
+        this.descending = descending;
+        return this;
+    }
+
+    /**
+     * @return the first page
+     * @throws RuntimeException if the query fails
+     */
+    public Page first() {
+        return fetch(null);
+    }
+
+    /**
+     * Returns the page that follows the one that produced {@code token}.
+     *
+     * @param token the {@link Page#nextToken()} of the previous page
+     * @return the next page
+     * @throws IllegalArgumentException if the token is not a token of this paginator
+     * @throws RuntimeException         if the query fails
+     */
+    public Page next(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("The token of the last page has no next page.");
+        }
+        return fetch(token);
+    }
+
+    private Page fetch(String token) {
+        String[] key = token == null ? null : decode(token);
+        StatementCache.Key cacheKey = new StatementCache.Key("KEYSET", table, keyColumn,
+                String.valueOf(filterField), Boolean.toString(descending), Boolean.toString(key != null),
+                Integer.toString(pageSize));
+        try (StatementCache.CachedStatement cached = StatementCache.acquire(connection, cacheKey, () -> buildQuery(key != null))) {
+            PreparedStatement statement = cached.statement();
+            int index = 1;
+            if (filterField != null) {
+                statement.setString(index++, filterValue);
+            }
+            if (key != null) {
+                if (LONG_KEY.equals(key[0])) {
+                    statement.setLong(index, Long.parseLong(key[1]));
+                } else {
+                    statement.setString(index, key[1]);
+                }
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return readPage(resultSet);
+            }
+        } catch (SQLException e) {
+            logger.error("An error occurred while paginating " + table, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private Page readPage(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        String[] labels = new String[columnCount];
+        int keyIndex = -1;
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            if (labels[i].equalsIgnoreCase(keyColumn)) {
+                keyIndex = i;
+            }
+        }
+        if (keyIndex < 0) {
+            throw new IllegalArgumentException("Key column " + keyColumn + " not found in " + table);
+        }
+        String kind = isInteger(metaData.getColumnType(keyIndex + 1)) ? LONG_KEY : STRING_KEY;
+
+        List<String[]> rows = new ArrayList<>(pageSize);
+        boolean more = false;
+        while (resultSet.next()) {
+            if (rows.size() == pageSize) {
+                more = true;
+                break;
+            }
+            String[] row = new String[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getString(i + 1);
+            }
+            rows.add(row);
+        }
+        String nextToken = more ? encode(kind, rows.get(rows.size() - 1)[keyIndex]) : null;
+        return new Page(labels, rows, nextToken);
+    }
+
+    private String buildQuery(boolean afterKey) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(table);
+        String connector = " WHERE ";
+        if (filterField != null) {
+            sql.append(connector).append(filterField).append(" = ?");
+            connector = " AND ";
+        }
+        if (afterKey) {
+            sql.append(connector).append(keyColumn).append(descending ? " < ?" : " > ?");
+        }
+        sql.append(" ORDER BY ").append(keyColumn).append(descending ? " DESC" : " ASC");
+        // Se pide una fila de más para saber si hay otra página sin una segunda consulta
+        return SQLDialects.forConnection(connection).limit(sql.toString(), pageSize + 1);
+    }
+
+    private static boolean isInteger(int sqlType) {
+        return sqlType == Types.TINYINT || sqlType == Types.SMALLINT || sqlType == Types.INTEGER || sqlType == Types.BIGINT;
+    }
+
+    private static String encode(String kind, String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((kind + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed page token: " + token, e);
+        }
+        String[] key = decoded.split(":", 2);
+        if (key.length != 2 || !(LONG_KEY.equals(key[0]) || STRING_KEY.equals(key[0]))) {
+            throw new IllegalArgumentException("Malformed page token: " + token);
+        }
+        return key;
+    }
+}
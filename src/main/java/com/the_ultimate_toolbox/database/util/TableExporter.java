@@ -0,0 +1,408 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.core.AsyncQueryExecutor;
+import com.the_ultimate_toolbox.database.core.ConnectionPool;
+import com.the_ultimate_toolbox.database.jdbc.ResultCursor;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.simple.JSONValue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Exports a table to CSV or JSON by reading ranges of its primary key in parallel.
+ *
+ * <p>The key range {@code [MIN(key), MAX(key)]} is split into equal-width partitions, and every partition is
+ * read over its own pooled connection with a streaming {@link ResultCursor} and written straight to disk, so
+ * the export runs in constant memory and scales with the number of connections. Partitions are run through an
+ * {@link AsyncQueryExecutor}, never holding more connections than the pool has.</p>
+ *
+ * <pre>{@code
+ * TableExporter.Result result = new TableExporter(pool, "ventas", "ID_ventas")
+ *         .partitions(8)
+ *         .exportToFile("ventas.csv");
+ * }</pre>
+ *
+ * <p>{@link #exportToDirectory(String)} leaves one file per partition. {@link #exportToFile(String)} writes
+ * the partitions to temporary files next to the target and then appends them in key order, so the output is
+ * sorted by key as a single {@code SELECT ... ORDER BY key} would be. The key must be an integer column;
+ * partitions are equal in key width, not in row count, so a table with large gaps in its keys gets uneven
+ * partitions.</p>
+ *
+ * <p>CSV output uses {@code ;} like {@code UniversalCSVReaderAndWriter}; fields that contain the delimiter, a
+ * quote or a line break are quoted, and NULL is written as an empty field. JSON output is an array of objects
+ * keyed by column label, like {@code JSON_Handler.csvToJson}, with NULL written as {@code null}.</p>
+ */
+public class TableExporter {
+
+    private static final Logger logger = LogManager.getLogger(TableExporter.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The output format.
+     */
+    public enum Format {
+        CSV(".csv"),
+        JSON(".json");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final String table;
+    private final String keyColumn;
+    private Format format = Format.CSV;
+    private int partitions;
+    private char delimiter = ';';
+    private boolean header = true;
+    private Charset charset = StandardCharsets.UTF_8;
+    private int fetchSize = ResultCursor.STREAMING;
+
+    /**
+     * Creates an exporter for the given table.
+     *
+     * @param pool      the pool the partitions borrow their connections from
+     * @param table     the name of the table
+     * @param keyColumn the integer column the table is partitioned on, typically the primary key
+     */
+    public TableExporter(ConnectionPool pool, String table, String keyColumn) {
+        this.pool = pool;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.partitions = pool.getMaxSize();
+    }
+
+    /**
+     * Sets the output format. Defaults to CSV.
+     */
+    public TableExporter format(Format format) {
+        this.format = format;
+        return this;
+    }
+
+    /**
+     * Sets the number of key ranges the table is split into. Defaults to the maximum size of the pool; more
+     * partitions than connections queue until a connection is free.
+     */
+    public TableExporter partitions(int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be at least 1");
+        }
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * Sets the CSV field delimiter. Defaults to {@code ;}.
+     */
+    public TableExporter delimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Sets whether CSV output starts with a row of column labels. Defaults to true.
+     */
+    public TableExporter header(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    /**
+     * Sets the charset of the output. Defaults to UTF-8.
+     */
+    public TableExporter charset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows fetched per round trip. Defaults to {@link ResultCursor#STREAMING}.
+     */
+    public TableExporter fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Exports every partition to its own file, named {@code <table>_<partition>.csv} or {@code .json}.
+     *
+     * @param directory the directory to write to; it is created if missing
+     * @return the number of rows exported and the files written, in key order
+     * @throws RuntimeException if a partition cannot be read or written; the files already written are deleted
+     */
+    public Result exportToDirectory(String directory) {
+        long start = System.nanoTime();
+        Path dir = Paths.get(directory);
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating export directory: " + directory, e);
+        }
+        List<long[]> ranges = ranges();
+        List<Path> files = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            files.add(dir.resolve(table + "_" + i + format.extension));
+        }
+        List<Long> counts = run(ranges, files, false);
+        return new Result(sum(counts), files, System.nanoTime() - start);
+    }
+
+    /**
+     * Exports the table to a single file, ordered by key.
+     *
+     * @param filePath the file to write; it is replaced if it exists
+     * @return the number of rows exported
+     * @throws RuntimeException if a partition cannot be read or written; no output file is left behind
+     */
+    public Result exportToFile(String filePath) {
+        long start = System.nanoTime();
+        Path target = Paths.get(filePath).toAbsolutePath();
+        List<long[]> ranges = ranges();
+        List<Path> parts = new ArrayList<>(ranges.size());
+        try {
+            for (int i = 0; i < ranges.size(); i++) {
+                parts.add(Files.createTempFile(target.getParent(), target.getFileName() + "." + i + ".", ".part"));
+            }
+            List<Long> counts = run(ranges, parts, true);
+            concatenate(parts, counts, target);
+            return new Result(sum(counts), List.of(target), System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing export file: " + filePath, e);
+        } finally {
+            deleteQuietly(parts);
+        }
+    }
+
+    /**
+     * Splits {@code [MIN(key), MAX(key)]} into at most {@link #partitions} inclusive ranges.
+     */
+    private List<long[]> ranges() {
+        long min;
+        long max;
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MIN(" + keyColumn + "), MAX(" + keyColumn + ") FROM " + table)) {
+            resultSet.next();
+            min = resultSet.getLong(1);
+            max = resultSet.getLong(2);
+            if (resultSet.wasNull()) {
+                // Tabla vacía: una sola partición que no devuelve filas
+                return List.<long[]>of(new long[]{1, 0});
+            }
+        } catch (SQLException e) {
+            logger.error("An error occurred while reading the key range of " + table, e);
+            throw new RuntimeException(e);
+        }
+        long width = (max - min) / partitions + 1;
+        List<long[]> ranges = new ArrayList<>(partitions);
+        for (long from = min; from <= max; from += width) {
+            long to = max - from < width ? max : from + width - 1;
+            ranges.add(new long[]{from, to});
+            if (to == max) {
+                break;
+            }
+        }
+        return ranges;
+    }
+
+    private List<Long> run(List<long[]> ranges, List<Path> files, boolean fragments) {
+        List<AsyncQueryExecutor.ConnectionCallback<Long>> tasks = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            Path file = files.get(i);
+            // En un único fichero solo la primera partición lleva cabecera y los corchetes los pone concatenate()
+            boolean withHeader = header && (!fragments || i == 0);
+            tasks.add(connection -> exportRange(connection, range[0], range[1], file, withHeader, fragments));
+        }
+        try (AsyncQueryExecutor executor = new AsyncQueryExecutor(pool)) {
+            return executor.<Long>submitAll(tasks).join();
+        } catch (CompletionException e) {
+            if (!fragments) {
+                deleteQuietly(files);
+            }
+            Throwable cause = e.getCause();
+            logger.error("An error occurred while exporting " + table, cause);
+            throw cause instanceof RuntimeException runtime ? runtime : new RuntimeException(cause);
+        }
+    }
+
+    private long exportRange(Connection connection, long from, long to, Path file, boolean withHeader,
+                             boolean fragment) throws SQLException {
+        try (ResultCursor cursor = SQLinteractions.cursorByKeyRange(connection, table, keyColumn, from, to, fetchSize);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), charset), BUFFER_SIZE)) {
+            String[] labels = cursor.getColumnLabels();
+            long rows = 0;
+            if (format == Format.CSV) {
+                if (withHeader) {
+                    writeCsvRow(writer, labels);
+                }
+                while (cursor.hasNext()) {
+                    writeCsvRow(writer, cursor.next());
+                    rows++;
+                }
+            } else {
+                if (!fragment) {
+                    writer.write('[');
+                }
+                while (cursor.hasNext()) {
+                    writer.write(rows == 0 ? "\n" : ",\n");
+                    writeJsonObject(writer, labels, cursor.next());
+                    rows++;
+                }
+                if (!fragment) {
+                    writer.write("\n]");
+                }
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing " + file, e);
+        }
+    }
+
+    private void writeCsvRow(Writer writer, String[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(delimiter);
+            }
+            String value = row[i];
+            if (value == null) {
+                continue;
+            }
+            if (needsQuotes(value)) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write('\n');
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeJsonObject(Writer writer, String[] labels, String[] row) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < labels.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(JSONValue.escape(labels[i]));
+            writer.write("\":");
+            if (row[i] == null) {
+                writer.write("null");
+            } else {
+                writer.write('"');
+                writer.write(JSONValue.escape(row[i]));
+                writer.write('"');
+            }
+        }
+        writer.write('}');
+    }
+
+    /**
+     * Appends the partition files to the target in key order, with the JSON array brackets and the commas
+     * between non-empty partitions.
+     */
+    private void concatenate(List<Path> parts, List<Long> counts, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream separators = Channels.newOutputStream(out);
+            boolean json = format == Format.JSON;
+            boolean first = true;
+            if (json) {
+                separators.write("[".getBytes(charset));
+            }
+            for (int i = 0; i < parts.size(); i++) {
+                if (json && counts.get(i) == 0) {
+                    continue;
+                }
+                if (json && !first) {
+                    separators.write(",".getBytes(charset));
+                }
+                first = false;
+                try (FileChannel in = FileChannel.open(parts.get(i), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            if (json) {
+                separators.write("\n]".getBytes(charset));
+            }
+        }
+    }
+
+    private static long sum(List<Long> counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Outcome of an export.
+     *
+     * @param rowsExported the number of rows written
+     * @param files        the files written, in key order
+     * @param elapsedNanos the wall-clock time of the export
+     */
+    public record Result(long rowsExported, List<Path> files, long elapsedNanos) {
+
+        /**
+         * @return the export rate in rows per second
+         */
+        public double rowsPerSecond() {
+            return elapsedNanos == 0 ? 0 : rowsExported * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily pulled view over the rows of a CSV file, opened by {@link CSVStreamReader}.
+ *
+ * <p>The file is read through a fixed-size character buffer and every row is parsed into the same
+ * {@link CSVRow}, so memory depends on the longest row and not on the size of the file. The row returned by
+ * {@link #next()} is overwritten by the following call to {@link #hasNext()} or {@link #next()}; copy it with
+ * {@link CSVRow#toArray()} to keep it.</p>
+ *
+ * <p>Fields may be quoted: a quoted field can contain the delimiter, line breaks and doubled quotes. Lines may
+ * end with {@code \n}, {@code \r\n} or {@code \r}, and empty lines are skipped. The cursor closes the file
+ * when the last row has been read; close it explicitly (or use try-with-resources) when you stop early.</p>
+ */
+public class CSVCursor implements Iterator<CSVRow>, AutoCloseable {
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char quote;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private boolean firstFill = true;
+    private boolean pendingLineFeed;
+    private long line = 1;
+
+    private final CSVRow row = new CSVRow();
+    private final String[] header;
+    private long rowsRead;
+    private boolean advanced;
+    private boolean hasNext;
+    private boolean closed;
+
+    CSVCursor(Reader reader, char delimiter, char quote, int bufferSize, boolean header) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.buffer = new char[bufferSize];
+        try {
+            this.header = header && readRow() ? row.toArray() : null;
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the fields of the header row, or null if the reader was not told the file has one, or the file
+     * is empty
+     */
+    public String[] getHeader() {
+        return header == null ? null : header.clone();
+    }
+
+    /**
+     * @return the number of data rows returned so far
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced) {
+            if (closed) {
+                return false;
+            }
+            hasNext = readRow();
+            advanced = true;
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    /**
+     * @return the next row; the same instance every time
+     */
+    @Override
+    public CSVRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        advanced = false;
+        rowsRead++;
+        return row;
+    }
+
+    /**
+     * Returns the remaining rows as a sequential stream. Closing the stream closes the cursor. Every element is
+     * the same reused {@link CSVRow}: map it to {@link CSVRow#toArray()} before collecting.
+     *
+     * @return a lazily populated stream of rows
+     */
+    public Stream<CSVRow> stream() {
+        Spliterator<CSVRow> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Error closing CSV file", e);
+        }
+    }
+
+    private boolean readRow() {
+        try {
+            return parseRow();
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    /**
+     * Parses the next non-empty record into {@link #row}.
+     *
+     * @return false at the end of the file
+     */
+    private boolean parseRow() throws IOException {
+        row.clear(line);
+        boolean inQuotes = false;
+        // Se acaba de cerrar un campo entre comillas: otra comilla justo después es una comilla escapada
+        boolean afterClosingQuote = false;
+        boolean fieldQuoted = false;
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (inQuotes) {
+                    throw new IOException("Unterminated quoted field starting on line " + row.getLineNumber());
+                }
+                if (row.size() == 0 && row.currentFieldEmpty() && !fieldQuoted) {
+                    return false;
+                }
+                row.endField();
+                return true;
+            }
+            char[] buf = buffer;
+            if (pendingLineFeed) {
+                pendingLineFeed = false;
+                if (buf[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            if (inQuotes) {
+                int start = position;
+                while (position < limit && buf[position] != quote) {
+                    if (buf[position] == '\n') {
+                        line++;
+                    }
+                    position++;
+                }
+                row.append(buf, start, position);
+                if (position < limit) {
+                    position++;
+                    inQuotes = false;
+                    afterClosingQuote = true;
+                }
+                continue;
+            }
+            char c = buf[position];
+            if (afterClosingQuote) {
+                afterClosingQuote = false;
+                if (c == quote) {
+                    row.append(quote);
+                    position++;
+                    inQuotes = true;
+                    continue;
+                }
+            }
+            if (c == delimiter) {
+                position++;
+                row.endField();
+                fieldQuoted = false;
+            } else if (c == '\n' || c == '\r') {
+                position++;
+                line++;
+                pendingLineFeed = c == '\r';
+                if (row.size() == 0 && row.currentFieldEmpty() && !fieldQuoted) {
+                    // Línea vacía
+                    row.clear(line);
+                    continue;
+                }
+                row.endField();
+                return true;
+            } else if (c == quote && row.currentFieldEmpty() && !fieldQuoted) {
+                position++;
+                inQuotes = true;
+                fieldQuoted = true;
+            } else {
+                // The first character is plain text even if it is a stray quote; copy the run up to the next special one
+                int start = position++;
+                while (position < limit) {
+                    char d = buf[position];
+                    if (d == delimiter || d == '\n' || d == '\r' || d == quote) {
+                        break;
+                    }
+                    position++;
+                }
+                row.append(buf, start, position);
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            endOfInput = true;
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        if (firstFill) {
+            firstFill = false;
+            // Saltar el BOM que algunos programas escriben al principio de los ficheros UTF-8
+            if (buffer[0] == '\uFEFF') {
+                position = 1;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,114 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import java.util.Arrays;
+
+/**
+ * One record of a CSV file, as read by a {@link CSVCursor}.
+ *
+ * <p>The cursor reuses a single instance for every row: the characters of all fields are kept in one buffer
+ * that only grows when a row is longer than every previous one, and a field is only turned into a
+ * {@code String} when {@link #get(int)} asks for it. A row is therefore only valid until the cursor moves on;
+ * use {@link #toArray()} to keep a copy.</p>
+ */
+public final class CSVRow {
+
+    private char[] chars = new char[256];
+    private int length;
+    private int[] ends = new int[16];
+    private int size;
+    private long lineNumber;
+
+    CSVRow() {
+    }
+
+    /**
+     * @return the number of fields of the row
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return the field, without its quotes
+     * @throws IndexOutOfBoundsException if the row has no such field
+     */
+    public String get(int index) {
+        int start = start(index);
+        return new String(chars, start, ends[index] - start);
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return whether the field is empty; cheaper than {@code get(index).isEmpty()}
+     */
+    public boolean isEmpty(int index) {
+        return ends[index] == start(index);
+    }
+
+    /**
+     * @return the line of the file the row starts on, starting at 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return a copy of the fields that stays valid after the cursor moves on
+     */
+    public String[] toArray() {
+        String[] out = new String[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = get(i);
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int start(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Field " + index + " of a row with " + size + " fields");
+        }
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    void clear(long lineNumber) {
+        this.lineNumber = lineNumber;
+        length = 0;
+        size = 0;
+    }
+
+    /**
+     * @return whether nothing has been appended to the field being read
+     */
+    boolean currentFieldEmpty() {
+        return length == (size == 0 ? 0 : ends[size - 1]);
+    }
+
+    void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    void append(char[] source, int from, int to) {
+        int count = to - from;
+        if (length + count > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(length + count, chars.length * 2));
+        }
+        System.arraycopy(source, from, chars, length, count);
+        length += count;
+    }
+
+    void endField() {
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        ends[size++] = length;
+    }
+}
@@ -0,0 +1,137 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads CSV files of any size one row at a time.
+ *
+ * <p>Unlike {@code UniversalCSVReaderAndWriter.readCSV}, which loads the whole file into an
+ * {@code ArrayList<String[]>}, this reader never holds more than one row: rows can be pulled with a
+ * {@link CSVCursor} or a {@link Stream}, or pushed to a callback with {@link #forEach(String, Consumer)}. Every
+ * row is parsed into the same reused {@link CSVRow}, so memory stays flat regardless of the file size.</p>
+ *
+ * <pre>{@code
+ * CSVStreamReader reader = new CSVStreamReader().delimiter(',').header(true);
+ * long rows = reader.forEach("partner_feed.csv", row -> totals.merge(row.get(2), 1L, Long::sum));
+ *
+ * try (Stream<CSVRow> rows = reader.stream("partner_feed.csv")) {
+ *     List<String[]> spanish = rows.filter(row -> row.get(3).equals("ES")).map(CSVRow::toArray).toList();
+ * }
+ * }</pre>
+ */
+public class CSVStreamReader {
+
+    private char delimiter = ';';
+    private char quote = '"';
+    private Charset charset = StandardCharsets.UTF_8;
+    private boolean header = false;
+    private int bufferSize = 64 * 1024;
+
+    /**
+     * Sets the field delimiter. Defaults to {@code ;} like {@code UniversalCSVReaderAndWriter}.
+     */
+    public CSVStreamReader delimiter(char delimiter) {
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Sets the character that encloses fields containing delimiters, quotes or line breaks. Defaults to
+     * {@code "}.
+     */
+    public CSVStreamReader quote(char quote) {
+        this.quote = quote;
+        return this;
+    }
+
+    /**
+     * Sets the charset of the file. Defaults to UTF-8. Bytes that are not valid in the charset are an error.
+     */
+    public CSVStreamReader charset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Sets whether the first row is a header. When it is, it is available from {@link CSVCursor#getHeader()}
+     * and is not returned as a row. Defaults to false.
+     */
+    public CSVStreamReader header(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    /**
+     * Sets the size, in characters, of the read buffer. Defaults to 64K.
+     */
+    public CSVStreamReader bufferSize(int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    /**
+     * Opens a cursor over the rows of a file.
+     *
+     * @param filePath the path to the CSV file
+     * @return an open cursor; close it if it is not read to the end
+     * @throws RuntimeException if the file cannot be opened
+     */
+    public CSVCursor open(String filePath) {
+        try {
+            return open(Files.newInputStream(Paths.get(filePath)));
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    /**
+     * Opens a cursor over the rows of a stream. Closing the cursor closes the stream.
+     *
+     * @param input the CSV data
+     * @return an open cursor; close it if it is not read to the end
+     */
+    public CSVCursor open(InputStream input) {
+        // Un decodificador propio informa de los bytes inválidos en lugar de reemplazarlos en silencio
+        return new CSVCursor(new InputStreamReader(input, charset.newDecoder()), delimiter, quote, bufferSize, header);
+    }
+
+    /**
+     * Returns the rows of a file as a lazily populated stream. Close the stream, or use try-with-resources, to
+     * close the file. Every element is the same reused {@link CSVRow}: map it to {@link CSVRow#toArray()}
+     * before collecting.
+     *
+     * @param filePath the path to the CSV file
+     * @return a sequential stream of rows
+     */
+    public Stream<CSVRow> stream(String filePath) {
+        return open(filePath).stream();
+    }
+
+    /**
+     * Passes every row of a file to a callback, in order.
+     *
+     * @param filePath the path to the CSV file
+     * @param action   called once per row; the row is only valid during the call
+     * @return the number of rows read, not counting the header
+     * @throws RuntimeException if the file cannot be read; rows before the failure have been processed
+     */
+    public long forEach(String filePath, Consumer<? super CSVRow> action) {
+        try (CSVCursor cursor = open(filePath)) {
+            while (cursor.hasNext()) {
+                action.accept(cursor.next());
+            }
+            return cursor.getRowsRead();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Parses CSV files by scanning the bytes of a memory-mapped file, without decoding them first.
+ *
+ * <p>This is the fast path for large files. Where {@link CSVStreamReader} decodes the whole file to characters
+ * and copies every field into a row buffer, this reader maps the file and hands the callback a
+ * {@link MappedCSVRow} that only records where each field starts and ends. Nothing is decoded or copied until
+ * a field is asked for, so a job that only looks at a few columns skips the decoding of the others. Quoting
+ * follows RFC 4180: a quoted field can contain the delimiter, line breaks and doubled quotes.</p>
+ *
+ * <p>Files larger than the mapping window (1 GB) are mapped one window at a time; a row cut by the end of a
+ * window is parsed again at the start of the next one. The charset must be ASCII-compatible (UTF-8, ISO-8859-1,
+ * windows-1252...), because delimiters, quotes and line breaks are looked for as single bytes.</p>
+ *
+ * <pre>{@code
+ * LongAdder units = new LongAdder();
+ * new MappedCSVReader().header(true).forEach("partner_feed.csv", row -> {
+ *     if (row.get(3).equals("ES")) {
+ *         units.add(row.getLong(5));
+ *     }
+ * });
+ * }</pre>
+ */
+public class MappedCSVReader {
+
+    private static final long DEFAULT_WINDOW_BYTES = 1L << 30;
+
+    private byte delimiter = ';';
+    private byte quote = '"';
+    private Charset charset = StandardCharsets.UTF_8;
+    private boolean header = false;
+    private long windowBytes = DEFAULT_WINDOW_BYTES;
+
+    /**
+     * Sets the field delimiter, which must be an ASCII character. Defaults to {@code ;} like
+     * {@code UniversalCSVReaderAndWriter}.
+     */
+    public MappedCSVReader delimiter(char delimiter) {
+        this.delimiter = ascii(delimiter, "delimiter");
+        return this;
+    }
+
+    /**
+     * Sets the character that encloses fields containing delimiters, quotes or line breaks, which must be an
+     * ASCII character. Defaults to {@code "}.
+     */
+    public MappedCSVReader quote(char quote) {
+        this.quote = ascii(quote, "quote");
+        return this;
+    }
+
+    /**
+     * Sets the charset fields are decoded with. Defaults to UTF-8.
+     *
+     * @throws IllegalArgumentException if the charset does not encode ASCII as single bytes
+     */
+    public MappedCSVReader charset(Charset charset) {
+        if (!Arrays.equals("\n\r;\"az09".getBytes(charset), "\n\r;\"az09".getBytes(StandardCharsets.US_ASCII))) {
+            throw new IllegalArgumentException(charset + " is not ASCII-compatible; use CSVStreamReader");
+        }
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Sets whether the first row is a header, which is then skipped. Defaults to false.
+     */
+    public MappedCSVReader header(boolean header) {
+        this.header = header;
+        return this;
+    }
+
+    /**
+     * Sets the size of the mapping window. Only tests need a smaller one.
+     */
+    MappedCSVReader windowBytes(long windowBytes) {
+        this.windowBytes = windowBytes;
+        return this;
+    }
+
+    /**
+     * Passes every row of a file to a callback, in order.
+     *
+     * @param filePath the path to the CSV file
+     * @param action   called once per row; the row is only valid during the call
+     * @return the number of rows read, not counting the header
+     * @throws RuntimeException if the file cannot be read, or a quoted field is not closed; rows before the
+     *                          failure have been processed
+     */
+    public long forEach(String filePath, Consumer<? super MappedCSVRow> action) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            return parse(channel, 0, channel.size(), 1, header, action);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    /**
+     * Parses the rows between two offsets of a file. {@code from} must be the start of a row, and {@code to}
+     * the end of one or the end of the file.
+     *
+     * @param firstLine the line number of the row at {@code from}
+     * @param skipFirst whether the first row is a header to skip
+     * @return the number of rows passed to the action
+     */
+    long parse(FileChannel channel, long from, long to, long firstLine, boolean skipFirst,
+               Consumer<? super MappedCSVRow> action) throws IOException {
+        MappedCSVRow row = new MappedCSVRow(charset, quote);
+        long rows = 0;
+        long line = firstLine;
+        boolean skip = skipFirst;
+        long base = from;
+        while (base < to) {
+            int length = (int) Math.min(windowBytes, to - base);
+            boolean last = base + length == to;
+            Scanner scanner = new Scanner(channel.map(FileChannel.MapMode.READ_ONLY, base, length), base, last, line);
+            if (base == 0 && charset.equals(StandardCharsets.UTF_8)) {
+                scanner.skipByteOrderMark();
+            }
+            while (scanner.next(row)) {
+                if (skip) {
+                    skip = false;
+                } else {
+                    action.accept(row);
+                    rows++;
+                }
+            }
+            if (last) {
+                break;
+            }
+            if (scanner.position == 0) {
+                throw new IOException("The row on line " + scanner.line + " is longer than the mapping window");
+            }
+            // La fila cortada por el final de la ventana se vuelve a leer al principio de la siguiente
+            base += scanner.position;
+            line = scanner.line;
+        }
+        return rows;
+    }
+
+    byte getDelimiter() {
+        return delimiter;
+    }
+
+    byte getQuote() {
+        return quote;
+    }
+
+    boolean hasHeader() {
+        return header;
+    }
+
+    private static byte ascii(char c, String name) {
+        if (c > 127) {
+            throw new IllegalArgumentException("The " + name + " must be an ASCII character");
+        }
+        return (byte) c;
+    }
+
+    /**
+     * Finds the rows of one mapped window.
+     */
+    private final class Scanner {
+
+        private final MappedByteBuffer buffer;
+        private final long base;
+        private final int limit;
+        private final boolean last;
+        /** Start of the next row. */
+        private int position;
+        /** Line number of the next row. */
+        private long line;
+
+        Scanner(MappedByteBuffer buffer, long base, boolean last, long line) {
+            this.buffer = buffer;
+            this.base = base;
+            this.limit = buffer.limit();
+            this.last = last;
+            this.line = line;
+        }
+
+        void skipByteOrderMark() {
+            if (limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+                position = 3;
+            }
+        }
+
+        /**
+         * Parses the next non-empty row into {@code row}.
+         *
+         * @return false when the window holds no complete row any more; {@link #position} is then the start of
+         * the cut row, or the end of the window
+         */
+        boolean next(MappedCSVRow row) throws IOException {
+            MappedByteBuffer buf = buffer;
+            byte delimiter = MappedCSVReader.this.delimiter;
+            byte quote = MappedCSVReader.this.quote;
+            while (position < limit) {
+                int p = position;
+                int lines = 0;
+                row.reset(buf, base, line);
+                while (true) {
+                    int start = p;
+                    boolean quoted = p < limit && buf.get(p) == quote;
+                    if (quoted) {
+                        p++;
+                        while (true) {
+                            if (p >= limit) {
+                                if (last) {
+                                    throw new IOException("Unterminated quoted field starting on line " + line);
+                                }
+                                return false;
+                            }
+                            byte b = buf.get(p++);
+                            if (b == quote) {
+                                if (p < limit && buf.get(p) == quote) {
+                                    p++;
+                                    continue;
+                                }
+                                if (p >= limit && !last) {
+                                    // Sin el byte siguiente no se sabe si la comilla está escapada
+                                    return false;
+                                }
+                                break;
+                            }
+                            if (b == '\n') {
+                                lines++;
+                            }
+                        }
+                    }
+                    while (p < limit) {
+                        byte b = buf.get(p);
+                        if (b == delimiter || b == '\n' || b == '\r') {
+                            break;
+                        }
+                        p++;
+                    }
+                    if (p >= limit && !last) {
+                        return false;
+                    }
+                    row.addField(start, p, quoted);
+                    if (p >= limit) {
+                        break;
+                    }
+                    byte b = buf.get(p++);
+                    if (b == delimiter) {
+                        continue;
+                    }
+                    if (b == '\r') {
+                        if (p < limit) {
+                            if (buf.get(p) == '\n') {
+                                p++;
+                            }
+                        } else if (!last) {
+                            return false;
+                        }
+                    }
+                    lines++;
+                    break;
+                }
+                position = p;
+                line += lines;
+                if (row.size() > 1 || !row.isEmpty(0) || row.isQuoted(0)) {
+                    return true;
+                }
+                // Línea vacía
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * One record of a CSV file, as a view over the bytes of a memory-mapped file read by {@link MappedCSVReader}.
+ *
+ * <p>The row does not copy anything: it records where every field starts and ends in the mapped file, and a
+ * field is only decoded when {@link #get(int)} or {@link #getLong(int)} asks for it. Quoted fields keep their
+ * quotes in the view; they are removed, and doubled quotes collapsed, when the field is decoded. The reader
+ * reuses a single instance for every row, so a row is only valid during the callback it was passed to.</p>
+ */
+public final class MappedCSVRow {
+
+    private final Charset charset;
+    private final byte quote;
+    private ByteBuffer buffer;
+    private long base;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] quoted = new boolean[16];
+    private int size;
+    private long lineNumber;
+    private byte[] scratch = new byte[256];
+
+    MappedCSVRow(Charset charset, byte quote) {
+        this.charset = charset;
+        this.quote = quote;
+    }
+
+    /**
+     * @return the number of fields of the row
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the line of the file the row starts on, starting at 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return the position in the file of the first byte of the field, its opening quote if it is quoted
+     */
+    public long offset(int index) {
+        check(index);
+        return base + starts[index];
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return the number of bytes of the field in the file, quotes included
+     */
+    public int length(int index) {
+        check(index);
+        return ends[index] - starts[index];
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return whether the field is enclosed in quotes
+     */
+    public boolean isQuoted(int index) {
+        check(index);
+        return quoted[index];
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return whether the field has no content; an empty quoted field ({@code ""}) is empty too
+     */
+    public boolean isEmpty(int index) {
+        check(index);
+        return ends[index] - starts[index] == (quoted[index] ? 2 : 0);
+    }
+
+    /**
+     * Decodes a field.
+     *
+     * @param index the position of the field, starting at 0
+     * @return the field, without its quotes
+     */
+    public String get(int index) {
+        check(index);
+        int start = starts[index];
+        int length = ends[index] - start;
+        byte[] bytes = scratch(length);
+        buffer.get(start, bytes, 0, length);
+        if (!quoted[index]) {
+            return new String(bytes, 0, length, charset);
+        }
+        // Quitar las comillas: el mismo autómata que el lector, sobre los bytes del campo
+        int out = 0;
+        boolean inQuotes = false;
+        boolean afterClosingQuote = false;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (inQuotes) {
+                if (b == quote) {
+                    inQuotes = false;
+                    afterClosingQuote = true;
+                } else {
+                    bytes[out++] = b;
+                }
+            } else if (b == quote && (i == 0 || afterClosingQuote)) {
+                if (afterClosingQuote) {
+                    bytes[out++] = b;
+                }
+                inQuotes = true;
+                afterClosingQuote = false;
+            } else {
+                bytes[out++] = b;
+                afterClosingQuote = false;
+            }
+        }
+        return new String(bytes, 0, out, charset);
+    }
+
+    /**
+     * Parses a field as a {@code long} straight from the mapped bytes, without decoding it to a {@code String}.
+     *
+     * @param index the position of the field, starting at 0
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not a decimal integer
+     */
+    public long getLong(int index) {
+        check(index);
+        int start = starts[index];
+        int end = ends[index];
+        // Los campos entre comillas y los que podrían desbordar van por el camino lento
+        if (quoted[index] || end - start > 18 || end == start) {
+            return Long.parseLong(get(index));
+        }
+        boolean negative = false;
+        int position = start;
+        byte first = buffer.get(position);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            position++;
+            if (position == end) {
+                throw new NumberFormatException("For input string: \"" + get(index) + "\"");
+            }
+        }
+        long value = 0;
+        for (; position < end; position++) {
+            int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + get(index) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @param index the position of the field, starting at 0
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not a decimal integer in the range of {@code int}
+     */
+    public int getInt(int index) {
+        long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of range for int: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @return a copy of the decoded fields that stays valid after the callback returns
+     */
+    public String[] toArray() {
+        String[] out = new String[size];
+        for (int i = 0; i < size; i++) {
+            out[i] = get(i);
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private void check(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Field " + index + " of a row with " + size + " fields");
+        }
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    void reset(ByteBuffer buffer, long base, long lineNumber) {
+        this.buffer = buffer;
+        this.base = base;
+        this.lineNumber = lineNumber;
+        size = 0;
+    }
+
+    void addField(int start, int end, boolean isQuoted) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            quoted = Arrays.copyOf(quoted, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        quoted[size] = isQuoted;
+        size++;
+    }
+}
@@ -0,0 +1,303 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Parses a CSV file on several threads of a {@link ForkJoinPool}.
+ *
+ * <p>The file is cut into chunks of {@link #chunkBytes(long)} bytes, and every chunk is moved forward to the
+ * first record boundary inside it, so each range holds whole rows. A line break only ends a record when it is
+ * outside quotes, and whether it is depends on every quote before it. The split therefore works in two passes:
+ * all chunks are scanned in parallel, each counting its quotes and noting its first line break after an even
+ * and after an odd number of quotes; then a cheap sequential pass carries the quote parity from chunk to chunk
+ * and picks the right line break for each. The ranges are then parsed in parallel by {@link MappedCSVReader}.</p>
+ *
+ * <p>The split relies on RFC 4180 quoting: a quote may only open a field, close it, or be doubled inside it.
+ * A stray quote in the middle of an unquoted field, which the sequential readers accept as text, breaks the
+ * parity. Records must end with {@code \n} or {@code \r\n}; a file with {@code \r} line ends is parsed on one
+ * thread.</p>
+ *
+ * <pre>{@code
+ * LongAdder total = new LongAdder();
+ * new ParallelCSVReader().header(true).forEach("partner_feed.csv", row -> total.add(row.getLong(5)));
+ * }</pre>
+ */
+public class ParallelCSVReader {
+
+    private final MappedCSVReader parser = new MappedCSVReader();
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private long chunkBytes = 8L * 1024 * 1024;
+
+    /**
+     * Sets the field delimiter, which must be an ASCII character. Defaults to {@code ;}.
+     */
+    public ParallelCSVReader delimiter(char delimiter) {
+        parser.delimiter(delimiter);
+        return this;
+    }
+
+    /**
+     * Sets the quote character, which must be an ASCII character. Defaults to {@code "}.
+     */
+    public ParallelCSVReader quote(char quote) {
+        parser.quote(quote);
+        return this;
+    }
+
+    /**
+     * Sets the charset fields are decoded with, which must be ASCII-compatible. Defaults to UTF-8.
+     */
+    public ParallelCSVReader charset(Charset charset) {
+        parser.charset(charset);
+        return this;
+    }
+
+    /**
+     * Sets whether the first row is a header, which is then skipped. Defaults to false.
+     */
+    public ParallelCSVReader header(boolean header) {
+        parser.header(header);
+        return this;
+    }
+
+    /**
+     * Sets the pool the chunks are parsed on. Defaults to the common pool.
+     */
+    public ParallelCSVReader pool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Sets the size of the chunks the file is cut into. Smaller chunks balance the threads better; larger ones
+     * cost less to schedule. With {@link #forEachOrdered(String, Consumer)} it also bounds the memory: at most
+     * twice the pool's parallelism chunks are held at once. Defaults to 8 MB.
+     */
+    public ParallelCSVReader chunkBytes(long chunkBytes) {
+        if (chunkBytes < 1) {
+            throw new IllegalArgumentException("chunkBytes must be at least 1");
+        }
+        this.chunkBytes = chunkBytes;
+        return this;
+    }
+
+    /**
+     * Passes every row of a file to a callback, from several threads at once and in no particular order.
+     *
+     * @param filePath the path to the CSV file
+     * @param action   called once per row, concurrently; it must be thread-safe, and the row is only valid
+     *                 during the call
+     * @return the number of rows read, not counting the header
+     * @throws RuntimeException if the file cannot be read or a chunk fails to parse
+     */
+    public long forEach(String filePath, Consumer<? super MappedCSVRow> action) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            List<Range> ranges = split(channel);
+            List<ForkJoinTask<Long>> tasks = new ArrayList<>(ranges.size());
+            for (Range range : ranges) {
+                tasks.add(pool.submit(() -> parse(channel, range, action)));
+            }
+            long rows = 0;
+            try {
+                for (ForkJoinTask<Long> task : tasks) {
+                    rows += join(task);
+                }
+            } finally {
+                // Si un trozo falla, los que aún no han empezado no llegan a llamar a la acción
+                tasks.forEach(task -> task.cancel(false));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    /**
+     * Passes every row of a file to a callback in file order, on the calling thread. The chunks are parsed in
+     * parallel ahead of the callback.
+     *
+     * @param filePath the path to the CSV file
+     * @param action   called once per row
+     * @return the number of rows read, not counting the header
+     * @throws RuntimeException if the file cannot be read or a chunk fails to parse; rows before the failing
+     *                          chunk have been processed
+     */
+    public long forEachOrdered(String filePath, Consumer<? super String[]> action) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            List<Range> ranges = split(channel);
+            int inFlight = 2 * pool.getParallelism();
+            Deque<ForkJoinTask<List<String[]>>> pending = new ArrayDeque<>(inFlight);
+            int next = 0;
+            long rows = 0;
+            try {
+                while (next < ranges.size() || !pending.isEmpty()) {
+                    while (next < ranges.size() && pending.size() < inFlight) {
+                        Range range = ranges.get(next++);
+                        pending.add(pool.submit(() -> {
+                            List<String[]> chunk = new ArrayList<>();
+                            parse(channel, range, row -> chunk.add(row.toArray()));
+                            return chunk;
+                        }));
+                    }
+                    for (String[] row : join(pending.poll())) {
+                        action.accept(row);
+                        rows++;
+                    }
+                }
+            } finally {
+                pending.forEach(task -> task.cancel(false));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    /**
+     * Reads every row of a file, in file order.
+     *
+     * @param filePath the path to the CSV file
+     * @return the rows, not counting the header
+     * @throws RuntimeException if the file cannot be read or a chunk fails to parse
+     */
+    public ArrayList<String[]> readAll(String filePath) {
+        ArrayList<String[]> rows = new ArrayList<>();
+        forEachOrdered(filePath, rows::add);
+        return rows;
+    }
+
+    /**
+     * A part of the file that holds whole records.
+     *
+     * @param from      the offset of its first record
+     * @param to        the offset just past its last record
+     * @param firstLine the line number of its first record
+     */
+    record Range(long from, long to, long firstLine) {
+    }
+
+    /**
+     * What a chunk knows about itself without looking at the chunks before it.
+     *
+     * @param quotes              the number of quote bytes in the chunk
+     * @param lineFeeds           the number of {@code \n} bytes in the chunk
+     * @param evenBreak           the offset of the first {@code \n} preceded by an even number of the chunk's
+     *                            quotes, or -1
+     * @param lineFeedsBeforeEven the number of {@code \n} of the chunk before {@code evenBreak}
+     * @param oddBreak            the same after an odd number of quotes
+     * @param lineFeedsBeforeOdd  the number of {@code \n} of the chunk before {@code oddBreak}
+     */
+    private record ChunkScan(long quotes, long lineFeeds, long evenBreak, long lineFeedsBeforeEven,
+                             long oddBreak, long lineFeedsBeforeOdd) {
+    }
+
+    /**
+     * Cuts the file into ranges of whole records.
+     */
+    List<Range> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int chunks = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+        List<ForkJoinTask<ChunkScan>> scans = new ArrayList<>(chunks);
+        // El primer trozo siempre empieza en 0: solo hacen falta sus totales, que se cuentan en este hilo
+        for (int i = 1; i < chunks; i++) {
+            long from = i * chunkBytes;
+            long to = Math.min(size, from + chunkBytes);
+            scans.add(pool.submit(() -> scan(channel, from, to)));
+        }
+        long quotes = 0;
+        long lineFeeds = 0;
+        if (chunks > 1) {
+            ChunkScan first = scan(channel, 0, chunkBytes);
+            quotes = first.quotes();
+            lineFeeds = first.lineFeeds();
+        }
+
+        List<Range> ranges = new ArrayList<>(chunks);
+        long start = 0;
+        long startLine = 1;
+        for (ForkJoinTask<ChunkScan> task : scans) {
+            ChunkScan scan = join(task);
+            boolean even = (quotes & 1) == 0;
+            long lineBreak = even ? scan.evenBreak() : scan.oddBreak();
+            if (lineBreak >= 0 && lineBreak + 1 < size) {
+                long boundaryLine = 1 + lineFeeds + (even ? scan.lineFeedsBeforeEven() : scan.lineFeedsBeforeOdd()) + 1;
+                ranges.add(new Range(start, lineBreak + 1, startLine));
+                start = lineBreak + 1;
+                startLine = boundaryLine;
+            }
+            // Sin salto de línea fuera de comillas, el trozo entero pertenece al rango anterior
+            quotes += scan.quotes();
+            lineFeeds += scan.lineFeeds();
+        }
+        if (start < size || ranges.isEmpty()) {
+            ranges.add(new Range(start, size, startLine));
+        }
+        return ranges;
+    }
+
+    private ChunkScan scan(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        byte quote = parser.getQuote();
+        int limit = buffer.limit();
+        long quotes = 0;
+        long lineFeeds = 0;
+        long evenBreak = -1;
+        long lineFeedsBeforeEven = 0;
+        long oddBreak = -1;
+        long lineFeedsBeforeOdd = 0;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == quote) {
+                quotes++;
+            } else if (b == '\n') {
+                if ((quotes & 1) == 0) {
+                    if (evenBreak < 0) {
+                        evenBreak = from + i;
+                        lineFeedsBeforeEven = lineFeeds;
+                    }
+                } else if (oddBreak < 0) {
+                    oddBreak = from + i;
+                    lineFeedsBeforeOdd = lineFeeds;
+                }
+                lineFeeds++;
+            }
+        }
+        return new ChunkScan(quotes, lineFeeds, evenBreak, lineFeedsBeforeEven, oddBreak, lineFeedsBeforeOdd);
+    }
+
+    private long parse(FileChannel channel, Range range, Consumer<? super MappedCSVRow> action) {
+        try {
+            return parser.parse(channel, range.from(), range.to(), range.firstLine(),
+                    range.from() == 0 && parser.hasHeader(), action);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV file", e);
+        }
+    }
+
+    private static <T> T join(ForkJoinTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading CSV file", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Error reading CSV file", e.getCause());
+        }
+    }
+}
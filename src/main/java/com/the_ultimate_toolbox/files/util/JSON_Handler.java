@@ -1,13 +1,22 @@
 package com.bufigol.fileManagment;
 
+import com.the_ultimate_toolbox.files.readers.CSVCursor;
+import com.the_ultimate_toolbox.files.readers.CSVRow;
+import com.the_ultimate_toolbox.files.readers.CSVStreamReader;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,74 +26,138 @@ import java.util.List;
  */
 public class JSON_Handler {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
-     * Converts CSV data to JSON format and writes it to a JSON file.
+     * The layout of the JSON written by {@link #csvToJson(String, String, Format)}.
+     */
+    public enum Format {
+        /** A single JSON array with one object per row. */
+        ARRAY,
+        /** JSON Lines: one object per line, with no enclosing array. */
+        LINES
+    }
+
+    /**
+     * Converts CSV data to JSON format and writes it to a JSON file, as an array of objects keyed by the
+     * header of the CSV.
      *
      * @param csvFilePath The path to the input CSV file
      * @param jsonFilePath The path to the output JSON file
      * @throws RuntimeException if an error occurs during reading, processing, or writing
+     * @see #csvToJson(String, String, Format)
      */
     public static void csvToJson(String csvFilePath, String jsonFilePath) {
-        // 1. Read CSV data
-        ArrayList<String[]> csvData = UniversalCSVReaderAndWriter.readCSV(csvFilePath);
-
-        // 2. Process data and create JSON structure
-        JSONArray jsonArray = convertToJSONArray(csvData);
-
-        // 3. Write JSON to file
-        writeJsonToFile(jsonArray, jsonFilePath);
+        csvToJson(csvFilePath, jsonFilePath, Format.ARRAY);
     }
 
     /**
-     * Converts the CSV data (list of String arrays) into a JSONArray.
+     * Converts CSV data to JSON format and writes it to a JSON file, one row at a time.
      *
-     * @param csvData The CSV data as a list of String arrays (rows)
-     * @return A JSONArray representing the converted data
+     * <p>The first row of the CSV is the header and gives the keys of every object, in the same order. Rows are
+     * read with a {@link CSVStreamReader} and every object is written straight to a buffered writer as soon as its
+     * row is parsed, so the conversion runs in constant memory whatever the size of the file. Quoted fields are
+     * understood; a row shorter than the header gets {@code null} for the missing keys, and fields beyond the
+     * header are ignored.</p>
+     *
+     * @param csvFilePath The path to the input CSV file, UTF-8 with {@code ;} as delimiter
+     * @param jsonFilePath The path to the output JSON file, written in UTF-8
+     * @param format Whether to write a JSON array or JSON Lines
+     * @return The number of objects written
+     * @throws RuntimeException if an error occurs during reading, processing, or writing
      */
-    private static JSONArray convertToJSONArray(ArrayList<String[]> csvData) {
-        JSONArray jsonArray = new JSONArray();
-        // Assuming the first row contains headers
-        String[] headers = csvData.get(0);
+    public static long csvToJson(String csvFilePath, String jsonFilePath, Format format) {
+        try (CSVCursor cursor = new CSVStreamReader().header(true).open(csvFilePath);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     Files.newOutputStream(Paths.get(jsonFilePath)), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            // Las claves se escapan una sola vez: "clave":
+            String[] header = cursor.getHeader();
+            String[] keys = new String[header == null ? 0 : header.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = (i == 0 ? "{\"" : ",\"") + JSONValue.escape(header[i]) + "\":";
+            }
+            long rows = 0;
+            if (format == Format.ARRAY) {
+                writer.write('[');
+            }
+            while (cursor.hasNext()) {
+                if (format == Format.ARRAY) {
+                    writer.write(rows == 0 ? "\n" : ",\n");
+                }
+                writeJsonObject(writer, keys, cursor.next());
+                if (format == Format.LINES) {
+                    writer.write('\n');
+                }
+                rows++;
+            }
+            if (format == Format.ARRAY) {
+                writer.write(rows == 0 ? "]" : "\n]");
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing JSON file", e);
+        }
+    }
 
-        // Iterate through rows (excluding header)
-        for (int i = 1; i < csvData.size(); i++) {
-            String[] row = csvData.get(i);
-            JSONObject jsonObject = new JSONObject();
-            // Create key-value pairs based on headers and row values
-            for (int j = 0; j < headers.length; j++) {
-                jsonObject.put(headers[j], row[j]);
+    private static void writeJsonObject(Writer writer, String[] keys, CSVRow row) throws IOException {
+        if (keys.length == 0) {
+            writer.write("{}");
+            return;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            writer.write(keys[i]);
+            if (i < row.size()) {
+                writer.write('"');
+                writeEscaped(writer, row.get(i));
+                writer.write('"');
+            } else {
+                writer.write("null");
             }
-            jsonArray.add(jsonObject);
         }
-        return jsonArray;
+        writer.write('}');
     }
 
     /**
-     * Writes the given JSONArray to a JSON file.
-     *
-     * @param jsonArray The JSONArray to write
-     * @param jsonFilePath The path to the output JSON file
-     * @throws RuntimeException if an error occurs while writing the file
+     * Writes a string escaped as {@link JSONValue#escape(String)} does, without building the escaped copy.
      */
-    private static void writeJsonToFile(JSONArray jsonArray, String jsonFilePath) {
-        try (FileWriter fileWriter = new FileWriter(jsonFilePath)) {
-            fileWriter.write(jsonArray.toJSONString());
-        } catch (IOException e) {
-            throw new RuntimeException("Error writing JSON file", e);
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        int run = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '/' -> "\\/";
+                case '\b' -> "\\b";
+                case '\f' -> "\\f";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c <= '\u001F' || (c >= '\u007F' && c <= '\u009F') || (c >= '\u2000' && c <= '\u20FF')
+                        ? String.format("\\u%04X", (int) c)
+                        : null;
+            };
+            if (escape != null) {
+                // Los tramos sin escapar se copian de una vez
+                writer.write(value, run, i - run);
+                writer.write(escape);
+                run = i + 1;
+            }
         }
+        writer.write(value, run, value.length() - run);
     }
 
     /**
      * Reads a name/value pair from a JSON file.
      *
-     * @param jsonFilePath The path to the JSON file
+     * @param jsonFilePath The path to the JSON file, in UTF-8
      * @param name         The name of the key to retrieve the value for
      * @return The value associated with the specified name, or null if not found
      * @throws RuntimeException if an error occurs during parsing or reading
      */
     public static String readValueFromJson(String jsonFilePath, String name) {
         JSONParser parser = new JSONParser();
-        try (FileReader reader = new FileReader(jsonFilePath)) {
+        try (Reader reader = Files.newBufferedReader(Paths.get(jsonFilePath), StandardCharsets.UTF_8)) {
             JSONObject jsonObject = (JSONObject) parser.parse(reader);
             return (String) jsonObject.get(name); // Cast to String assuming values are strings
         } catch (IOException | ParseException e) {
@@ -95,13 +168,13 @@ public class JSON_Handler {
     /**
      * Reads a JSON file and returns a list of JSON objects.
      *
-     * @param jsonFilePath The path to the JSON file
+     * @param jsonFilePath The path to the JSON file, in UTF-8
      * @return A list of JSONObject representing the objects in the JSON file
      * @throws RuntimeException if an error occurs during parsing or reading
      */
     public static List<JSONObject> readJsonObjects(String jsonFilePath) {
         JSONParser parser = new JSONParser();
-        try (FileReader reader = new FileReader(jsonFilePath)) {
+        try (Reader reader = Files.newBufferedReader(Paths.get(jsonFilePath), StandardCharsets.UTF_8)) {
             Object parsedData = parser.parse(reader);
             if (parsedData instanceof JSONArray jsonArray) {
                 List<JSONObject> jsonObjects = new ArrayList<>();
@@ -1,7 +1,10 @@
 package com.bufigol.fileManagment;
 
+import com.the_ultimate_toolbox.files.readers.ParallelCSVReader;
+
 import java.io.*;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 /**
  * This class provides static methods for reading, appending, and creating CSV files.
@@ -18,6 +21,7 @@ public class UniversalCSVReaderAndWriter {
      * 
      * This method reads a CSV file using a BufferedReader and returns a list of records, where each record is a String array.
      * It handles IOException and converts it into a RuntimeException for simplicity.
+     * The whole file is kept in memory; use {@link com.the_ultimate_toolbox.files.readers.CSVStreamReader} for large files.
      */
     public static ArrayList<String[]> readCSV(String filePath) {
         ArrayList<String[]> records = new ArrayList<>();
@@ -33,6 +37,35 @@ public class UniversalCSVReaderAndWriter {
         return records;
     }
 
+    /**
+     * Reads a CSV file on all the threads of the common fork-join pool and returns its records in file order.
+     *
+     * @param filePath The path to the CSV file.
+     * @return A list of records, where each record is a String array representing a row in the CSV file.
+     * @throws RuntimeException if an error occurs while reading the file.
+     *
+     * Unlike {@link #readCSV(String)}, quoted fields are understood: they may contain the delimiter, line breaks
+     * and doubled quotes. See {@link ParallelCSVReader} for how the file is split between threads.
+     */
+    public static ArrayList<String[]> readCSVParallel(String filePath) {
+        return new ParallelCSVReader().readAll(filePath);
+    }
+
+    /**
+     * Passes every record of a CSV file to a callback, parsing the file on all the threads of the common
+     * fork-join pool.
+     *
+     * @param filePath The path to the CSV file.
+     * @param action Called once per record, concurrently and in no particular order; it must be thread-safe.
+     * @return The number of records read.
+     * @throws RuntimeException if an error occurs while reading the file.
+     *
+     * Nothing is kept in memory, so this also works for files that do not fit in it.
+     */
+    public static long forEachRecordParallel(String filePath, Consumer<String[]> action) {
+        return new ParallelCSVReader().forEach(filePath, row -> action.accept(row.toArray()));
+    }
+
     /**
      * Appends a new record to a CSV file.
      *
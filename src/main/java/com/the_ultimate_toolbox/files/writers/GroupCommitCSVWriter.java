@@ -0,0 +1,549 @@
+package com.the_ultimate_toolbox.files.writers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A long-lived CSV file writer that many threads can share, writing their rows in groups.
+ *
+ * <p>{@code UniversalCSVReaderAndWriter.appendRecordToCSV} opens and closes the file for every row. This
+ * writer keeps the file open: callers format their row on their own thread and append it to a shared buffer,
+ * and a flusher thread writes the buffer to the file as one group as soon as it holds {@code flushChars}
+ * characters or its oldest row has waited {@code maxDelayMillis}, whichever comes first. While one group is
+ * being written the next one fills up, so a thousand threads writing one row each cost a handful of
+ * {@code write} calls, and with {@link Durability#FSYNC} a handful of {@code fsync}s instead of a thousand.</p>
+ *
+ * <pre>{@code
+ * try (GroupCommitCSVWriter writer = GroupCommitCSVWriter.builder("eventos.csv")
+ *         .header("fecha", "tipo", "detalle")
+ *         .durability(GroupCommitCSVWriter.Durability.FSYNC)
+ *         .build()) {
+ *     writer.write(fecha, "click", detalle).join();   // vuelve cuando la fila está en disco
+ * }
+ * }</pre>
+ *
+ * <p>Every row written between two flushes gets a copy of the same future, completed when its group has reached the
+ * file, or the disk under {@link Durability#FSYNC}; callers that do not need to know simply ignore it. The
+ * buffer is bounded: when it holds {@code capacityChars} characters, {@link #write(String...)} waits for the
+ * flusher, so a slow disk slows producers down instead of exhausting the heap. Fields are quoted when they
+ * contain the delimiter, a quote or a line break, with quotes doubled. After a write error every pending and
+ * later row fails with it.</p>
+ */
+public class GroupCommitCSVWriter implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(GroupCommitCSVWriter.class);
+    private static final int MAX_ROW_BUFFER_CHARS = 64 * 1024;
+
+    /**
+     * When the future of a row completes.
+     */
+    public enum Durability {
+        /** Once its group has been handed to the operating system: it survives a crash of the JVM. */
+        WRITE,
+        /** Once its group has been forced to the disk with {@code fsync}: it survives a power cut. */
+        FSYNC
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final char delimiter;
+    private final char quote;
+    private final String lineSeparator;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer bytes;
+    private final int flushChars;
+    private final int capacityChars;
+    private final long maxDelayNanos;
+    private final Durability durability;
+    private final ThreadLocal<StringBuilder> rowBuffers = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Condition room = lock.newCondition();
+    private StringBuilder pending;
+    private CompletableFuture<Void> pendingGroup = new CompletableFuture<>();
+    // Se completa después del grupo, cuando ya están completas las copias de todas sus filas
+    private CompletableFuture<Void> pendingFlush = new CompletableFuture<>();
+    private long pendingRows;
+    private long oldestRowNanos;
+    private CompletableFuture<Void> writingGroup;
+    private CompletableFuture<Void> writingFlush;
+    private boolean flushRequested;
+    private boolean closed;
+    private IOException failure;
+    private final Thread flusher;
+
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+
+    /**
+     * Point-in-time counters of a writer.
+     *
+     * @param rowsWritten   the number of rows written to the file
+     * @param bytesWritten  the number of bytes written to the file, header excluded
+     * @param groups        the number of groups written, one {@code write} sequence each
+     * @param syncs         the number of {@code fsync}s
+     * @param bufferedChars the number of characters waiting for the next group
+     */
+    public record Statistics(long rowsWritten, long bytesWritten, long groups, long syncs, int bufferedChars) {
+
+        /**
+         * @return the mean number of rows per group
+         */
+        public double rowsPerGroup() {
+            return groups == 0 ? 0 : (double) rowsWritten / groups;
+        }
+    }
+
+    private GroupCommitCSVWriter(Builder builder) throws IOException {
+        if (builder.flushChars < 1 || builder.capacityChars < builder.flushChars) {
+            throw new IllegalArgumentException("Invalid sizes: flushChars=" + builder.flushChars + ", capacityChars=" + builder.capacityChars);
+        }
+        this.path = builder.path;
+        this.delimiter = builder.delimiter;
+        this.quote = builder.quote;
+        this.lineSeparator = builder.lineSeparator;
+        // Como FileWriter: los caracteres que el charset no puede representar se sustituyen
+        this.encoder = builder.charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = ByteBuffer.allocateDirect(64 * 1024);
+        this.flushChars = builder.flushChars;
+        this.capacityChars = builder.capacityChars;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, builder.maxDelayMillis));
+        this.durability = builder.durability;
+        this.pending = new StringBuilder(flushChars);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            if (builder.header != null && channel.size() == 0) {
+                StringBuilder header = new StringBuilder();
+                appendRow(header, builder.header);
+                writeFully(header);
+                if (durability == Durability.FSYNC) {
+                    channel.force(false);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.flusher = new Thread(this::runFlusher, "csv-writer-" + path.getFileName());
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Starts building a writer that appends to the given file, creating it if needed.
+     *
+     * @param filePath the path to the CSV file
+     * @return a builder with the default settings
+     */
+    public static Builder builder(String filePath) {
+        return new Builder(Paths.get(filePath));
+    }
+
+    /**
+     * Appends a row, waiting for room if the buffer is full.
+     *
+     * @param fields the fields of the row; null fields are written empty
+     * @return a future of the row's group; it is the caller's own copy, so completing or cancelling it does not
+     * affect the other rows of the group. It completes when the group is durable as configured, and fails with the I/O error if the group could not be
+     * written, or with a {@link RejectedExecutionException} if the writer is closed or the caller is interrupted
+     * while waiting for room
+     */
+    public CompletableFuture<Void> write(String... fields) {
+        StringBuilder row = rowBuffers.get();
+        row.setLength(0);
+        appendRow(row, fields);
+        lock.lock();
+        try {
+            while (true) {
+                if (failure != null) {
+                    return CompletableFuture.failedFuture(failure);
+                }
+                if (closed) {
+                    return CompletableFuture.failedFuture(new RejectedExecutionException("The writer for " + path + " is closed"));
+                }
+                // Una fila más larga que el búfer entero cabe si el búfer está vacío
+                if (pending.length() == 0 || pending.length() + row.length() <= capacityChars) {
+                    break;
+                }
+                try {
+                    room.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return CompletableFuture.failedFuture(new RejectedExecutionException("Interrupted while waiting for room"));
+                }
+            }
+            if (pending.length() == 0) {
+                oldestRowNanos = System.nanoTime();
+                work.signal();
+            }
+            pending.append(row);
+            pendingRows++;
+            if (pending.length() >= flushChars) {
+                work.signal();
+            }
+            // Una copia: quien cancele o complete su futuro (orTimeout...) no toca el de las demás filas
+            return pendingGroup.copy();
+        } finally {
+            lock.unlock();
+            if (row.capacity() > MAX_ROW_BUFFER_CHARS) {
+                rowBuffers.remove();
+            }
+        }
+    }
+
+    /**
+     * Asks the flusher to write the buffered rows now, without waiting for the size or the delay.
+     *
+     * @return a future completed when every row written before this call is durable as configured, after the
+     * futures of those rows
+     */
+    public CompletableFuture<Void> flush() {
+        lock.lock();
+        try {
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            if (pending.length() > 0) {
+                flushRequested = true;
+                work.signal();
+                return pendingFlush.copy();
+            }
+            return writingFlush != null ? writingFlush.copy() : CompletableFuture.completedFuture(null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a snapshot of the writer's counters
+     */
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            return new Statistics(rowsWritten.sum(), bytesWritten.sum(), groups.sum(), syncs.sum(), pending.length());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting rows, writes the buffered ones and closes the file.
+     *
+     * @throws RuntimeException if a group could not be written or the file could not be closed
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            work.signal();
+            room.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Error closing CSV file: " + path, e);
+        }
+        if (failure != null) {
+            throw new RuntimeException("Error writing CSV file: " + path, failure);
+        }
+    }
+
+    private void runFlusher() {
+        StringBuilder free = new StringBuilder(flushChars);
+        while (true) {
+            StringBuilder group;
+            CompletableFuture<Void> done;
+            CompletableFuture<Void> flushed;
+            long rows;
+            lock.lock();
+            try {
+                while (true) {
+                    int buffered = pending.length();
+                    if (buffered > 0 && (closed || flushRequested || buffered >= flushChars
+                            || System.nanoTime() - oldestRowNanos >= maxDelayNanos)) {
+                        break;
+                    }
+                    if (buffered == 0 && closed) {
+                        return;
+                    }
+                    if (buffered == 0) {
+                        work.awaitUninterruptibly();
+                    } else {
+                        work.awaitNanos(maxDelayNanos - (System.nanoTime() - oldestRowNanos));
+                    }
+                }
+                // Cambiar de búfer: los productores siguen llenando el siguiente grupo mientras se escribe este
+                group = pending;
+                pending = free;
+                done = pendingGroup;
+                flushed = pendingFlush;
+                pendingGroup = new CompletableFuture<>();
+                pendingFlush = new CompletableFuture<>();
+                writingGroup = done;
+                writingFlush = flushed;
+                rows = pendingRows;
+                pendingRows = 0;
+                flushRequested = false;
+                room.signalAll();
+            } catch (InterruptedException e) {
+                // Nadie interrumpe al hilo de escritura; si ocurre, se sigue esperando
+                continue;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                long written = writeFully(group);
+                if (durability == Durability.FSYNC) {
+                    channel.force(false);
+                    syncs.increment();
+                }
+                rowsWritten.add(rows);
+                bytesWritten.add(written);
+                groups.increment();
+                done.complete(null);
+                flushed.complete(null);
+            } catch (IOException e) {
+                logger.error("An error occurred while writing " + rows + " rows to " + path, e);
+                fail(e, done, flushed);
+                return;
+            }
+            lock.lock();
+            try {
+                if (writingGroup == done) {
+                    writingGroup = null;
+                    writingFlush = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+            group.setLength(0);
+            // No conservar un búfer que una fila enorme hizo crecer
+            free = group.capacity() > 2 * capacityChars ? new StringBuilder(flushChars) : group;
+        }
+    }
+
+    private void fail(IOException e, CompletableFuture<Void> done, CompletableFuture<Void> flushed) {
+        lock.lock();
+        try {
+            failure = e;
+            done.completeExceptionally(e);
+            flushed.completeExceptionally(e);
+            pendingGroup.completeExceptionally(e);
+            pendingFlush.completeExceptionally(e);
+            pending.setLength(0);
+            pendingRows = 0;
+            room.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encodes the characters and writes them at the end of the file.
+     *
+     * @return the number of bytes written
+     */
+    private long writeFully(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        long written = 0;
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, true);
+            written += drain();
+        } while (result.isOverflow());
+        do {
+            result = encoder.flush(bytes);
+            written += drain();
+        } while (result.isOverflow());
+        return written;
+    }
+
+    private long drain() throws IOException {
+        long written = 0;
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            written += channel.write(bytes);
+        }
+        bytes.clear();
+        return written;
+    }
+
+    private void appendRow(StringBuilder out, String[] fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append(delimiter);
+            }
+            appendField(out, fields[i]);
+        }
+        out.append(lineSeparator);
+    }
+
+    private void appendField(StringBuilder out, String field) {
+        if (field == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < field.length() && !needsQuotes; i++) {
+            char c = field.charAt(i);
+            needsQuotes = c == delimiter || c == quote || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            out.append(field);
+            return;
+        }
+        out.append(quote);
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == quote) {
+                out.append(quote);
+            }
+            out.append(c);
+        }
+        out.append(quote);
+    }
+
+    /**
+     * Builder for {@link GroupCommitCSVWriter}.
+     */
+    public static final class Builder {
+
+        private final Path path;
+        private char delimiter = ';';
+        private char quote = '"';
+        private String lineSeparator = System.lineSeparator();
+        private Charset charset = StandardCharsets.UTF_8;
+        private String[] header;
+        private int flushChars = 64 * 1024;
+        private int capacityChars = 1024 * 1024;
+        private long maxDelayMillis = 100;
+        private Durability durability = Durability.WRITE;
+
+        private Builder(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Sets the field delimiter. Defaults to {@code ;} like {@code UniversalCSVReaderAndWriter}.
+         */
+        public Builder delimiter(char delimiter) {
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        /**
+         * Sets the character that encloses fields containing delimiters, quotes or line breaks. Defaults to
+         * {@code "}.
+         */
+        public Builder quote(char quote) {
+            this.quote = quote;
+            return this;
+        }
+
+        /**
+         * Sets the line separator written after every row. Defaults to the platform's, like
+         * {@code appendRecordToCSV}.
+         */
+        public Builder lineSeparator(String lineSeparator) {
+            this.lineSeparator = lineSeparator;
+            return this;
+        }
+
+        /**
+         * Sets the charset of the file. Defaults to UTF-8.
+         */
+        public Builder charset(Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Sets a header row, written only when the file is empty.
+         */
+        public Builder header(String... header) {
+            this.header = header;
+            return this;
+        }
+
+        /**
+         * Sets the number of buffered characters that triggers a write. Defaults to 64K.
+         */
+        public Builder flushChars(int flushChars) {
+            this.flushChars = flushChars;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of buffered characters; writers wait for room beyond it. Defaults to 1M.
+         */
+        public Builder capacityChars(int capacityChars) {
+            this.capacityChars = capacityChars;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a row waits in the buffer before its group is written. Defaults to 100 ms.
+         */
+        public Builder maxDelayMillis(long maxDelayMillis) {
+            this.maxDelayMillis = maxDelayMillis;
+            return this;
+        }
+
+        /**
+         * Sets when the futures of the rows complete. Defaults to {@link Durability#WRITE}.
+         */
+        public Builder durability(Durability durability) {
+            this.durability = durability;
+            return this;
+        }
+
+        /**
+         * Opens the file and starts the flusher thread.
+         *
+         * @return a new writer; the caller is responsible for closing it
+         * @throws RuntimeException if the file cannot be opened or the header cannot be written
+         */
+        public GroupCommitCSVWriter build() {
+            try {
+                return new GroupCommitCSVWriter(this);
+            } catch (IOException e) {
+                throw new RuntimeException("Error opening CSV file: " + path, e);
+            }
+        }
+    }
+}
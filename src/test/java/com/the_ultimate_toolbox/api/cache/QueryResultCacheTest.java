@@ -0,0 +1,103 @@
+package com.the_ultimate_toolbox.api.cache;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class QueryResultCacheTest {
+
+    private static final String[] COLUMNS = {"nombre", "edad"};
+    private static final String[] TYPES = {"VARCHAR", "INT"};
+
+    private Connection connection;
+    private QueryResultCache cache;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:query_cache_test", "sa", "");
+        SQLinteractions.createTable(connection, "usuarios", COLUMNS, new String[]{"VARCHAR(50)", "INT"});
+        SQLinteractions.insertIntoTableOneRecord(connection, "usuarios", COLUMNS, new String[]{"juan", "30"}, TYPES);
+        cache = new QueryResultCache(2, 1, TimeUnit.MINUTES);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        cache.close();
+        connection.close();
+    }
+
+    @Test
+    public void repeatedSearchIsServedFromMemory() {
+        List<String[]> first = cache.searchByField(connection, "usuarios", "nombre", "juan");
+        List<String[]> second = cache.searchByField(connection, "usuarios", "nombre", "juan");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getStatistics().hits());
+        assertEquals(1, cache.getStatistics().misses());
+    }
+
+    @Test
+    public void writesThroughSQLinteractionsInvalidateTheTable() {
+        assertEquals(1, cache.searchByField(connection, "usuarios", "nombre", "juan").size());
+        assertEquals(1, cache.countRows(connection, "usuarios"));
+
+        SQLinteractions.insertIntoTableOneRecord(connection, "USUARIOS", COLUMNS, new String[]{"juan", "41"}, TYPES);
+
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.searchByField(connection, "usuarios", "nombre", "juan").size());
+        assertEquals(2, cache.countRows(connection, "usuarios"));
+    }
+
+    @Test
+    public void leastRecentlyUsedResultIsEvicted() {
+        cache.searchByField(connection, "usuarios", "nombre", "juan");
+        cache.searchByField(connection, "usuarios", "nombre", "ana");
+        cache.searchByField(connection, "usuarios", "nombre", "juan");
+        cache.searchByField(connection, "usuarios", "nombre", "pedro");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getStatistics().evictions());
+        cache.searchByField(connection, "usuarios", "nombre", "juan");
+        assertEquals(2, cache.getStatistics().hits());
+    }
+
+    @Test
+    public void typesArePartOfTheKey() {
+        String[] fields = {"edad"};
+        String[] values = {"30"};
+
+        assertEquals(1, cache.searchByMultipleFieldAND(connection, "usuarios", fields, values, new String[]{"INT"}).size());
+        assertEquals(1, cache.searchByMultipleFieldAND(connection, "usuarios", fields, values, new String[]{"VARCHAR"}).size());
+
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.getStatistics().hits());
+    }
+
+    @Test
+    public void failedSearchIsReportedAndNotCached() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> cache.searchIgnoreCase(connection, "no_existe", "nombre", "juan"));
+        assertTrue(e.getCause() instanceof SQLException);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void expiredResultsAreReloaded() throws InterruptedException {
+        try (QueryResultCache shortLived = new QueryResultCache(10, 20, TimeUnit.MILLISECONDS)) {
+            shortLived.countRows(connection, "usuarios");
+            Thread.sleep(50);
+            shortLived.countRows(connection, "usuarios");
+            assertEquals(0, shortLived.getStatistics().hits());
+            assertEquals(2, shortLived.getStatistics().misses());
+        }
+    }
+}
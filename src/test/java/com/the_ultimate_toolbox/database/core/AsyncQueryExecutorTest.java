@@ -0,0 +1,141 @@
+package com.the_ultimate_toolbox.database.core;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import com.the_ultimate_toolbox.database.jdbc.StatementTracker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncQueryExecutorTest {
+
+    private static final String URL = "jdbc:h2:mem:async_test;DB_CLOSE_DELAY=-1";
+    private static final String SLOW_QUERY = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 1000000) a, SYSTEM_RANGE(1, 1000000) b";
+
+    private ConnectionPool pool;
+    private AsyncQueryExecutor executor;
+
+    @Before
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").minSize(1).maxSize(2).build();
+        try (Connection connection = pool.getConnection()) {
+            connection.createStatement().execute("DROP TABLE IF EXISTS usuarios");
+            SQLinteractions.createTable(connection, "usuarios", new String[]{"nombre", "edad"}, new String[]{"VARCHAR(50)", "INT"});
+            SQLinteractions.insertIntoTableOneRecord(connection, "usuarios",
+                    new String[]{"nombre", "edad"}, new String[]{"juan", "30"}, new String[]{"VARCHAR", "INT"});
+        }
+        executor = new AsyncQueryExecutor(pool);
+    }
+
+    @After
+    public void tearDown() {
+        executor.close();
+        pool.close();
+    }
+
+    @Test
+    public void fanOutNeverExceedsPoolSize() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<AsyncQueryExecutor.ConnectionCallback<Integer>> lookups = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lookups.add(connection -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    return SQLinteractions.countRows(connection, "usuarios");
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        List<Integer> counts = executor.submitAll(lookups, 10, TimeUnit.SECONDS).join();
+
+        assertEquals(20, counts.size());
+        assertTrue(counts.stream().allMatch(count -> count == 1));
+        assertTrue(peak.get() <= pool.getMaxSize());
+        assertEquals(0, pool.getStatistics().timeoutCount());
+    }
+
+    @Test
+    public void executorsOnTheSamePoolShareItsPermits() throws SQLException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<AsyncQueryExecutor.ConnectionCallback<Integer>> slowLookups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            slowLookups.add(connection -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(150);
+                    return SQLinteractions.countRows(connection, "usuarios");
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        // Con un límite por ejecutor, los dos juntos pedirían cuatro conexiones y dos agotarían la espera
+        try (ConnectionPool shortWait = ConnectionPool.builder(URL, "sa", "").minSize(0).maxSize(2).borrowTimeoutMillis(100).build();
+             AsyncQueryExecutor first = new AsyncQueryExecutor(shortWait);
+             AsyncQueryExecutor second = new AsyncQueryExecutor(shortWait)) {
+            CompletableFuture<List<Integer>> a = first.submitAll(slowLookups.subList(0, 2));
+            CompletableFuture<List<Integer>> b = second.submitAll(slowLookups.subList(2, 4));
+
+            assertEquals(List.of(1, 1), a.join());
+            assertEquals(List.of(1, 1), b.join());
+            assertTrue(peak.get() <= 2);
+            assertEquals(0, shortWait.getStatistics().timeoutCount());
+        }
+    }
+
+    @Test
+    public void timeoutCancelsRunningStatement() throws Exception {
+        CompletableFuture<Long> slow = executor.submit(connection -> {
+            try (ResultSet resultSet = StatementTracker.track(connection.createStatement()).executeQuery(SLOW_QUERY)) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }, 200, TimeUnit.MILLISECONDS);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, slow::get);
+        assertTrue(failure.getCause() instanceof TimeoutException);
+        awaitIdlePool();
+    }
+
+    @Test
+    public void oneFailureFailsTheWholeGroup() {
+        CompletableFuture<List<Object>> group = executor.submitAll(List.of(
+                connection -> SQLinteractions.countRows(connection, "no_existe"),
+                connection -> {
+                    try (ResultSet resultSet = connection.createStatement().executeQuery("SELECT 1")) {
+                        return resultSet.next();
+                    }
+                },
+                connection -> SQLinteractions.countRows(connection, "usuarios")));
+
+        assertThrows(Exception.class, group::join);
+        assertTrue(group.isCompletedExceptionally());
+    }
+
+    private void awaitIdlePool() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getStatistics().activeConnections() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pool.getStatistics().activeConnections());
+    }
+}
@@ -0,0 +1,275 @@
+package com.the_ultimate_toolbox.database.core;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import com.the_ultimate_toolbox.database.jdbc.StatementMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "")
+                .minSize(1)
+                .maxSize(3)
+                .borrowTimeoutMillis(200)
+                .build();
+        try (Connection connection = pool.getConnection()) {
+            connection.createStatement().execute("DROP TABLE IF EXISTS usuarios");
+            SQLinteractions.createTable(connection, "usuarios", new String[]{"nombre", "edad"}, new String[]{"VARCHAR(50)", "INT"});
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void pooledConnectionsWorkWithSQLinteractions() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(SQLinteractions.insertIntoTableOneRecord(connection, "usuarios",
+                    new String[]{"nombre", "edad"}, new String[]{"juan", "30"}, new String[]{"VARCHAR", "INT"}));
+            assertEquals(1, SQLinteractions.countRows(connection, "usuarios"));
+            assertEquals(1, SQLinteractions.searchByField(connection, "usuarios", "nombre", "juan").size());
+        }
+    }
+
+    @Test
+    public void closeReturnsConnectionToPool() throws SQLException {
+        long borrowsBefore = pool.getStatistics().borrowCount();
+        Connection first = pool.getConnection();
+        first.close();
+        assertTrue(first.isClosed());
+        Connection second = pool.getConnection();
+        assertSame(first, second);
+        assertFalse(second.isClosed());
+        second.close();
+
+        PoolStatistics statistics = pool.getStatistics();
+        assertEquals(borrowsBefore + 2, statistics.borrowCount());
+        assertEquals(0, statistics.activeConnections());
+        assertEquals(1, statistics.createdCount());
+    }
+
+    @Test
+    public void returnedConnectionCannotBeUsed() throws SQLException {
+        Connection connection = pool.getConnection();
+        connection.close();
+        assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    @Test
+    public void physicalConnectionCanOnlyBeUnwrappedWhileBorrowed() throws SQLException {
+        Connection connection = pool.getConnection();
+        Connection physical = connection.unwrap(Connection.class);
+        assertNotSame(connection, physical);
+        assertFalse(physical.isClosed());
+        connection.close();
+        assertThrows(SQLException.class, () -> connection.unwrap(Connection.class));
+    }
+
+    @Test
+    public void openTransactionIsRolledBackOnReturn() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            SQLinteractions.insertIntoTableOneRecord(connection, "usuarios", new String[]{"nombre", "edad"}, new String[]{"ana", "25"});
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.getAutoCommit());
+            assertEquals(0, SQLinteractions.countRows(connection, "usuarios"));
+        }
+    }
+
+    @Test
+    public void borrowTimesOutWhenExhausted() throws SQLException {
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < pool.getMaxSize(); i++) {
+            borrowed.add(pool.getConnection());
+        }
+        assertThrows(SQLException.class, pool::getConnection);
+        assertEquals(1, pool.getStatistics().timeoutCount());
+        for (Connection connection : borrowed) {
+            connection.close();
+        }
+        assertEquals(pool.getMaxSize(), pool.getStatistics().idleConnections());
+    }
+
+    @Test
+    public void waitingBorrowerIsHandedReturnedConnection() throws Exception {
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < pool.getMaxSize(); i++) {
+            borrowed.add(pool.getConnection());
+        }
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Connection> waiting = executor.submit(() -> pool.getConnection(5, TimeUnit.SECONDS));
+            Thread.sleep(50);
+            borrowed.get(0).close();
+            Connection connection = waiting.get(5, TimeUnit.SECONDS);
+            assertFalse(connection.isClosed());
+            connection.close();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int i = 1; i < borrowed.size(); i++) {
+            borrowed.get(i).close();
+        }
+    }
+
+    @Test
+    public void concurrentBorrowersNeverExceedMaxSize() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection connection = pool.getConnection(5, TimeUnit.SECONDS)) {
+                        SQLinteractions.countRows(connection, "usuarios");
+                        assertTrue(pool.getStatistics().totalConnections() <= pool.getMaxSize());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        PoolStatistics statistics = pool.getStatistics();
+        assertEquals(0, statistics.activeConnections());
+        assertTrue(statistics.createdCount() <= pool.getMaxSize());
+    }
+
+    @Test
+    public void idleConnectionsAboveMinimumAreEvicted() throws Exception {
+        try (ConnectionPool evicting = ConnectionPool.builder(URL, "sa", "")
+                .minSize(1)
+                .maxSize(3)
+                .idleTimeoutMillis(10)
+                .evictionIntervalMillis(20)
+                .build()) {
+            Connection a = evicting.getConnection();
+            Connection b = evicting.getConnection();
+            Connection c = evicting.getConnection();
+            a.close();
+            b.close();
+            c.close();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (evicting.getStatistics().totalConnections() > 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(1, evicting.getStatistics().totalConnections());
+        }
+    }
+
+    @Test
+    public void failedBuildClosesTheConnectionsAlreadyOpened() throws SQLException {
+        FailingDriver driver = new FailingDriver(2);
+        DriverManager.registerDriver(driver);
+        try {
+            assertThrows(SQLException.class, () -> ConnectionPool.builder(FailingDriver.URL, "sa", "").minSize(3).maxSize(3).build());
+            assertEquals(2, driver.opened.size());
+            for (Connection connection : driver.opened) {
+                assertTrue(connection.isClosed());
+            }
+        } finally {
+            DriverManager.deregisterDriver(driver);
+        }
+    }
+
+    /**
+     * Opens H2 connections for {@code jdbc:failing:} URLs, and fails once it has opened the given number.
+     */
+    private static final class FailingDriver implements Driver {
+        static final String URL = "jdbc:failing:pool_test";
+
+        private final int limit;
+        private final List<Connection> opened = new ArrayList<>();
+
+        FailingDriver(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            if (opened.size() == limit) {
+                throw new SQLException("No more connections");
+            }
+            Connection connection = DriverManager.getConnection(ConnectionPoolTest.URL, info);
+            opened.add(connection);
+            return connection;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:failing:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    @Test
+    public void instrumentedPoolRecordsStatementsAndWaits() throws SQLException {
+        long waitsBefore = StatementMetrics.getConnectionWait().count();
+        try (ConnectionPool instrumented = ConnectionPool.builder(URL, "sa", "").maxSize(1).instrumented(true).build()) {
+            Connection first = instrumented.getConnection();
+            SQLinteractions.countRows(first, "usuarios");
+            first.close();
+            Connection second = instrumented.getConnection();
+            assertSame(first, second);
+            second.close();
+        }
+        assertEquals(waitsBefore + 2, StatementMetrics.getConnectionWait().count());
+        assertTrue(StatementMetrics.getStatistics("SELECT COUNT(*) FROM usuarios").executions() >= 1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.the_ultimate_toolbox.database.core;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class WriteBehindInserterTest {
+
+    private static final String URL = "jdbc:h2:mem:write_behind_test;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder(URL, "sa", "").maxSize(2).build();
+        try (Connection connection = pool.getConnection()) {
+            connection.createStatement().execute("DROP TABLE IF EXISTS eventos");
+            SQLinteractions.createTable(connection, "eventos", new String[]{"tipo", "valor"}, new String[]{"VARCHAR(20) NOT NULL", "INT"});
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    private int countRows() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            return SQLinteractions.countRows(connection, "eventos");
+        }
+    }
+
+    @Test
+    public void concurrentInsertsAreBatched() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        try (WriteBehindInserter inserter = WriteBehindInserter.builder(pool, "eventos", "tipo", "valor")
+                .types("VARCHAR", "INT").batchSize(100).capacity(1_000).maxDelayMillis(10).build()) {
+            List<Future<CompletableFuture<Void>>> futures = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                int value = i;
+                futures.add(producers.submit(() -> inserter.insert("click", String.valueOf(value))));
+            }
+            for (Future<CompletableFuture<Void>> future : futures) {
+                future.get().get(10, TimeUnit.SECONDS);
+            }
+            WriteBehindInserter.Statistics statistics = inserter.getStatistics();
+            assertEquals(2_000, statistics.writtenRows());
+            assertTrue(statistics.batches() < 2_000);
+        } finally {
+            producers.shutdownNow();
+        }
+        assertEquals(2_000, countRows());
+    }
+
+    @Test
+    public void rejectedRowDoesNotFailItsNeighbours() throws SQLException {
+        CompletableFuture<Void> good;
+        CompletableFuture<Void> bad;
+        CompletableFuture<Void> badType;
+        try (WriteBehindInserter inserter = WriteBehindInserter.builder(pool, "eventos", "tipo", "valor")
+                .types("VARCHAR", "INT").batchSize(10).maxDelayMillis(1_000).build()) {
+            good = inserter.insert("ok", "1");
+            bad = inserter.insert(null, "2");
+            badType = inserter.insert("ok", "dos");
+            inserter.insert("ok", "3");
+            inserter.flush().join();
+        }
+        good.join();
+        assertThrows(CompletionException.class, bad::join);
+        assertThrows(CompletionException.class, badType::join);
+        assertEquals(2, countRows());
+    }
+
+    @Test
+    public void closeFlushesAndRejectsLaterRows() throws SQLException {
+        WriteBehindInserter inserter = WriteBehindInserter.builder(pool, "eventos", "tipo", "valor")
+                .batchSize(1_000).maxDelayMillis(60_000).build();
+        CompletableFuture<Void> queued = inserter.insert("a", "1");
+        assertFalse(queued.isDone());
+
+        inserter.close();
+
+        assertTrue(queued.isDone() && !queued.isCompletedExceptionally());
+        assertEquals(1, countRows());
+        CompletionException e = assertThrows(CompletionException.class, () -> inserter.insert("b", "2").join());
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+}
@@ -0,0 +1,126 @@
+package com.the_ultimate_toolbox.database.dialect;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SQLDialectsTest {
+
+    private SQLDialect registered;
+
+    @After
+    public void unregister() {
+        if (registered != null) {
+            SQLDialects.unregister(registered);
+        }
+    }
+
+    @Test
+    public void dialectIsDetectedFromUrlAndConnection() throws SQLException {
+        assertSame(SQLDialects.MYSQL, SQLDialects.forUrl("jdbc:mysql://localhost:3306/test"));
+        assertSame(SQLDialects.POSTGRESQL, SQLDialects.forUrl("jdbc:postgresql://localhost/test"));
+        assertSame(SQLDialects.STANDARD, SQLDialects.forUrl("jdbc:sqlserver://localhost"));
+        assertSame(SQLDialects.MYSQL, SQLDialects.forProductName("MariaDB"));
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:dialect_test", "sa", "")) {
+            assertSame(SQLDialects.H2, SQLDialects.forConnection(connection));
+        }
+    }
+
+    @Test
+    public void mysqlUsesItsOwnSyntax() {
+        SQLDialect mysql = SQLDialects.MYSQL;
+        assertEquals("INSERT INTO usuarios (email, nombre) VALUES (?, ?) ON DUPLICATE KEY UPDATE nombre = VALUES(nombre)",
+                mysql.upsert("usuarios", new String[]{"email"}, new String[]{"email", "nombre"}));
+        assertEquals("`or``der`", mysql.quoteIdentifier("or`der"));
+        assertEquals("SELECT * FROM t ORDER BY id LIMIT 10", mysql.limit("SELECT * FROM t ORDER BY id", 10));
+        assertEquals(BulkInsertStrategy.MULTI_ROW_VALUES, mysql.getBulkInsertStrategy());
+        assertEquals(Integer.MIN_VALUE, mysql.getStreamingFetchSize());
+    }
+
+    @Test
+    public void mysqlComparesWithLowerUnlessTheCollationIgnoresCase() throws SQLException {
+        Map<String, String> collations = Map.of("nombre", "utf8mb4_0900_ai_ci", "email", "utf8mb4_bin", "clave", "latin1_general_cs");
+        AtomicInteger lookups = new AtomicInteger();
+        MySQLDialect mysql = new MySQLDialect() {
+            @Override
+            String collation(Connection connection, String table, String column) {
+                lookups.incrementAndGet();
+                return collations.get(column);
+            }
+        };
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:mysql_collation_test", "sa", "")) {
+            assertEquals("nombre = ?", mysql.caseInsensitiveEquals(connection, "usuarios", "nombre"));
+            assertEquals("LOWER(email) = LOWER(?)", mysql.caseInsensitiveEquals(connection, "usuarios", "email"));
+            assertEquals("LOWER(clave) = LOWER(?)", mysql.caseInsensitiveEquals(connection, "usuarios", "clave"));
+            // Sin intercalación conocida, LOWER()
+            assertEquals("LOWER(edad) = LOWER(?)", mysql.caseInsensitiveEquals(connection, "usuarios", "edad"));
+
+            assertEquals("nombre = ?", mysql.caseInsensitiveEquals(connection, "usuarios", "nombre"));
+            assertEquals(4, lookups.get());
+            mysql.forget(connection);
+            mysql.caseInsensitiveEquals(connection, "usuarios", "nombre");
+            assertEquals(5, lookups.get());
+        }
+    }
+
+    @Test
+    public void h2ReadsTheShadowColumnOncePerConnection() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:h2_shadow_test", "sa", "")) {
+            connection.createStatement().execute("CREATE TABLE usuarios (nombre VARCHAR(50))");
+            SQLDialect h2 = SQLDialects.H2;
+            assertEquals("LOWER(nombre) = LOWER(?)", h2.caseInsensitiveEquals(connection, "usuarios", "nombre"));
+
+            // DDL que no pasa por createCaseInsensitiveIndex: no se ve hasta olvidar lo leído
+            for (String ddl : h2.caseInsensitiveIndex("usuarios", "nombre")) {
+                connection.createStatement().execute(ddl);
+            }
+            assertEquals("LOWER(nombre) = LOWER(?)", h2.caseInsensitiveEquals(connection, "usuarios", "nombre"));
+            SQLDialects.forget(connection);
+            assertEquals("nombre_ci = LOWER(?)", h2.caseInsensitiveEquals(connection, "usuarios", "nombre"));
+        }
+    }
+
+    @Test
+    public void standardDialectFallsBackToSqlStandard() {
+        SQLDialect standard = SQLDialects.STANDARD;
+        assertEquals("SELECT * FROM t ORDER BY id FETCH FIRST 5 ROWS ONLY", standard.limit("SELECT * FROM t ORDER BY id", 5));
+        assertEquals("\"select\"", standard.quoteIdentifier("select"));
+        assertTrue(standard.upsert("t", new String[]{"k"}, new String[]{"k", "v"})
+                .startsWith("MERGE INTO t USING (VALUES (?, ?)) AS src (k, v) ON (t.k = src.k)"));
+        assertEquals("LOWER(nombre) = LOWER(?)", SQLDialects.POSTGRESQL.caseInsensitiveEquals(null, "usuarios", "nombre"));
+        assertEquals(List.of("CREATE INDEX usuarios_nombre_ci ON usuarios (LOWER(nombre))"),
+                SQLDialects.POSTGRESQL.caseInsensitiveIndex("usuarios", "nombre"));
+        assertTrue(SQLDialects.ORACLE.upsert("t", new String[]{"k"}, new String[]{"k", "v"}).contains("FROM dual"));
+    }
+
+    @Test
+    public void registeredDialectTakesPrecedence() {
+        SQLDialect custom = new StandardDialect() {
+            @Override
+            public boolean acceptsProduct(String productName) {
+                return productName.equals("Custom");
+            }
+
+            @Override
+            public boolean acceptsUrl(String url) {
+                return url.startsWith("jdbc:custom:");
+            }
+        };
+        SQLDialects.register(custom);
+        registered = custom;
+        assertSame(custom, SQLDialects.forUrl("jdbc:custom:db"));
+        assertSame(custom, SQLDialects.forProductName("Custom"));
+        assertSame(SQLDialects.H2, SQLDialects.forProductName("H2"));
+
+        assertTrue(SQLDialects.unregister(custom));
+        assertSame(SQLDialects.STANDARD, SQLDialects.forProductName("Custom"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DisjunctionRewriterTest {
+
+    private static final String[] TYPES = {"VARCHAR", "VARCHAR", "VARCHAR"};
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:disjunction_test", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE clientes (id INT PRIMARY KEY, email VARCHAR(50), ciudad VARCHAR(20), pais VARCHAR(2))");
+            statement.execute("INSERT INTO clientes VALUES (1, 'a@x.com', 'Madrid', 'ES'), (2, 'b@x.com', 'Lyon', 'FR'),"
+                    + " (3, 'c@x.com', NULL, 'ES'), (4, NULL, 'Madrid', 'PT')");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        StatementCache.evict(connection);
+        connection.close();
+    }
+
+    @Test
+    public void sameColumnConditionsBecomeAnInList() {
+        DisjunctionRewriter.Rewritten query = DisjunctionRewriter.rewrite(connection, "clientes",
+                new String[]{"pais", "ciudad", "pais"});
+
+        assertFalse(query.union());
+        assertEquals("SELECT * FROM clientes WHERE pais IN (?, ?) OR ciudad = ?", query.sql());
+        assertArrayEquals(new String[]{"ES", "FR", "Lyon"}, query.reorder(new String[]{"ES", "Lyon", "FR"}));
+    }
+
+    @Test
+    public void indexedColumnsBecomeAUnionOfLookups() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX clientes_email ON clientes (email)");
+            statement.execute("CREATE INDEX clientes_ciudad ON clientes (ciudad)");
+        }
+        StatementCache.evict(connection);
+
+        DisjunctionRewriter.Rewritten query = DisjunctionRewriter.rewrite(connection, "clientes",
+                new String[]{"email", "ciudad", "email"});
+
+        assertTrue(query.union());
+        assertEquals("SELECT * FROM clientes WHERE email IN (?, ?) UNION ALL SELECT * FROM clientes WHERE ciudad = ?"
+                + " AND CASE WHEN email IN (?, ?) THEN 1 ELSE 0 END = 0", query.sql());
+        assertArrayEquals(new int[]{0, 2, 1, 0, 2}, query.parameterOrder());
+
+        // La fila 1 cumple las dos condiciones y la 4 tiene email NULL: ambas deben salir una sola vez
+        List<String[]> found = SQLinteractions.searchByMultipleFieldOR(connection, "clientes",
+                new String[]{"email", "ciudad", "email"}, TYPES, new String[]{"a@x.com", "Madrid", "c@x.com"});
+        assertEquals(3, found.size());
+        assertEquals(3, found.stream().map(row -> row[0]).distinct().count());
+    }
+
+    @Test
+    public void resultsMatchThePlainDisjunction() throws SQLException {
+        String[][] fields = {
+                {"pais", "ciudad"},
+                {"email", "ciudad", "email"},
+                {"email", "ciudad"},
+                {"ciudad", "pais", "ciudad"},
+                {"email", "ciudad"}
+        };
+        String[][] values = {
+                {"ES", "Madrid"},
+                {"a@x.com", "Madrid", "c@x.com"},
+                {"b@x.com", "Lyon"},
+                {"Lyon", "PT", "Madrid"},
+                {"z@x.com", "Roma"}
+        };
+
+        // Sin índices: lista IN y OR en una sola consulta
+        for (int i = 0; i < fields.length; i++) {
+            assertFalse(DisjunctionRewriter.rewrite(connection, "clientes", fields[i]).union());
+            assertEquals(plainIds(fields[i], values[i]), rewrittenIds(fields[i], values[i]));
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX clientes_email ON clientes (email)");
+            statement.execute("CREATE INDEX clientes_ciudad ON clientes (ciudad)");
+            statement.execute("CREATE INDEX clientes_pais ON clientes (pais)");
+        }
+        StatementCache.evict(connection);
+
+        // Con índices: UNION ALL de búsquedas por índice
+        for (int i = 0; i < fields.length; i++) {
+            assertTrue(DisjunctionRewriter.rewrite(connection, "clientes", fields[i]).union());
+            assertEquals(plainIds(fields[i], values[i]), rewrittenIds(fields[i], values[i]));
+        }
+    }
+
+    private Set<String> rewrittenIds(String[] fields, String[] values) {
+        String[] types = new String[fields.length];
+        Arrays.fill(types, "VARCHAR");
+        List<String[]> found = SQLinteractions.searchByMultipleFieldOR(connection, "clientes", fields, types, values);
+        Set<String> ids = new HashSet<>();
+        for (String[] row : found) {
+            // Cada fila una sola vez, aunque cumpla varias condiciones
+            assertTrue(ids.add(row[0]));
+        }
+        return ids;
+    }
+
+    private Set<String> plainIds(String[] fields, String[] values) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT id FROM clientes WHERE ");
+        for (int i = 0; i < fields.length; i++) {
+            sql.append(i == 0 ? "" : " OR ").append(fields[i]).append(" = ?");
+        }
+        Set<String> ids = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < values.length; i++) {
+                statement.setString(i + 1, values[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getString(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,334 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SQLinteractionsTest {
+
+    private static final String[] COLUMNS = {"nombre", "edad"};
+    private static final String[] TYPES = {"VARCHAR", "INT"};
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:sqlinteractions_test", "sa", "");
+        SQLinteractions.createTable(connection, "usuarios", COLUMNS, new String[]{"VARCHAR(50) NOT NULL", "INT"});
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private static String[][] rows(int count) {
+        String[][] values = new String[count][];
+        for (int i = 0; i < count; i++) {
+            values[i] = new String[]{"usuario" + i, String.valueOf(i)};
+        }
+        return values;
+    }
+
+    @Test
+    public void batchInsertCommitsEveryChunk() throws SQLException {
+        BatchResult result = SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(25), TYPES, 10);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getChunks().size());
+        assertEquals(5, result.getChunks().get(2).rowCount());
+        assertEquals(25, result.getAffectedRows());
+        assertEquals(25, SQLinteractions.countRows(connection, "usuarios"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    public void failedChunkIsRolledBackAndReported() throws SQLException {
+        String[][] values = rows(25);
+        values[13] = new String[]{null, "13"};
+
+        BatchResult result = SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, values, TYPES, 10);
+
+        assertFalse(result.isSuccessful());
+        assertFalse(result.getChunks().get(1).committed());
+        assertEquals(List.of(13), result.getFailedRowIndexes());
+        assertEquals(15, result.getAffectedRows());
+        assertEquals(15, SQLinteractions.countRows(connection, "usuarios"));
+    }
+
+    @Test
+    public void unparsableValueFailsOnlyItsChunk() {
+        String[][] values = rows(20);
+        values[4] = new String[]{"usuario4", "cuatro"};
+
+        BatchResult result = SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, values, TYPES, 10);
+
+        assertEquals(List.of(4), result.getFailedRowIndexes());
+        assertEquals(10, SQLinteractions.countRows(connection, "usuarios"));
+    }
+
+    @Test
+    public void typedBatchInsertBindsFromRowBuffer() {
+        ParameterBinder binder = ParameterBinder.forTypes(TYPES);
+        int[] next = {0};
+
+        BatchResult result = SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, binder, row -> {
+            if (next[0] == 30) {
+                return false;
+            }
+            row.setString(0, "usuario" + next[0]).setInt(1, next[0]);
+            next[0]++;
+            return true;
+        }, 8);
+
+        assertEquals(4, result.getChunks().size());
+        assertEquals(30, result.getAffectedRows());
+        assertEquals("usuario29", SQLinteractions.searchByField(connection, "usuarios", "edad", "29").get(0)[1]);
+    }
+
+    @Test
+    public void rowBufferRejectsSettersThatDoNotMatchTheColumnType() throws SQLException {
+        ParameterBinder binder = ParameterBinder.forTypes(TYPES);
+        RowBuffer typed = binder.newRow();
+        assertThrows(IllegalArgumentException.class, () -> typed.setString(1, "5"));
+        assertThrows(IllegalArgumentException.class, () -> typed.setDouble(1, 5));
+        typed.setString(0, "ana").setNull(1);
+
+        // Un búfer sin tipos no puede fallar al rellenarse: el binder lo comprueba al enlazar
+        RowBuffer untyped = new RowBuffer(2).setString(0, "ana").setString(1, "5");
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO usuarios (nombre, edad) VALUES (?, ?)")) {
+            binder.bind(statement, typed, 1);
+            assertThrows(IllegalArgumentException.class, () -> binder.bind(statement, untyped, 1));
+            assertThrows(IllegalArgumentException.class, () -> binder.bind(statement, new RowBuffer(2).setString(0, "ana"), 1));
+            binder.bind(statement, untyped.setInt(1, 5), 1);
+        }
+    }
+
+    @Test
+    public void bindersAreSharedByLayoutAndKeepTheirOwnTypes() {
+        String[] types = {"VARCHAR", "INT"};
+        ParameterBinder binder = ParameterBinder.forTypes(types);
+        assertSame(binder, ParameterBinder.forTypes("VARCHAR", "INT"));
+
+        // Cambiar el array del llamador no altera el binder guardado
+        types[1] = "VARCHAR";
+        assertNotSame(binder, ParameterBinder.forTypes(types));
+        assertSame(binder, ParameterBinder.forTypes(TYPES));
+        assertThrows(IllegalArgumentException.class, () -> binder.newRow().setString(1, "5"));
+    }
+
+    @Test
+    public void repeatedLookupsReuseCachedStatement() {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(5), TYPES, 10);
+        StatementCache.Statistics before = StatementCache.getStatistics();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, SQLinteractions.searchByField(connection, "usuarios", "nombre", "usuario" + i).size());
+        }
+
+        StatementCache.Statistics after = StatementCache.getStatistics();
+        assertEquals(1, after.misses() - before.misses());
+        assertEquals(4, after.hits() - before.hits());
+    }
+
+    @Test
+    public void closedConnectionIsDroppedFromTheCache() throws SQLException {
+        Connection other = DriverManager.getConnection("jdbc:h2:mem:sqlinteractions_test", "sa", "");
+        SQLinteractions.countRows(other, "usuarios");
+        PreparedStatement cached;
+        try (StatementCache.CachedStatement statement = StatementCache.acquire(other,
+                new StatementCache.Key("COUNT", "usuarios"), () -> "SELECT COUNT(*) FROM usuarios")) {
+            cached = statement.statement();
+        }
+        assertTrue(StatementCache.isCached(other));
+
+        other.close();
+        // La siguiente conexión nueva que llega a la caché barre las cerradas
+        Connection next = DriverManager.getConnection("jdbc:h2:mem:sqlinteractions_test", "sa", "");
+        try {
+            SQLinteractions.countRows(next, "usuarios");
+            assertFalse(StatementCache.isCached(other));
+            assertTrue(cached.isClosed());
+        } finally {
+            StatementCache.evict(next);
+            next.close();
+        }
+        assertFalse(StatementCache.isCached(next));
+    }
+
+    @Test
+    public void updateByIdUpdatesOnlyThatRow() {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(3), TYPES, 10);
+
+        assertTrue(SQLinteractions.updateById(connection, "usuarios", "ID_usuarios", 2,
+                new String[]{"edad"}, new String[]{"99"}, new String[]{"INT"}));
+
+        assertEquals(1, SQLinteractions.searchByField(connection, "usuarios", "edad", "99").size());
+        assertEquals("usuario1", SQLinteractions.searchByField(connection, "usuarios", "edad", "99").get(0)[1]);
+    }
+
+    @Test
+    public void cursorStreamsMatchingRowsAndClosesAtEnd() {
+        String[][] values = rows(50);
+        for (int i = 0; i < values.length; i++) {
+            values[i][1] = String.valueOf(i % 2);
+        }
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, values, TYPES, 20);
+
+        try (ResultCursor cursor = SQLinteractions.cursorByField(connection, "usuarios", "edad", "1", ResultCursor.STREAMING)) {
+            assertEquals(3, cursor.getColumnCount());
+            assertEquals(25, cursor.stream().filter(row -> row[2].equals("1")).count());
+            assertFalse(cursor.hasNext());
+        }
+    }
+
+    @Test
+    public void searchByMultipleFieldANDReturnsOneRowPerMatch() {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(5), TYPES, 10);
+
+        List<String[]> found = SQLinteractions.searchByMultipleFieldAND(connection, "usuarios",
+                COLUMNS, new String[]{"usuario3", "3"}, TYPES);
+
+        assertEquals(1, found.size());
+        assertEquals("usuario3", found.get(0)[1]);
+    }
+
+    @Test
+    public void bulkDeleteRemovesIdSetInChunks() {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(100), TYPES, 50);
+        int[] ids = new int[45];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 2 * i + 1;
+        }
+
+        int[] deleted = SQLinteractions.bulkDeleteByIds(connection, "usuarios", "ID_usuarios", ids, 20);
+
+        assertArrayEquals(new int[]{20, 20, 5}, deleted);
+        assertEquals(55, SQLinteractions.countRows(connection, "usuarios"));
+    }
+
+    @Test
+    public void bulkUpdateAppliesValuesToEveryId() {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(30), TYPES, 50);
+
+        int[] updated = SQLinteractions.bulkUpdateByIds(connection, "usuarios", "ID_usuarios", new int[]{1, 2, 3, 4, 5},
+                new String[]{"edad"}, new String[]{"77"}, new String[]{"INT"}, 2);
+
+        assertArrayEquals(new int[]{2, 2, 1}, updated);
+        assertEquals(5, SQLinteractions.searchByField(connection, "usuarios", "edad", "77").size());
+    }
+
+    @Test
+    public void bulkMethodsJoinTheCallersTransaction() throws SQLException {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(10), TYPES, 50);
+        connection.setAutoCommit(false);
+        try {
+            assertArrayEquals(new int[]{3}, SQLinteractions.bulkDeleteByIds(connection, "usuarios", "ID_usuarios", new int[]{1, 2, 3}, 10));
+            // Un fallo no deshace el trabajo anterior del llamador
+            String[][] values = {{"a", "1"}, {null, "2"}};
+            assertThrows(RuntimeException.class, () -> SQLinteractions.bulkUpdateByIdBatch(connection, "usuarios", "ID_usuarios",
+                    new int[]{4, 5}, COLUMNS, values, TYPES, 2));
+            assertFalse(connection.getAutoCommit());
+            assertEquals(7, SQLinteractions.countRows(connection, "usuarios"));
+
+            connection.rollback();
+            assertEquals(10, SQLinteractions.countRows(connection, "usuarios"));
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    @Test
+    public void failedBulkUpdateBatchRollsBackEverything() throws SQLException {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(4), TYPES, 50);
+        String[][] values = {{"a", "1"}, {"b", "2"}, {null, "3"}, {"d", "4"}};
+
+        assertThrows(RuntimeException.class, () -> SQLinteractions.bulkUpdateByIdBatch(connection, "usuarios", "ID_usuarios",
+                new int[]{1, 2, 3, 4}, COLUMNS, values, TYPES, 2));
+
+        assertTrue(connection.getAutoCommit());
+        assertEquals(0, SQLinteractions.searchByField(connection, "usuarios", "nombre", "a").size());
+    }
+
+    @Test
+    public void upsertInsertsThenUpdatesByKey() {
+        String[] key = {"nombre"};
+
+        assertTrue(SQLinteractions.upsert(connection, "usuarios", key, COLUMNS, new String[]{"ana", "20"}, TYPES));
+        assertTrue(SQLinteractions.upsert(connection, "usuarios", key, COLUMNS, new String[]{"ana", "21"}, TYPES));
+
+        List<String[]> found = SQLinteractions.searchByField(connection, "usuarios", "nombre", "ana");
+        assertEquals(1, found.size());
+        assertEquals("21", found.get(0)[2]);
+    }
+
+    @Test
+    public void upsertBatchTouchesEveryRowOnce() {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS, rows(10), TYPES, 50);
+        String[][] values = rows(20);
+        for (String[] row : values) {
+            row[1] = "1";
+        }
+
+        BatchResult result = SQLinteractions.upsertBatch(connection, "usuarios", new String[]{"nombre"}, COLUMNS, values, TYPES, 7);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(20, SQLinteractions.countRows(connection, "usuarios"));
+        assertEquals(20, SQLinteractions.searchByField(connection, "usuarios", "edad", "1").size());
+    }
+
+    @Test
+    public void createTableNotifiesWriteListeners() {
+        List<String> written = new ArrayList<>();
+        TableWriteNotifier.Listener listener = written::add;
+        TableWriteNotifier.addListener(listener);
+        try {
+            assertTrue(SQLinteractions.createTable(connection, "pedidos", new String[]{"total"}, new String[]{"INT"}));
+            try {
+                SQLinteractions.createTable(connection, "erronea", new String[]{"total"}, new String[]{"NO_ES_UN_TIPO"});
+                fail("Expected the CREATE TABLE to fail");
+            } catch (RuntimeException expected) {
+                // La notificación llega también cuando falla
+            }
+        } finally {
+            TableWriteNotifier.removeListener(listener);
+        }
+
+        assertEquals(List.of("pedidos", "erronea"), written);
+    }
+
+    @Test
+    public void caseInsensitiveSearchSeeksTheIndex() throws SQLException {
+        SQLinteractions.insertIntoTableBatch(connection, "usuarios", COLUMNS,
+                new String[][]{{"Juan", "30"}, {"ANA", "20"}, {"juan", "31"}}, TYPES, 10);
+
+        assertEquals(2, SQLinteractions.searchIgnoreCase(connection, "usuarios", "nombre", "JUAN").size());
+        assertTrue(SQLinteractions.createCaseInsensitiveIndex(connection, "usuarios", "nombre"));
+
+        List<String[]> found = SQLinteractions.searchIgnoreCase(connection, "usuarios", "nombre", "JUAN");
+        assertEquals(2, found.size());
+        // La columna auxiliar de H2 es invisible: SELECT * sigue devolviendo las mismas columnas
+        assertEquals(3, found.get(0).length);
+        assertEquals(1, SQLinteractions.searchIgnoreCaseMultipleFields(connection, "usuarios", COLUMNS,
+                new String[]{"ana", "20"}, TYPES).size());
+
+        String predicate = SQLDialects.forConnection(connection).caseInsensitiveEquals(connection, "usuarios", "nombre");
+        try (Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN SELECT * FROM usuarios WHERE " + predicate.replace("?", "'juan'"))) {
+            plan.next();
+            assertTrue(plan.getString(1), plan.getString(1).contains("usuarios_nombre_ci".toUpperCase()));
+        }
+    }
+}
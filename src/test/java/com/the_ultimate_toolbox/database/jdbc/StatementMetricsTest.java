@@ -0,0 +1,92 @@
+package com.the_ultimate_toolbox.database.jdbc;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class StatementMetricsTest {
+
+    private static final String[] COLUMNS = {"nombre", "edad"};
+    private static final String[] TYPES = {"VARCHAR", "INT"};
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = StatementMetrics.instrument(DriverManager.getConnection("jdbc:h2:mem:statement_metrics_test", "sa", ""));
+        SQLinteractions.createTable(connection, "metricas", COLUMNS, new String[]{"VARCHAR(50)", "INT"});
+        StatementMetrics.reset();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        StatementMetrics.setSlowQueryThreshold(1, TimeUnit.SECONDS);
+        connection.close();
+    }
+
+    @Test
+    public void shapesCollapseLiteralsAndLists() {
+        assertEquals("SELECT * FROM t WHERE a = ? AND b IN (?, ...)",
+                StatementMetrics.normalize("SELECT *  FROM t\n WHERE a = 'x''y' AND b IN (1, 2,3)"));
+        assertEquals("INSERT INTO t (a, b) VALUES (?, ...), ...",
+                StatementMetrics.normalize("INSERT INTO t (a, b) VALUES (?, ?), (?, ?), (?, ?)"));
+        assertEquals("SELECT col1 FROM t2 LIMIT ?", StatementMetrics.normalize("SELECT col1 FROM t2 LIMIT 10"));
+    }
+
+    @Test
+    public void executionsAreRecordedPerShape() {
+        for (int i = 0; i < 5; i++) {
+            SQLinteractions.insertIntoTableOneRecord(connection, "metricas", COLUMNS, new String[]{"n" + i, "" + i}, TYPES);
+        }
+        assertEquals(2, SQLinteractions.searchByField(connection, "metricas", "nombre", "n1").size()
+                + SQLinteractions.searchByField(connection, "metricas", "nombre", "n2").size());
+
+        StatementMetrics.ShapeStatistics insert = StatementMetrics.getStatistics("INSERT INTO metricas (nombre, edad) VALUES (?, ?)");
+        assertNotNull(insert);
+        assertEquals(5, insert.executions());
+        assertEquals(5, insert.rows().sum());
+        assertEquals(0, insert.errors());
+
+        StatementMetrics.ShapeStatistics search = StatementMetrics.getStatistics("SELECT * FROM metricas WHERE nombre = ?");
+        assertEquals(2, search.executions());
+        assertEquals(1, search.rows().max());
+        assertTrue(search.execute().valueAtPercentile(99) > 0);
+    }
+
+    @Test
+    public void failuresAreCountedAndThresholdIsConfigurable() {
+        try {
+            SQLinteractions.countRows(connection, "no_existe");
+            fail();
+        } catch (RuntimeException expected) {
+            // La tabla no existe
+        }
+        assertEquals(1, StatementMetrics.getStatistics("SELECT COUNT(*) FROM no_existe").errors());
+
+        StatementMetrics.setSlowQueryThreshold(-1, TimeUnit.MILLISECONDS);
+        assertEquals(-1, StatementMetrics.getSlowQueryThresholdNanos());
+        StatementMetrics.setSlowQueryThreshold(0, TimeUnit.MILLISECONDS);
+        assertEquals(0, SQLinteractions.countRows(connection, "metricas"));
+    }
+
+    @Test
+    public void histogramPercentilesStayWithinBucketError() {
+        LongHistogram histogram = new LongHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        LongHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(1_000_000, snapshot.max());
+        long p50 = snapshot.valueAtPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125);
+        assertEquals(1_000_000, snapshot.valueAtPercentile(100));
+    }
+}
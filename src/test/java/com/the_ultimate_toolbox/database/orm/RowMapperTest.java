@@ -0,0 +1,111 @@
+package com.the_ultimate_toolbox.database.orm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RowMapperTest {
+
+    public record Venta(String pais, int unidades, double importe, Integer descuento) {
+    }
+
+    public static class Cliente {
+        private String nombre;
+        private long puntos;
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public long getPuntos() {
+            return puntos;
+        }
+
+        public void setPuntos(long puntos) {
+            this.puntos = puntos;
+        }
+    }
+
+    public static class Etiqueta {
+        private final String clave;
+        private final int usos;
+
+        public Etiqueta(String clave, int usos) {
+            this.clave = clave;
+            this.usos = usos;
+        }
+    }
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:row_mapper_test", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ventas (pais VARCHAR(2), unidades INT, importe DOUBLE, descuento INT, nombre_cliente VARCHAR(20), puntos_cliente BIGINT)");
+            statement.execute("INSERT INTO ventas VALUES ('ES', 3, 59.7, NULL, 'juan', 120), ('FR', 1, 10.5, 5, 'marie', 7)");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void mapsRecordsByComponentName() {
+        List<Venta> ventas = RowMapper.query(connection, Venta.class,
+                "SELECT importe, descuento, pais, unidades FROM ventas ORDER BY pais");
+
+        assertEquals(2, ventas.size());
+        assertEquals(new Venta("ES", 3, 59.7, null), ventas.get(0));
+        assertEquals(Integer.valueOf(5), ventas.get(1).descuento());
+    }
+
+    @Test
+    public void mapsBeansThroughSetters() {
+        List<Cliente> clientes = RowMapper.query(connection, Cliente.class,
+                "SELECT nombre_cliente AS nombre, puntos_cliente AS puntos, pais FROM ventas WHERE pais = ?", "FR");
+
+        assertEquals(1, clientes.size());
+        assertEquals("marie", clientes.get(0).getNombre());
+        assertEquals(7, clientes.get(0).getPuntos());
+    }
+
+    @Test
+    public void mapsConstructorArgumentsByPosition() {
+        List<Etiqueta> etiquetas = RowMapper.query(connection, Etiqueta.class,
+                "SELECT pais, unidades FROM ventas ORDER BY unidades");
+
+        assertEquals("FR", etiquetas.get(0).clave);
+        assertEquals(3, etiquetas.get(1).usos);
+    }
+
+    @Test
+    public void reusesTheMapperForTheSameShape() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet first = statement.executeQuery("SELECT pais, unidades, importe, descuento FROM ventas")) {
+            RowMapper<Venta> mapper = RowMapper.of(Venta.class, first.getMetaData());
+            assertSame(mapper, RowMapper.of(Venta.class, first.getMetaData()));
+        }
+    }
+
+    @Test
+    public void missingRecordComponentIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RowMapper.query(connection, Venta.class, "SELECT pais, unidades FROM ventas"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.dialect.BulkInsertStrategy;
+import com.the_ultimate_toolbox.database.dialect.H2Dialect;
+import com.the_ultimate_toolbox.database.dialect.SQLDialect;
+import com.the_ultimate_toolbox.database.dialect.SQLDialects;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class CSVTableLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** H2 con sentencias INSERT de varias filas en lugar de lotes JDBC. */
+    private static final SQLDialect MULTI_ROW_H2 = new H2Dialect() {
+        @Override
+        public BulkInsertStrategy getBulkInsertStrategy() {
+            return BulkInsertStrategy.MULTI_ROW_VALUES;
+        }
+    };
+
+    private Connection connection;
+    private boolean multiRow;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:csv_loader_test", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ventas (id INT PRIMARY KEY, producto VARCHAR(50), pais VARCHAR(2))");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        if (multiRow) {
+            SQLDialects.unregister(MULTI_ROW_H2);
+        }
+        connection.close();
+    }
+
+    private void useMultiRowValues() {
+        multiRow = true;
+        SQLDialects.register(MULTI_ROW_H2);
+        assertSame(MULTI_ROW_H2, SQLDialects.forConnection(connection));
+    }
+
+    private Path csv(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("id;producto;pais\n");
+        for (int i = 1; i <= rows; i++) {
+            csv.append(i).append(";producto").append(i).append(';').append(i % 2 == 0 ? "ES" : "FR").append('\n');
+        }
+        return write(csv.toString());
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private void assertLoaded(int rows) throws SQLException {
+        assertEquals(rows, SQLinteractions.countRows(connection, "ventas"));
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT SUM(id) FROM ventas WHERE pais = 'ES'")) {
+            resultSet.next();
+            long evenSum = (long) (rows / 2) * (rows / 2 + 1);
+            assertEquals(evenSum, resultSet.getLong(1));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void batchLoadSpansSeveralChunksWithAnOddLastOne() throws IOException, SQLException {
+        CSVTableLoader.Result result = new CSVTableLoader(connection, "ventas").maxRowsPerStatement(7)
+                .load(csv(10_000).toString());
+
+        assertEquals(10_000, result.rowsLoaded());
+        // 10000 = 1428 * 7 + 4
+        assertEquals(1_429, result.statementsExecuted());
+        assertLoaded(10_000);
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test(timeout = 30_000)
+    public void multiRowLoadSpansSeveralChunksWithAnOddLastOne() throws IOException, SQLException {
+        useMultiRowValues();
+
+        CSVTableLoader.Result result = new CSVTableLoader(connection, "ventas").maxRowsPerStatement(7)
+                .load(csv(10_000).toString());
+
+        assertEquals(10_000, result.rowsLoaded());
+        assertEquals(1_429, result.statementsExecuted());
+        assertLoaded(10_000);
+    }
+
+    @Test(timeout = 30_000)
+    public void multiRowStatementsStayBelowThePacketLimit() throws IOException, SQLException {
+        useMultiRowValues();
+
+        // Cada fila cuenta como mucho 3 * 18 + 4 * 3 + 3 = 69 bytes: caben unas 8 por sentencia
+        CSVTableLoader.Result result = new CSVTableLoader(connection, "ventas").maxPacketBytes(700)
+                .load(csv(100).toString());
+
+        assertEquals(100, result.rowsLoaded());
+        assertTrue(result.statementsExecuted() > 10);
+        assertLoaded(100);
+    }
+
+    @Test
+    public void emptyFieldsBecomeNullOnlyWhenAsked() throws IOException, SQLException {
+        Path file = write("1;;ES\n2;teclado;\n");
+
+        new CSVTableLoader(connection, "ventas").header(false).columns("id", "producto", "pais").load(file.toString());
+        try (Statement statement = connection.createStatement()) {
+            assertEquals(0, count(statement, "producto IS NULL OR pais IS NULL"));
+            assertEquals(1, count(statement, "producto = ''"));
+            statement.execute("DELETE FROM ventas");
+        }
+
+        new CSVTableLoader(connection, "ventas").header(false).columns("id", "producto", "pais").emptyAsNull(true)
+                .load(file.toString());
+        try (Statement statement = connection.createStatement()) {
+            assertEquals(1, count(statement, "producto IS NULL AND id = 1"));
+            assertEquals(1, count(statement, "pais IS NULL AND id = 2"));
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void parserFailureIsReportedWithoutHanging() throws IOException, SQLException {
+        StringBuilder csv = new StringBuilder(Files.readString(csv(25)));
+        csv.append("26;le falta un campo\n");
+        Path file = write(csv.toString());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> new CSVTableLoader(connection, "ventas").maxRowsPerStatement(10).load(file.toString()));
+
+        assertTrue(e.getCause() instanceof IOException);
+        assertTrue(e.getCause().getMessage().startsWith("Line 27 has 2 fields"));
+        // Los trozos completos que el lector entregó antes del error sí se cargan
+        assertLoaded(20);
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test(timeout = 30_000)
+    public void badRowRollsBackOnlyItsChunk() throws IOException, SQLException {
+        StringBuilder csv = new StringBuilder(Files.readString(csv(10)));
+        csv.append("11;producto11;ES\n12;producto12;FR\n12;clave repetida;ES\n");
+        for (int i = 14; i <= 40; i++) {
+            csv.append(i).append(";producto").append(i).append(";FR\n");
+        }
+        Path file = write(csv.toString());
+
+        assertThrows(RuntimeException.class,
+                () -> new CSVTableLoader(connection, "ventas").maxRowsPerStatement(10).load(file.toString()));
+
+        // El primer trozo ya estaba confirmado; el segundo se deshace entero y la carga se detiene
+        assertLoaded(10);
+        assertTrue(connection.getAutoCommit());
+    }
+
+    private static int count(Statement statement, String condition) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM ventas WHERE " + condition)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.the_ultimate_toolbox.database.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ColumnarResultTest {
+
+    private static final int ROWS = 3_000;
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:columnar_test", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE ventas (id INT PRIMARY KEY, unidades BIGINT, pagada BOOLEAN, ratio DOUBLE,"
+                    + " importe DECIMAL(10, 2), acumulado DECIMAL(30, 4), pais VARCHAR(2))");
+            // Cada séptima fila tiene NULL en todas las columnas salvo el id
+            statement.execute("INSERT INTO ventas SELECT X,"
+                    + " CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE X * 10000000000 END,"
+                    + " CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE MOD(X, 2) = 0 END,"
+                    + " CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE X / 4.0 END,"
+                    + " CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE X + 0.01 END,"
+                    + " CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE 12345678901234567890.1234 + X END,"
+                    + " CASE WHEN MOD(X, 7) = 0 THEN NULL ELSE CASE MOD(X, 3) WHEN 0 THEN 'ES' WHEN 1 THEN 'FR' ELSE 'PT' END END"
+                    + " FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private ColumnarResult all() {
+        return ColumnarResult.query(connection, "SELECT * FROM ventas ORDER BY id");
+    }
+
+    @Test
+    public void everyColumnGetsItsStorageKind() {
+        ColumnarResult result = all();
+
+        assertEquals(ROWS, result.getRowCount());
+        assertEquals(7, result.getColumnCount());
+        assertEquals(ColumnarResult.ColumnKind.INT, result.getColumnKind(result.columnIndex("ID")));
+        assertEquals(ColumnarResult.ColumnKind.LONG, result.getColumnKind(result.columnIndex("unidades")));
+        assertEquals(ColumnarResult.ColumnKind.INT, result.getColumnKind(result.columnIndex("pagada")));
+        assertEquals(ColumnarResult.ColumnKind.DOUBLE, result.getColumnKind(result.columnIndex("ratio")));
+        assertEquals(ColumnarResult.ColumnKind.DECIMAL, result.getColumnKind(result.columnIndex("importe")));
+        assertEquals(ColumnarResult.ColumnKind.DECIMAL, result.getColumnKind(result.columnIndex("acumulado")));
+        assertEquals(ColumnarResult.ColumnKind.STRING, result.getColumnKind(result.columnIndex("pais")));
+        assertThrows(IllegalArgumentException.class, () -> result.columnIndex("no_existe"));
+        assertThrows(IllegalStateException.class, () -> result.doubleColumn(0));
+    }
+
+    @Test
+    public void valuesAreReadBackPerRow() {
+        ColumnarResult result = all();
+        int row = 1_233; // id 1234
+
+        assertEquals(1_234, result.getInt(row, 0));
+        assertEquals(12_340_000_000_000L, result.getLong(row, 1));
+        assertEquals(1, result.getInt(row, 2));
+        assertEquals(308.5, result.getDouble(row, 3), 0);
+        assertEquals(new BigDecimal("1234.01"), result.getBigDecimal(row, 4));
+        assertEquals("1234.01", result.getString(row, 4));
+        assertEquals(new BigDecimal("12345678901234569124.1234"), result.getBigDecimal(row, 5));
+        assertEquals("FR", result.getString(row, 6));
+        assertEquals("12340000000000", result.getString(row, 1));
+    }
+
+    @Test
+    public void decimalsKeepTheirExactValue() {
+        ColumnarResult result = all();
+
+        // DECIMAL(10, 2) cabe en un long sin escala; DECIMAL(30, 4) no
+        assertEquals(2, result.getScale(4));
+        assertEquals(-1, result.getScale(5));
+        assertThrows(IllegalStateException.class, () -> result.unscaledColumn(5));
+        long[] importes = result.unscaledColumn(4);
+        assertEquals(ROWS, importes.length);
+        assertEquals(101, importes[0]);
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (int row = 0; row < result.getRowCount(); row++) {
+            if (!result.isNull(row, 5)) {
+                total = total.add(result.getBigDecimal(row, 5));
+            }
+        }
+        assertEquals(4, total.scale());
+        assertEquals(new BigDecimal("12345678901234567890.1234"), total.subtract(sumOfIds())
+                .divide(BigDecimal.valueOf(ROWS - ROWS / 7)));
+    }
+
+    @Test
+    public void nullsAreTrackedPerCell() {
+        ColumnarResult result = all();
+
+        for (int row = 0; row < ROWS; row++) {
+            boolean expected = (row + 1) % 7 == 0;
+            for (int column = 1; column < result.getColumnCount(); column++) {
+                assertEquals("row " + row + ", column " + column, expected, result.isNull(row, column));
+            }
+            assertFalse(result.isNull(row, 0));
+        }
+        int row = 6; // id 7
+        assertNull(result.getString(row, 1));
+        assertNull(result.getBigDecimal(row, 4));
+        assertEquals(0, result.getLong(row, 1));
+        assertEquals(0, result.getDouble(row, 4), 0);
+        assertEquals(-1, result.dictionaryCodes(6)[row]);
+    }
+
+    @Test
+    public void textIsDictionaryEncoded() {
+        ColumnarResult result = all();
+
+        String[] dictionary = result.dictionary(6);
+        assertEquals(3, dictionary.length);
+        int[] codes = result.dictionaryCodes(6);
+        // La misma cadena compartida para todas las filas con el mismo valor
+        assertSame(result.getString(0, 6), result.getString(3, 6));
+        assertEquals("FR", dictionary[codes[0]]);
+    }
+
+    @Test
+    public void columnScansMatchTheDatabase() throws SQLException {
+        ColumnarResult result = all();
+
+        long units = 0;
+        long[] unidades = result.longColumn(1);
+        for (long value : unidades) {
+            units += value;
+        }
+        assertEquals(sumOfIds().longValueExact() * 10_000_000_000L, units);
+
+        long cents = 0;
+        for (long value : result.unscaledColumn(4)) {
+            cents += value;
+        }
+        assertEquals(sumOfIds().longValueExact() * 100 + (ROWS - ROWS / 7), cents);
+
+        int[] codes = result.dictionaryCodes(6);
+        int spanish = 0;
+        int es = Arrays.asList(result.dictionary(6)).indexOf("ES");
+        for (int code : codes) {
+            if (code == es) {
+                spanish++;
+            }
+        }
+        assertEquals(count("pais = 'ES'"), spanish);
+    }
+
+    @Test
+    public void parametersAreBound() {
+        ColumnarResult result = ColumnarResult.query(connection, "SELECT id FROM ventas WHERE pais = ? AND id < ?", "PT", "10");
+
+        assertArrayEquals(new int[]{2, 5, 8}, result.intColumn(0));
+    }
+
+    /**
+     * @return the sum of the ids of the rows without NULLs
+     */
+    private static BigDecimal sumOfIds() {
+        long sum = 0;
+        for (int id = 1; id <= ROWS; id++) {
+            if (id % 7 != 0) {
+                sum += id;
+            }
+        }
+        return BigDecimal.valueOf(sum);
+    }
+
+    private int count(String condition) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM ventas WHERE " + condition)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
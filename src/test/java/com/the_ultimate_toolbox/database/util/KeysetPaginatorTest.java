@@ -0,0 +1,92 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class KeysetPaginatorTest {
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:keyset_test", "sa", "");
+        String[] columns = {"pais", "unidades"};
+        SQLinteractions.createTable(connection, "ventas", columns, new String[]{"VARCHAR(2)", "INT"});
+        String[][] values = new String[25][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new String[]{i % 5 == 0 ? "FR" : "ES", Integer.toString(i)};
+        }
+        SQLinteractions.insertIntoTableBatch(connection, "ventas", columns, values, new String[]{"VARCHAR", "INT"}, 100);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    public void walksEveryRowOnceInKeyOrder() {
+        KeysetPaginator paginator = new KeysetPaginator(connection, "ventas", "ID_ventas").pageSize(10);
+        List<Integer> ids = new ArrayList<>();
+        KeysetPaginator.Page page = paginator.first();
+        int pages = 1;
+        collectIds(page, ids);
+        while (page.hasNext()) {
+            page = paginator.next(page.nextToken());
+            collectIds(page, ids);
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(25, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+    }
+
+    @Test
+    public void filterAndDescendingOrderAreApplied() {
+        KeysetPaginator paginator = new KeysetPaginator(connection, "ventas", "ID_ventas")
+                .where("pais", "ES").pageSize(15).descending(true);
+
+        KeysetPaginator.Page first = paginator.first();
+        assertEquals(15, first.rows().size());
+        assertTrue(first.hasNext());
+        KeysetPaginator.Page last = paginator.next(first.nextToken());
+        assertEquals(5, last.rows().size());
+        assertFalse(last.hasNext());
+
+        List<Integer> ids = new ArrayList<>();
+        collectIds(first, ids);
+        assertTrue(ids.get(0) > ids.get(ids.size() - 1));
+    }
+
+    @Test
+    public void exactMultipleOfPageSizeHasNoEmptyTrailingPage() {
+        KeysetPaginator.Page page = new KeysetPaginator(connection, "ventas", "ID_ventas").pageSize(25).first();
+        assertEquals(25, page.rows().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void malformedTokenIsRejected() {
+        KeysetPaginator paginator = new KeysetPaginator(connection, "ventas", "ID_ventas");
+        assertThrows(IllegalArgumentException.class, () -> paginator.next("not a token"));
+    }
+
+    private static void collectIds(KeysetPaginator.Page page, List<Integer> ids) {
+        for (String[] row : page.rows()) {
+            ids.add(Integer.parseInt(row[0]));
+        }
+    }
+}
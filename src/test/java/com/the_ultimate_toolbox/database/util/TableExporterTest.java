@@ -0,0 +1,102 @@
+package com.the_ultimate_toolbox.database.util;
+
+import com.the_ultimate_toolbox.database.core.ConnectionPool;
+import com.the_ultimate_toolbox.database.jdbc.SQLinteractions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TableExporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() throws SQLException {
+        pool = ConnectionPool.builder("jdbc:h2:mem:exporter_test;DB_CLOSE_DELAY=-1", "sa", "").maxSize(4).build();
+        try (Connection connection = pool.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS ventas");
+            statement.execute("CREATE TABLE ventas (id INT PRIMARY KEY, producto VARCHAR(50), pais VARCHAR(2))");
+            statement.execute("INSERT INTO ventas SELECT X, 'producto' || X, CASE WHEN MOD(X, 2) = 0 THEN 'ES' ELSE NULL END"
+                    + " FROM SYSTEM_RANGE(1, 1000)");
+            statement.execute("INSERT INTO ventas VALUES (5000, 'con;punto y coma', 'FR')");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void singleFileIsOrderedByKey() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("ventas.csv");
+
+        TableExporter.Result result = new TableExporter(pool, "ventas", "id").partitions(7).exportToFile(file.toString());
+
+        assertEquals(1001, result.rowsExported());
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(1002, lines.size());
+        assertEquals("ID;PRODUCTO;PAIS", lines.get(0));
+        assertEquals("1;producto1;", lines.get(1));
+        assertEquals("2;producto2;ES", lines.get(2));
+        assertEquals("5000;\"con;punto y coma\";FR", lines.get(1001));
+        // Solo queda el fichero final; los temporales de cada partición se borran
+        assertEquals(1, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void directoryGetsOneFilePerPartition() throws IOException {
+        Path dir = folder.getRoot().toPath().resolve("export");
+
+        TableExporter.Result result = new TableExporter(pool, "ventas", "id").partitions(4).exportToDirectory(dir.toString());
+
+        assertEquals(1001, result.rowsExported());
+        assertEquals(4, result.files().size());
+        long rows = 0;
+        for (Path file : result.files()) {
+            rows += Files.readAllLines(file).size() - 1;
+        }
+        assertEquals(1001, rows);
+    }
+
+    @Test
+    public void jsonOutputIsOneArray() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("ventas.json");
+
+        new TableExporter(pool, "ventas", "id").format(TableExporter.Format.JSON).partitions(3).exportToFile(file.toString());
+
+        String json = Files.readString(file);
+        assertTrue(json.startsWith("[\n{\"ID\":\"1\",\"PRODUCTO\":\"producto1\",\"PAIS\":null},\n"));
+        assertTrue(json.endsWith("{\"ID\":\"5000\",\"PRODUCTO\":\"con;punto y coma\",\"PAIS\":\"FR\"}\n]"));
+        assertEquals(1001, json.split("\\{").length - 1);
+    }
+
+    @Test
+    public void emptyTableExportsHeaderOnly() throws IOException, SQLException {
+        try (Connection connection = pool.getConnection()) {
+            SQLinteractions.createTable(connection, "vacia", new String[]{"nombre"}, new String[]{"VARCHAR(10)"});
+        }
+        Path file = folder.getRoot().toPath().resolve("vacia.csv");
+
+        TableExporter.Result result = new TableExporter(pool, "vacia", "ID_vacia").exportToFile(file.toString());
+
+        assertEquals(0, result.rowsExported());
+        assertEquals(List.of("ID_VACIA;NOMBRE"), Files.readAllLines(file));
+    }
+}
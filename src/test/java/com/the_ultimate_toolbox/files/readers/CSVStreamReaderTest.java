@@ -0,0 +1,91 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CSVStreamReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<String[]> readAll(CSVStreamReader reader, String csv) {
+        try (CSVCursor cursor = reader.open(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            List<String[]> rows = new ArrayList<>();
+            cursor.forEachRemaining(row -> rows.add(row.toArray()));
+            return rows;
+        }
+    }
+
+    @Test
+    public void quotedFieldsKeepDelimitersQuotesAndLineBreaks() {
+        // Un búfer de 4 caracteres obliga a partir comillas, saltos \r\n y campos entre lecturas
+        List<String[]> rows = readAll(new CSVStreamReader().bufferSize(4),
+                "\uFEFFa;\"b;c\";d\r\n\"di \"\"hola\"\"\";\"dos\r\nlineas\";\r\n\r\n;\"\";x\n");
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[]{"a", "b;c", "d"}, rows.get(0));
+        assertArrayEquals(new String[]{"di \"hola\"", "dos\r\nlineas", ""}, rows.get(1));
+        assertArrayEquals(new String[]{"", "", "x"}, rows.get(2));
+    }
+
+    @Test
+    public void headerAndLineNumbers() {
+        try (CSVCursor cursor = new CSVStreamReader().delimiter(',').header(true).open(
+                new ByteArrayInputStream("id,nombre\n1,\"Ana\nMaría\"\n2,Luis".getBytes(StandardCharsets.UTF_8)))) {
+            assertArrayEquals(new String[]{"id", "nombre"}, cursor.getHeader());
+            CSVRow first = cursor.next();
+            assertEquals("Ana\nMaría", first.get(1));
+            assertEquals(2, first.getLineNumber());
+            CSVRow second = cursor.next();
+            // La fila se reutiliza
+            assertSame(first, second);
+            assertEquals(4, second.getLineNumber());
+            assertEquals("Luis", second.get(1));
+            assertFalse(cursor.hasNext());
+            assertEquals(2, cursor.getRowsRead());
+        }
+    }
+
+    @Test
+    public void unterminatedQuoteIsAnError() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> readAll(new CSVStreamReader(), "a;b\nc;\"sin cerrar\n"));
+        assertTrue(e.getCause().getMessage().contains("line 2"));
+    }
+
+    @Test
+    public void largeFileIsStreamedAndPushed() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("grande.csv");
+        StringBuilder csv = new StringBuilder("id;pais;importe\n");
+        for (int i = 0; i < 100_000; i++) {
+            csv.append(i).append(';').append(i % 3 == 0 ? "ES" : "FR").append(';').append(i * 0.5).append('\n');
+        }
+        Files.writeString(file, csv, StandardCharsets.ISO_8859_1);
+        CSVStreamReader reader = new CSVStreamReader().header(true).charset(StandardCharsets.ISO_8859_1);
+
+        long[] spanish = new long[1];
+        long rows = reader.forEach(file.toString(), row -> {
+            if (row.get(1).equals("ES")) {
+                spanish[0]++;
+            }
+        });
+        assertEquals(100_000, rows);
+        assertEquals(33_334, spanish[0]);
+
+        try (Stream<CSVRow> stream = reader.stream(file.toString())) {
+            assertEquals(99_999 * 0.5, stream.mapToDouble(row -> Double.parseDouble(row.get(2))).max().getAsDouble(), 0);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappedCSVReaderTest {
+
+    private static final String QUOTED = "\uFEFFa;\"b;c\";d\r\n\"di \"\"hola\"\"\";\"dos\r\nlineas\";\r\n\r\n;\"\";x\n-42;+7;\"\"\"\"";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String csv) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String[]> readAll(MappedCSVReader reader, Path file) {
+        List<String[]> rows = new ArrayList<>();
+        reader.forEach(file.toString(), row -> rows.add(row.toArray()));
+        return rows;
+    }
+
+    @Test
+    public void quotedFieldsMatchTheStreamReader() throws IOException {
+        Path file = write(QUOTED);
+
+        List<String[]> mapped = readAll(new MappedCSVReader(), file);
+
+        List<String[]> streamed = new ArrayList<>();
+        new CSVStreamReader().forEach(file.toString(), row -> streamed.add(row.toArray()));
+        assertEquals(4, mapped.size());
+        assertArrayEquals(new String[]{"di \"hola\"", "dos\r\nlineas", ""}, mapped.get(1));
+        assertArrayEquals(new String[]{"-42", "+7", "\""}, mapped.get(3));
+        for (int i = 0; i < mapped.size(); i++) {
+            assertArrayEquals(streamed.get(i), mapped.get(i));
+        }
+    }
+
+    @Test
+    public void rowsCutByTheWindowAreReadAgain() throws IOException {
+        Path file = write(QUOTED);
+        List<String[]> whole = readAll(new MappedCSVReader(), file);
+
+        // La fila más larga tiene 30 bytes: ventanas de 32 a 80 bytes cortan comillas, \r\n y campos por todas partes
+        for (int window = 32; window <= 80; window++) {
+            List<String[]> windowed = readAll(new MappedCSVReader().windowBytes(window), file);
+            assertEquals("window " + window, whole.size(), windowed.size());
+            for (int i = 0; i < whole.size(); i++) {
+                assertArrayEquals("window " + window, whole.get(i), windowed.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void fieldsAreViewsOverTheFile() throws IOException {
+        Path file = write("id,nombre,importe\n1,\"Ana\nMaría\",-1500\n2,Luis,77\n");
+        List<long[]> seen = new ArrayList<>();
+
+        long rows = new MappedCSVReader().delimiter(',').header(true).forEach(file.toString(), row -> {
+            seen.add(new long[]{row.getLineNumber(), row.offset(1), row.length(1), row.getInt(0), row.getLong(2)});
+            assertTrue(row.isQuoted(1) == (row.getInt(0) == 1));
+        });
+
+        assertEquals(2, rows);
+        assertArrayEquals(new long[]{2, 20, 12, 1, -1500}, seen.get(0));
+        // "María" ocupa 6 bytes en UTF-8 y la fila 1 ocupa dos líneas
+        assertArrayEquals(new long[]{4, 41, 4, 2, 77}, seen.get(1));
+    }
+
+    @Test
+    public void malformedInputIsReported() throws IOException {
+        RuntimeException unterminated = assertThrows(RuntimeException.class,
+                () -> readAll(new MappedCSVReader(), write("a;b\nc;\"sin cerrar\n")));
+        assertTrue(unterminated.getCause().getMessage().contains("line 2"));
+
+        RuntimeException tooLong = assertThrows(RuntimeException.class,
+                () -> readAll(new MappedCSVReader().windowBytes(4), write("a;b\nuna fila larga\n")));
+        assertTrue(tooLong.getCause().getMessage().contains("line 2"));
+
+        assertThrows(NumberFormatException.class,
+                () -> new MappedCSVReader().forEach(write("12x\n").toString(), row -> row.getLong(0)));
+        assertThrows(IllegalArgumentException.class, () -> new MappedCSVReader().charset(StandardCharsets.UTF_16));
+    }
+}
@@ -0,0 +1,97 @@
+package com.the_ultimate_toolbox.files.readers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.Assert.*;
+
+public class ParallelCSVReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Writes rows whose quoted fields contain delimiters, doubled quotes and line breaks, so that many chunk
+     * starts fall inside quotes.
+     */
+    private Path write(int rows) throws IOException {
+        StringBuilder csv = new StringBuilder("id;texto;importe\r\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(';');
+            switch (i % 4) {
+                case 0 -> csv.append("simple");
+                case 1 -> csv.append("\"con;punto\ny \"\"comillas\"\"\n\"");
+                case 2 -> csv.append("\"\"");
+                default -> csv.append("\"una\r\nlinea\nmas\"");
+            }
+            csv.append(';').append(i * 2).append(i % 5 == 0 ? "\r\n" : "\n");
+        }
+        Path file = folder.newFile().toPath();
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void orderedRowsMatchTheSequentialReader() throws IOException {
+        Path file = write(2_000);
+        List<String[]> expected = new ArrayList<>();
+        new MappedCSVReader().header(true).forEach(file.toString(), row -> expected.add(row.toArray()));
+
+        for (long chunk : new long[]{7, 64, 1_000, 1 << 20}) {
+            List<String[]> rows = new ParallelCSVReader().header(true).chunkBytes(chunk).readAll(file.toString());
+            assertEquals("chunk " + chunk, expected.size(), rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                assertArrayEquals("chunk " + chunk, expected.get(i), rows.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void unorderedRowsKeepTheirLineNumbers() throws IOException {
+        Path file = write(2_000);
+        ConcurrentHashMap<Long, Long> lineById = new ConcurrentHashMap<>();
+        new MappedCSVReader().header(true).forEach(file.toString(), row -> lineById.put(row.getLong(0), row.getLineNumber()));
+        LongAdder total = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            long rows = new ParallelCSVReader().header(true).chunkBytes(333).pool(pool).forEach(file.toString(), row -> {
+                total.add(row.getLong(2));
+                assertEquals(lineById.get(row.getLong(0)), Long.valueOf(row.getLineNumber()));
+            });
+            assertEquals(2_000, rows);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1999L * 2000, total.sum());
+    }
+
+    @Test
+    public void chunksStartOutsideQuotes() throws IOException {
+        Path file = write(500);
+        try (FileChannel channel = FileChannel.open(file)) {
+            List<ParallelCSVReader.Range> ranges = new ParallelCSVReader().chunkBytes(100).split(channel);
+            assertTrue(ranges.size() > 10);
+            String csv = Files.readString(file);
+            long previous = 0;
+            for (ParallelCSVReader.Range range : ranges) {
+                assertEquals(previous, range.from());
+                // Un número par de comillas antes del inicio: el rango empieza fuera de un campo entre comillas
+                assertEquals(0, csv.substring(0, (int) range.from()).chars().filter(c -> c == '"').count() % 2);
+                previous = range.to();
+            }
+            assertEquals(channel.size(), previous);
+        }
+    }
+}
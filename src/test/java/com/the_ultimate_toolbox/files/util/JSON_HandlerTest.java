@@ -0,0 +1,86 @@
+package com.bufigol.fileManagment;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSON_HandlerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String CSV = "id;nombre;nota\n"
+            + "1;\"Pérez; Ana\";\"dice \"\"hola\"\"\\/\"\n"
+            + "2;\"dos\nlineas\"\n"
+            + "3;tab\there;\u0001\n";
+
+    private Path csv() throws IOException {
+        Path csv = folder.newFile("datos.csv").toPath();
+        Files.writeString(csv, CSV, StandardCharsets.UTF_8);
+        return csv;
+    }
+
+    @Test
+    public void arrayOutputParsesBackToTheRows() throws Exception {
+        Path json = folder.getRoot().toPath().resolve("datos.json");
+
+        assertEquals(3, JSON_Handler.csvToJson(csv().toString(), json.toString(), JSON_Handler.Format.ARRAY));
+
+        List<JSONObject> objects = JSON_Handler.readJsonObjects(json.toString());
+        assertEquals(3, objects.size());
+        assertEquals("Pérez; Ana", objects.get(0).get("nombre"));
+        assertEquals("dice \"hola\"\\/", objects.get(0).get("nota"));
+        assertEquals("dos\nlineas", objects.get(1).get("nombre"));
+        // Una fila más corta que la cabecera deja null en las claves que faltan
+        assertTrue(objects.get(1).containsKey("nota"));
+        assertNull(objects.get(1).get("nota"));
+        assertEquals("tab\there", objects.get(2).get("nombre"));
+        assertEquals("\u0001", objects.get(2).get("nota"));
+        assertEquals(List.of("1", "2", "3"), JSON_Handler.getValuesForKey(objects, "id"));
+    }
+
+    @Test
+    public void linesOutputWritesOneObjectPerLineInHeaderOrder() throws Exception {
+        Path json = folder.getRoot().toPath().resolve("datos.jsonl");
+
+        assertEquals(3, JSON_Handler.csvToJson(csv().toString(), json.toString(), JSON_Handler.Format.LINES));
+
+        List<String> lines = Files.readAllLines(json, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("{\"id\":\"3\",\"nombre\":\"tab\\there\",\"nota\":\"\\u0001\"}", lines.get(2));
+        JSONParser parser = new JSONParser();
+        for (String line : lines) {
+            assertTrue(parser.parse(line) instanceof JSONObject);
+        }
+    }
+
+    @Test
+    public void emptyCsvGivesAnEmptyArray() throws Exception {
+        Path csv = folder.newFile("vacio.csv").toPath();
+        Path json = folder.getRoot().toPath().resolve("vacio.json");
+
+        JSON_Handler.csvToJson(csv.toString(), json.toString());
+
+        assertEquals("[]", Files.readString(json));
+        assertTrue(JSON_Handler.readJsonObjects(json.toString()).isEmpty());
+    }
+
+    @Test
+    public void readValueDecodesUtf8() throws Exception {
+        Path json = folder.getRoot().toPath().resolve("ciudad.json");
+        Files.writeString(json, "{\"ciudad\":\"A Coruña\",\"pais\":\"España\"}", StandardCharsets.UTF_8);
+
+        assertEquals("A Coruña", JSON_Handler.readValueFromJson(json.toString(), "ciudad"));
+        assertEquals("España", JSON_Handler.readValueFromJson(json.toString(), "pais"));
+    }
+}
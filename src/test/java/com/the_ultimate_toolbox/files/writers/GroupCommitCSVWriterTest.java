@@ -0,0 +1,113 @@
+package com.the_ultimate_toolbox.files.writers;
+
+import com.the_ultimate_toolbox.files.readers.CSVStreamReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class GroupCommitCSVWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void concurrentRowsAreGroupedAndEscaped() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("eventos.csv");
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        GroupCommitCSVWriter.Statistics statistics;
+        try (GroupCommitCSVWriter writer = GroupCommitCSVWriter.builder(file.toString())
+                .header("hilo", "fila", "texto").lineSeparator("\n").flushChars(4_096).capacityChars(16_384).build()) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                tasks.add(producers.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        writer.write(String.valueOf(thread), String.valueOf(i), i % 2 == 0 ? "con;\"comillas\"\ny salto" : null);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+            writer.flush().get(10, TimeUnit.SECONDS);
+            statistics = writer.getStatistics();
+        } finally {
+            producers.shutdownNow();
+        }
+
+        assertEquals(40_000, statistics.rowsWritten());
+        assertTrue(statistics.groups() < 40_000);
+        Set<String> seen = new HashSet<>();
+        long rows = new CSVStreamReader().header(true).forEach(file.toString(), row -> {
+            assertEquals(Integer.parseInt(row.get(1)) % 2 == 0 ? "con;\"comillas\"\ny salto" : "", row.get(2));
+            assertTrue(seen.add(row.get(0) + "/" + row.get(1)));
+        });
+        assertEquals(40_000, rows);
+    }
+
+    @Test
+    public void fsyncFutureCompletesWithItsGroup() {
+        Path file = folder.getRoot().toPath().resolve("durable.csv");
+        try (GroupCommitCSVWriter writer = GroupCommitCSVWriter.builder(file.toString())
+                .durability(GroupCommitCSVWriter.Durability.FSYNC).maxDelayMillis(60_000).build()) {
+            CompletableFuture<Void> first = writer.write("a", "1");
+            CompletableFuture<Void> second = writer.write("b", "2");
+            // Las dos filas van en el mismo grupo, y nada se escribe hasta que se pide
+            assertNotSame(first, second);
+            assertFalse(first.isDone());
+            // Cancelar el futuro propio no afecta al de la otra fila del grupo
+            assertTrue(first.cancel(false));
+            assertFalse(second.isDone());
+
+            writer.flush().join();
+
+            assertTrue(second.isDone());
+            assertFalse(second.isCompletedExceptionally());
+            assertEquals(1, writer.getStatistics().syncs());
+            assertEquals(2, writer.getStatistics().rowsWritten());
+        }
+    }
+
+    @Test
+    public void reopeningAppendsWithoutASecondHeader() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("log.csv");
+        for (int i = 0; i < 2; i++) {
+            try (GroupCommitCSVWriter writer = GroupCommitCSVWriter.builder(file.toString()).header("n").lineSeparator("\n").build()) {
+                writer.write(String.valueOf(i));
+            }
+        }
+
+        assertEquals(List.of("n", "0", "1"), Files.readAllLines(file));
+    }
+
+    @Test
+    public void closeWritesTheBufferAndRejectsLaterRows() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cierre.csv");
+        GroupCommitCSVWriter writer = GroupCommitCSVWriter.builder(file.toString()).lineSeparator("\n").maxDelayMillis(60_000).build();
+        CompletableFuture<Void> queued = writer.write("x");
+
+        writer.close();
+
+        assertTrue(queued.isDone() && !queued.isCompletedExceptionally());
+        assertEquals(List.of("x"), Files.readAllLines(file));
+        CompletionException e = assertThrows(CompletionException.class, () -> writer.write("y").join());
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+}